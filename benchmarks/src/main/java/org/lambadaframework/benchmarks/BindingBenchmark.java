@@ -0,0 +1,222 @@
+package org.lambadaframework.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.log4j.Logger;
+import org.lambadaframework.runtime.binding.BindingPlan;
+import org.lambadaframework.runtime.models.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the precompiled binding plan with the per-invocation annotation walk of the former ResourceMethodInvoker,
+ * for a method bound from path, query and header parameters and for a method reading a JSON body
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+
+    public static class Entity {
+        public String name;
+        public int count;
+    }
+
+    public static class BindingResource {
+
+        public String handle(@PathParam("id") long id,
+                             @QueryParam("page") int page,
+                             @QueryParam("filter") String filter,
+                             @HeaderParam("X-Request-Id") String requestId,
+                             Context context) {
+            return filter;
+        }
+
+        @Consumes(MediaType.APPLICATION_JSON)
+        public String create(Entity entity) {
+            return entity.name;
+        }
+    }
+
+    private Method parametersMethod;
+
+    private Method bodyMethod;
+
+    private Request parametersRequest;
+
+    private Request bodyRequest;
+
+    private BindingPlan parametersPlan;
+
+    private BindingPlan bodyPlan;
+
+    @Setup
+    public void setUp() throws Exception {
+        parametersMethod = BindingResource.class.getMethod("handle", long.class, int.class, String.class, String.class, Context.class);
+        parametersPlan = BindingPlan.compile(parametersMethod);
+
+        bodyMethod = BindingResource.class.getMethod("create", Entity.class);
+        bodyPlan = BindingPlan.compile(bodyMethod);
+
+        Map<String, String> pathParameters = new HashMap<>();
+        pathParameters.put("id", "123");
+
+        Map<String, String> queryParameters = new HashMap<>();
+        queryParameters.put("page", "2");
+        queryParameters.put("filter", "active");
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-Request-Id", "7d5c6a2e");
+
+        parametersRequest = new Request()
+                .setMethod(Request.RequestMethod.GET)
+                .setPathtemplate("/{id}")
+                .setPath(pathParameters)
+                .setQuerystring(queryParameters)
+                .setHeader(headers);
+
+        Map<String, String> bodyHeaders = new HashMap<>();
+        bodyHeaders.put("Content-Type", MediaType.APPLICATION_JSON);
+
+        bodyRequest = new Request()
+                .setMethod(Request.RequestMethod.POST)
+                .setPathtemplate("/")
+                .setHeader(bodyHeaders)
+                .setRequestbody("{\"name\":\"lambada\",\"count\":3}");
+    }
+
+    @Benchmark
+    public Object[] bindingPlan() {
+        return parametersPlan.bind(parametersRequest, null);
+    }
+
+    @Benchmark
+    public Object[] annotationWalk() {
+        return ReflectiveBinding.bind(parametersMethod, parametersRequest, null);
+    }
+
+    @Benchmark
+    public Object[] bindingPlanBody() {
+        return bodyPlan.bind(bodyRequest, null);
+    }
+
+    @Benchmark
+    public Object[] annotationWalkBody() {
+        return ReflectiveBinding.bind(bodyMethod, bodyRequest, null);
+    }
+
+    /**
+     * Parameter binding as it was done by ResourceMethodInvoker before binding plans,
+     * with the same converters and the same body reading
+     */
+    static final class ReflectiveBinding {
+
+        static final Logger logger = Logger.getLogger(ReflectiveBinding.class);
+
+        private ReflectiveBinding() {
+        }
+
+        static Object[] bind(Method method, Request request, Context lambdaContext) {
+            List<Object> varargs = new ArrayList<>();
+            Consumes consumesAnnotation = method.getAnnotation(Consumes.class);
+
+            for (Parameter parameter : method.getParameters()) {
+                Class<?> parameterClass = parameter.getType();
+
+                if (parameter.isAnnotationPresent(PathParam.class)) {
+                    PathParam annotation = parameter.getAnnotation(PathParam.class);
+                    varargs.add(toObject(request.getPathParameters().get(annotation.value()), parameterClass));
+                }
+
+                if (parameter.isAnnotationPresent(QueryParam.class)) {
+                    QueryParam annotation = parameter.getAnnotation(QueryParam.class);
+                    varargs.add(toObject(request.getQueryParams().get(annotation.value()), parameterClass));
+                }
+
+                if (parameter.isAnnotationPresent(HeaderParam.class)) {
+                    HeaderParam annotation = parameter.getAnnotation(HeaderParam.class);
+                    varargs.add(toObject(request.getRequestHeaders().get(annotation.value()), parameterClass));
+                }
+
+                if (consumesAnnotation != null && consumesSpecificType(consumesAnnotation, MediaType.APPLICATION_JSON)) {
+                    if (parameterClass == String.class) {
+                        varargs.add(request.getRequestBody());
+                    } else {
+                        ObjectMapper mapper = new ObjectMapper();
+                        try {
+                            varargs.add(mapper.readValue(request.getRequestBody(), parameterClass));
+                        } catch (IOException ioException) {
+                            logger.error("Could not serialized " + request.getRequestBody() + " to " + parameterClass + ":", ioException);
+                            varargs.add(null);
+                        }
+                    }
+                }
+
+                if (parameter.getType() == Context.class) {
+                    varargs.add(lambdaContext);
+                }
+            }
+
+            return varargs.toArray();
+        }
+
+        private static Object toObject(String value, Class<?> clazz) {
+            if (clazz == Integer.class || Integer.TYPE == clazz) {
+                return Integer.parseInt(value);
+            }
+            if (clazz == Long.class || Long.TYPE == clazz) {
+                return Long.parseLong(value);
+            }
+            if (clazz == Float.class || Float.TYPE == clazz) {
+                return Float.parseFloat(value);
+            }
+            if (clazz == Boolean.class || Boolean.TYPE == clazz) {
+                return Boolean.parseBoolean(value);
+            }
+            if (clazz == Double.class || Double.TYPE == clazz) {
+                return Double.parseDouble(value);
+            }
+            if (clazz == Byte.class || Byte.TYPE == clazz) {
+                return Byte.parseByte(value);
+            }
+            if (clazz == Short.class || Short.TYPE == clazz) {
+                return Short.parseShort(value);
+            }
+            return value;
+        }
+
+        private static boolean consumesSpecificType(Consumes annotation, String type) {
+            for (String consumingType : annotation.value()) {
+                if (type.equals(consumingType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.lambadaframework.benchmarks;
+
+import org.lambadaframework.jaxrs.JAXRSParser;
+import org.lambadaframework.jaxrs.ResourceIndex;
+import org.lambadaframework.runtime.Handler;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.router.Router;
+import org.lambadaframework.stubs.StubHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full Handler.handleRequest path against the stub handlers: routing, binding, invocation and response mapping
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+
+    private Handler handler;
+
+    private Request getEntityRequest;
+
+    private Request newEntityRequest;
+
+    private Request notFoundRequest;
+
+    @Setup
+    public void setUp() {
+        JAXRSParser jaxrsParser = new JAXRSParser()
+                .withResourceIndex(new ResourceIndex(Collections.singleton(StubHandler.class.getName())));
+
+        handler = new Handler().setRouter(Router.getRouter().setJaxrsParser(jaxrsParser));
+
+        Map<String, String> pathParameters = new HashMap<>();
+        pathParameters.put("id", "123");
+
+        getEntityRequest = new Request()
+                .setPackage("org.lambadaframework.stubs")
+                .setMethod(Request.RequestMethod.GET)
+                .setPathtemplate("/resource1/{id}")
+                .setPath(pathParameters);
+
+        newEntityRequest = new Request()
+                .setPackage("org.lambadaframework.stubs")
+                .setMethod(Request.RequestMethod.POST)
+                .setPathtemplate("/resource1")
+                .setRequestbody("{\"id\":42,\"name\":\"lambada\"}");
+
+        notFoundRequest = new Request()
+                .setPackage("org.lambadaframework.stubs")
+                .setMethod(Request.RequestMethod.GET)
+                .setPathtemplate("/resource2/{id}");
+    }
+
+    @Benchmark
+    public Response getEntity() {
+        return handler.handleRequest(getEntityRequest, null);
+    }
+
+    @Benchmark
+    public Response newEntity() {
+        return handler.handleRequest(newEntityRequest, null);
+    }
+
+    @Benchmark
+    public Response notFound() {
+        return handler.handleRequest(notFoundRequest, null);
+    }
+}
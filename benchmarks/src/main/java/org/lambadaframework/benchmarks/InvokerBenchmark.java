@@ -0,0 +1,128 @@
+package org.lambadaframework.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.runtime.ResourceMethodInvoker;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.router.RouteMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResourceMethodInvoker.invoke cost with different parameter mixes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokerBenchmark {
+
+    public static class NewEntityRequest {
+        public long id;
+        public String name;
+    }
+
+    @Path("/entities")
+    public static class InvokerResource {
+
+        @GET
+        public String noParameters() {
+            return "entities";
+        }
+
+        @GET
+        @Path("{id}")
+        public long pathParameter(@PathParam("id") long id) {
+            return id;
+        }
+
+        @GET
+        @Path("{id}/children")
+        public String mixedParameters(@PathParam("id") long id,
+                                      @QueryParam("page") int page,
+                                      @QueryParam("filter") String filter,
+                                      @HeaderParam("X-Request-Id") String requestId,
+                                      Context context) {
+            return filter;
+        }
+
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        public NewEntityRequest jsonBody(NewEntityRequest entity) {
+            return entity;
+        }
+    }
+
+    @Param({"noParameters", "pathParameter", "mixedParameters", "jsonBody"})
+    public String methodName;
+
+    private RouteMatch routeMatch;
+
+    private Request request;
+
+    @Setup
+    public void setUp() {
+        Resource resource = new Resource(org.glassfish.jersey.server.model.Resource.from(InvokerResource.class));
+        routeMatch = RouteMatch.of(findResourceMethod(resource));
+
+        Map<String, String> pathParameters = new HashMap<>();
+        pathParameters.put("id", "123");
+
+        Map<String, String> queryParameters = new HashMap<>();
+        queryParameters.put("page", "2");
+        queryParameters.put("filter", "active");
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-Request-Id", "7d5c6a2e");
+
+        request = new Request()
+                .setPath(pathParameters)
+                .setQuerystring(queryParameters)
+                .setHeader(headers)
+                .setRequestbody("{\"id\":42,\"name\":\"lambada\"}");
+    }
+
+    private ResourceMethod findResourceMethod(Resource resource) {
+        for (ResourceMethod candidate : resource.getResourceMethods()) {
+            if (candidate.getInvocable().getHandlingMethod().getName().equals(methodName)) {
+                return candidate;
+            }
+        }
+        for (Resource childResource : resource.getChildResources()) {
+            ResourceMethod found = findResourceMethod(childResource);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object invoke() throws Exception {
+        return ResourceMethodInvoker.invoke(routeMatch, request, null);
+    }
+}
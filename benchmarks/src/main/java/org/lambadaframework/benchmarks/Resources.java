@@ -0,0 +1,81 @@
+package org.lambadaframework.benchmarks;
+
+import org.glassfish.jersey.process.Inflector;
+import org.lambadaframework.jaxrs.JAXRSParser;
+import org.lambadaframework.jaxrs.model.Resource;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Builds resource tables for the benchmarks
+ */
+final class Resources {
+
+    private static final Inflector<ContainerRequestContext, Object> INFLECTOR = new Inflector<ContainerRequestContext, Object>() {
+        @Override
+        public Object apply(ContainerRequestContext containerRequestContext) {
+            return "HELLO";
+        }
+    };
+
+    private Resources() {
+    }
+
+    /**
+     * Creates a table with the given number of endpoints.
+     * <p>
+     * Every four endpoints share a resource: GET and DELETE /resourceN/{id}, GET and POST /resourceN.
+     *
+     * @param endpoints Number of endpoints
+     * @return Resources
+     */
+    static List<Resource> getResources(int endpoints) {
+        List<Resource> resources = new LinkedList<>();
+        for (int i = 0; i < endpoints / 4; i++) {
+            resources.add(getResource("/resource" + i + "/{id}", "GET", "DELETE"));
+            resources.add(getResource("/resource" + i, "GET", "POST"));
+        }
+        return resources;
+    }
+
+    private static Resource getResource(String path, String... httpMethods) {
+        org.glassfish.jersey.server.model.Resource.Builder resourceBuilder = org.glassfish.jersey.server.model.Resource.builder();
+        resourceBuilder.path(path);
+        for (String httpMethod : httpMethods) {
+            resourceBuilder.addMethod(httpMethod).handledBy(INFLECTOR);
+        }
+        return new Resource(resourceBuilder.build());
+    }
+
+    /**
+     * Parser that returns a fixed resource table instead of scanning.
+     * <p>
+     * Every scan method is overridden, otherwise the router would scan the whole benchmarks JAR.
+     */
+    static JAXRSParser getParser(List<Resource> resources) {
+        return new JAXRSParser() {
+            @Override
+            public JAXRSParser withPackageName(String packageName, Class clazz) {
+                return this;
+            }
+
+            @Override
+            public List<Class<? extends Object>> scanClasses() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public List<Resource> scan() {
+                return resources;
+            }
+
+            @Override
+            public List<Class<?>> scanProviders() {
+                return Collections.emptyList();
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package org.lambadaframework.benchmarks;
+
+import org.lambadaframework.runtime.models.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response.buildFromJAXRSResponse cost for plain entities and JAX-RS responses with headers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+    public static class Entity {
+        public long id = 42;
+        public String name = "lambada";
+    }
+
+    private Entity entity;
+
+    private javax.ws.rs.core.Response jaxrsResponse;
+
+    @Setup
+    public void setUp() {
+        entity = new Entity();
+        jaxrsResponse = javax.ws.rs.core.Response
+                .status(201)
+                .header("Location", "http://www.lambadaframework.org/entities/42")
+                .header("Cache-Control", "no-cache")
+                .entity(entity)
+                .build();
+    }
+
+    @Benchmark
+    public Response plainEntity() {
+        return Response.buildFromJAXRSResponse(entity);
+    }
+
+    @Benchmark
+    public Response jaxrsResponse() {
+        return Response.buildFromJAXRSResponse(jaxrsResponse);
+    }
+}
@@ -0,0 +1,110 @@
+package org.lambadaframework.benchmarks;
+
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.router.Route;
+import org.lambadaframework.runtime.router.RouteMatch;
+import org.lambadaframework.runtime.router.RouteTree;
+import org.lambadaframework.runtime.router.Router;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.ws.rs.NotFoundException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing cost over endpoint tables of different sizes.
+ * <p>
+ * route goes through Router with its routing cache, routeTree measures the compiled tree alone.
+ * notFound compares a 404 returned as a shared RouteMatch with the same miss reported by NotFoundException.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+
+    private static final int REQUESTS = 64;
+
+    @Param({"10", "100", "1000"})
+    public int endpoints;
+
+    private Router router;
+
+    private RouteTree routeTree;
+
+    private Request[] requests;
+
+    private Request[] notFoundRequests;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Resource> resources = Resources.getResources(endpoints);
+        routeTree = new RouteTree(resources);
+        router = Router.getRouter().setJaxrsParser(Resources.getParser(resources));
+
+        requests = new Request[REQUESTS];
+        int resourceCount = endpoints / 4;
+        for (int i = 0; i < REQUESTS; i++) {
+            requests[i] = new Request()
+                    .setPackage("org.lambadaframework.benchmarks.router" + endpoints)
+                    .setMethod(i % 2 == 0 ? Request.RequestMethod.GET : Request.RequestMethod.DELETE)
+                    .setPathtemplate("/resource" + (i * 7 % resourceCount) + "/{id}");
+        }
+
+        notFoundRequests = new Request[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            notFoundRequests[i] = new Request()
+                    .setPackage("org.lambadaframework.benchmarks.router" + endpoints)
+                    .setMethod(Request.RequestMethod.GET)
+                    .setPathtemplate("/wp-admin/page" + i + ".php");
+        }
+    }
+
+    private Request nextRequest() {
+        next = (next + 1) % REQUESTS;
+        return requests[next];
+    }
+
+    @Benchmark
+    public ResourceMethod route() {
+        return router.route(nextRequest());
+    }
+
+    @Benchmark
+    public RouteMatch notFound() {
+        next = (next + 1) % REQUESTS;
+        return router.match(notFoundRequests[next]);
+    }
+
+    @Benchmark
+    public Object notFoundException() {
+        next = (next + 1) % REQUESTS;
+        try {
+            return router.route(notFoundRequests[next]);
+        } catch (NotFoundException notFoundException) {
+            return notFoundException;
+        }
+    }
+
+    @Benchmark
+    public Route routeTree() {
+        Request request = nextRequest();
+        return routeTree.findRoute(request.getPathTemplate(), request.getMethod().name());
+    }
+}
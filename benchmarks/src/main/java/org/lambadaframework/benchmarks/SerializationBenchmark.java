@@ -0,0 +1,58 @@
+package org.lambadaframework.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.lambadaframework.runtime.serialization.JsonSerialization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares request body binding through the cached object reader with creating an object mapper per request.
+ * <p>
+ * Run with -prof gc to see the allocation rate of both approaches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    public static class NewEntityRequest {
+        public long id;
+        public String name;
+        public List<String> tags;
+    }
+
+    private String requestBody;
+
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() {
+        requestBody = "{\"id\":42,\"name\":\"lambada\",\"tags\":[\"serverless\",\"jax-rs\"]}";
+        reader = JsonSerialization.reader(NewEntityRequest.class);
+    }
+
+    @Benchmark
+    public Object cachedReader() throws Exception {
+        return reader.readValue(requestBody);
+    }
+
+    @Benchmark
+    public Object objectMapperPerRequest() throws Exception {
+        return new ObjectMapper().readValue(requestBody, NewEntityRequest.class);
+    }
+}
@@ -0,0 +1,488 @@
+package org.lambadaframework.jaxrs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds JAX-RS resource candidates by reading the class files, without loading the classes.
+ * <p>
+ * The constant pool and the runtime visible annotations of the class, its fields, methods and method
+ * parameters are parsed. A class is a candidate if it uses a javax.ws.rs annotation or a custom
+ * HTTP method annotation (an annotation annotated with @HttpMethod), or if one of its super types is a candidate,
+ * because Jersey inherits JAX-RS annotations from super classes and interfaces.
+ * <p>
+ * Class files are parsed in parallel, directly from the mapped JAR file when entries are stored. Only the candidates need to be loaded and given to Jersey.
+ */
+public final class ClassFileScanner {
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    private static final String JAXRS_ANNOTATION_PREFIX = "Ljavax/ws/rs/";
+
+    private static final String HTTP_METHOD_ANNOTATION = "Ljavax/ws/rs/HttpMethod;";
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private static final String RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+
+    private ClassFileScanner() {
+    }
+
+    /**
+     * Summary of a class file
+     */
+    static final class ClassFile {
+
+        final String className;
+
+        final String superClassName;
+
+        final String[] interfaceNames;
+
+        /**
+         * Descriptors of the annotation types used in the class
+         */
+        final Set<String> annotationTypes;
+
+        /**
+         * Class file could not be parsed, it is always a candidate
+         */
+        final boolean unreadable;
+
+        ClassFile(String className, String superClassName, String[] interfaceNames, Set<String> annotationTypes, boolean unreadable) {
+            this.className = className;
+            this.superClassName = superClassName;
+            this.interfaceNames = interfaceNames;
+            this.annotationTypes = annotationTypes;
+            this.unreadable = unreadable;
+        }
+
+        boolean isHttpMethodAnnotation() {
+            return annotationTypes.contains(HTTP_METHOD_ANNOTATION);
+        }
+    }
+
+    /**
+     * Finds the resource candidates in the JAR file
+     *
+     * @param jarFile     JAR file
+     * @param packageName Package name to filter, null for all classes
+     * @return Binary names of the candidates, in JAR entry order
+     * @throws IOException If JAR file can not be read
+     */
+    public static List<String> findResourceClassNames(MappedJarFile jarFile, String packageName)
+            throws IOException {
+        return findResourceClassNames(jarFile, packageName, null);
+    }
+
+    /**
+     * Finds the resource candidates in the JAR file, only the entries that are not in the scan cache are parsed
+     *
+     * @param jarFile     JAR file
+     * @param packageName Package name to filter, null for all classes
+     * @param scanCache   Scan cache, null to parse all entries
+     * @return Binary names of the candidates, in JAR entry order
+     * @throws IOException If JAR file can not be read
+     */
+    public static List<String> findResourceClassNames(MappedJarFile jarFile, String packageName, ScanCache scanCache)
+            throws IOException {
+
+        List<MappedJarFile.Entry> classEntries = new LinkedList<>();
+        for (MappedJarFile.Entry entry : jarFile.getEntries()) {
+            if (!entry.isDirectory() && entry.getName().endsWith(CLASS_EXTENSION)) {
+                classEntries.add(entry);
+            }
+        }
+
+        return findResourceClassNames(classEntries, entry -> {
+            if (scanCache != null) {
+                ClassFile cachedClassFile = scanCache.get(entry);
+                if (cachedClassFile != null) {
+                    return cachedClassFile;
+                }
+            }
+
+            try {
+                ClassFile classFile = read(getClassName(entry.getName()), jarFile.getContent(entry));
+                if (scanCache != null) {
+                    scanCache.put(entry, classFile);
+                }
+                return classFile;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, packageName);
+    }
+
+    /**
+     * Finds the resource candidates in a class directory
+     *
+     * @param classesDirectory Root directory of the classes
+     * @param packageName      Package name to filter, null for all classes
+     * @return Binary names of the candidates
+     * @throws IOException If the directory can not be read
+     */
+    public static List<String> findResourceClassNames(Path classesDirectory, String packageName)
+            throws IOException {
+
+        List<Path> classFiles;
+        try (Stream<Path> paths = Files.walk(classesDirectory)) {
+            classFiles = paths
+                    .filter(path -> path.toString().endsWith(CLASS_EXTENSION))
+                    .collect(Collectors.toList());
+        }
+
+        return findResourceClassNames(classFiles, classFile -> {
+            String relativePath = classesDirectory.relativize(classFile).toString().replace(classFile.getFileSystem().getSeparator(), "/");
+            try {
+                return read(getClassName(relativePath), ByteBuffer.wrap(Files.readAllBytes(classFile)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, packageName);
+    }
+
+    private static <T> List<String> findResourceClassNames(Collection<T> classFiles,
+                                                           Function<T, ClassFile> reader,
+                                                           String packageName)
+            throws IOException {
+
+        List<ClassFile> parsedClassFiles;
+        try {
+            parsedClassFiles = classFiles
+                    .parallelStream()
+                    .map(reader)
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return findCandidates(parsedClassFiles, packageName);
+    }
+
+    static List<String> findCandidates(List<ClassFile> classFiles, String packageName) {
+
+        Map<String, ClassFile> classFilesByName = new HashMap<>();
+        Set<String> annotationTypes = new HashSet<>();
+        for (ClassFile classFile : classFiles) {
+            classFilesByName.put(classFile.className, classFile);
+            if (classFile.isHttpMethodAnnotation()) {
+                annotationTypes.add("L" + classFile.className.replace('.', '/') + ";");
+            }
+        }
+
+        Map<String, Boolean> candidates = new HashMap<>();
+        List<String> classNames = new LinkedList<>();
+        for (ClassFile classFile : classFiles) {
+            if (packageName != null && !isInPackage(classFile.className, packageName)) {
+                continue;
+            }
+            if (isCandidate(classFile, classFilesByName, annotationTypes, candidates)) {
+                classNames.add(classFile.className);
+            }
+        }
+        return classNames;
+    }
+
+    private static boolean isCandidate(ClassFile classFile,
+                                       Map<String, ClassFile> classFilesByName,
+                                       Set<String> httpMethodAnnotations,
+                                       Map<String, Boolean> candidates) {
+
+        Boolean candidate = candidates.get(classFile.className);
+        if (candidate != null) {
+            return candidate;
+        }
+
+        /**
+         * Guards against cycles in malformed hierarchies
+         */
+        candidates.put(classFile.className, false);
+
+        candidate = classFile.unreadable || usesJaxrsAnnotations(classFile, httpMethodAnnotations);
+
+        if (!candidate && classFile.superClassName != null) {
+            ClassFile superClass = classFilesByName.get(classFile.superClassName);
+            candidate = superClass != null && isCandidate(superClass, classFilesByName, httpMethodAnnotations, candidates);
+        }
+
+        for (int i = 0; !candidate && i < classFile.interfaceNames.length; i++) {
+            ClassFile superInterface = classFilesByName.get(classFile.interfaceNames[i]);
+            candidate = superInterface != null && isCandidate(superInterface, classFilesByName, httpMethodAnnotations, candidates);
+        }
+
+        candidates.put(classFile.className, candidate);
+        return candidate;
+    }
+
+    private static boolean usesJaxrsAnnotations(ClassFile classFile, Set<String> httpMethodAnnotations) {
+        for (String annotationType : classFile.annotationTypes) {
+            if (annotationType.startsWith(JAXRS_ANNOTATION_PREFIX) || httpMethodAnnotations.contains(annotationType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param className   Binary class name
+     * @param packageName Package name
+     * @return True if the class is in the package or in one of its sub packages
+     */
+    static boolean isInPackage(String className, String packageName) {
+        return className.startsWith(packageName)
+                && (packageName.isEmpty()
+                || packageName.endsWith(".")
+                || className.length() > packageName.length() && className.charAt(packageName.length()) == '.');
+    }
+
+    private static String getClassName(String entryName) {
+        // -6 because of .class
+        return entryName.substring(0, entryName.length() - CLASS_EXTENSION.length()).replace('/', '.');
+    }
+
+    /**
+     * Reads the summary of a class file
+     *
+     * @param className   Class name derived from the file name, used if the class file can not be parsed
+     * @param inputStream Class file
+     * @return Class file summary
+     * @throws IOException If the stream can not be read
+     */
+    static ClassFile read(String className, InputStream inputStream)
+            throws IOException {
+        return read(className, ByteBuffer.wrap(readFully(inputStream)));
+    }
+
+    /**
+     * Reads the summary of a class file
+     *
+     * @param className Class name derived from the file name, used if the class file can not be parsed
+     * @param buffer    Class file
+     * @return Class file summary
+     */
+    static ClassFile read(String className, ByteBuffer buffer) {
+        try {
+            return parse(buffer.order(ByteOrder.BIG_ENDIAN));
+        } catch (IOException | RuntimeException e) {
+            return new ClassFile(className, null, new String[0], new HashSet<>(), true);
+        }
+    }
+
+    private static byte[] readFully(InputStream inputStream)
+            throws IOException {
+        byte[] buffer = new byte[Math.max(inputStream.available(), 1024)];
+        int length = 0;
+        int read;
+        while ((read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private static ClassFile parse(ByteBuffer input)
+            throws IOException {
+
+        if (input.getInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file");
+        }
+        readUnsignedShort(input); // minor version
+        readUnsignedShort(input); // major version
+
+        /**
+         * Constant pool, only UTF8 and class entries are kept
+         */
+        int constantPoolCount = readUnsignedShort(input);
+        String[] utf8Entries = new String[constantPoolCount];
+        int[] classEntries = new int[constantPoolCount];
+
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = readUnsignedByte(input);
+            switch (tag) {
+                case 1: // Utf8
+                    utf8Entries[i] = readUtf8(input);
+                    break;
+                case 7: // Class
+                    classEntries[i] = readUnsignedShort(input);
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skip(input, 2);
+                    break;
+                case 15: // MethodHandle
+                    skip(input, 3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skip(input, 4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    skip(input, 8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        readUnsignedShort(input); // access flags
+        String className = getClassNameFromPool(readUnsignedShort(input), utf8Entries, classEntries);
+        String superClassName = getClassNameFromPool(readUnsignedShort(input), utf8Entries, classEntries);
+
+        String[] interfaceNames = new String[readUnsignedShort(input)];
+        for (int i = 0; i < interfaceNames.length; i++) {
+            interfaceNames[i] = getClassNameFromPool(readUnsignedShort(input), utf8Entries, classEntries);
+        }
+
+        Set<String> annotationTypes = new HashSet<>();
+
+        /**
+         * Fields and methods have the same layout
+         */
+        for (int members = 0; members < 2; members++) {
+            int memberCount = readUnsignedShort(input);
+            for (int i = 0; i < memberCount; i++) {
+                skip(input, 6); // access flags, name, descriptor
+                readAttributes(input, utf8Entries, annotationTypes);
+            }
+        }
+
+        readAttributes(input, utf8Entries, annotationTypes);
+
+        return new ClassFile(className, superClassName, interfaceNames, annotationTypes, false);
+    }
+
+    private static String getClassNameFromPool(int classIndex, String[] utf8Entries, int[] classEntries) {
+        if (classIndex == 0) {
+            return null;
+        }
+        return utf8Entries[classEntries[classIndex]].replace('/', '.');
+    }
+
+    private static void readAttributes(ByteBuffer input, String[] utf8Entries, Set<String> annotationTypes)
+            throws IOException {
+
+        int attributeCount = readUnsignedShort(input);
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = utf8Entries[readUnsignedShort(input)];
+            int length = input.getInt();
+
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                readAnnotations(input, utf8Entries, annotationTypes);
+            } else if (RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS.equals(attributeName)) {
+                int parameterCount = readUnsignedByte(input);
+                for (int parameter = 0; parameter < parameterCount; parameter++) {
+                    readAnnotations(input, utf8Entries, annotationTypes);
+                }
+            } else {
+                skip(input, length);
+            }
+        }
+    }
+
+    private static void readAnnotations(ByteBuffer input, String[] utf8Entries, Set<String> annotationTypes)
+            throws IOException {
+        int annotationCount = readUnsignedShort(input);
+        for (int i = 0; i < annotationCount; i++) {
+            readAnnotation(input, utf8Entries, annotationTypes);
+        }
+    }
+
+    private static void readAnnotation(ByteBuffer input, String[] utf8Entries, Set<String> annotationTypes)
+            throws IOException {
+        annotationTypes.add(utf8Entries[readUnsignedShort(input)]);
+        int elementCount = readUnsignedShort(input);
+        for (int i = 0; i < elementCount; i++) {
+            skip(input, 2); // element name
+            skipElementValue(input, utf8Entries, annotationTypes);
+        }
+    }
+
+    private static void skipElementValue(ByteBuffer input, String[] utf8Entries, Set<String> annotationTypes)
+            throws IOException {
+        int tag = readUnsignedByte(input);
+        switch (tag) {
+            case 'e':
+                skip(input, 4);
+                break;
+            case '@':
+                readAnnotation(input, utf8Entries, annotationTypes);
+                break;
+            case '[':
+                int valueCount = readUnsignedShort(input);
+                for (int i = 0; i < valueCount; i++) {
+                    skipElementValue(input, utf8Entries, annotationTypes);
+                }
+                break;
+            default:
+                skip(input, 2);
+        }
+    }
+
+    private static int readUnsignedShort(ByteBuffer input) {
+        return input.getShort() & 0xFFFF;
+    }
+
+    private static int readUnsignedByte(ByteBuffer input) {
+        return input.get() & 0xFF;
+    }
+
+    private static void skip(ByteBuffer input, int length) {
+        input.position(input.position() + length);
+    }
+
+    /**
+     * Decodes a modified UTF-8 constant
+     */
+    private static String readUtf8(ByteBuffer input)
+            throws IOException {
+        int length = readUnsignedShort(input);
+        char[] chars = new char[length];
+        int charCount = 0;
+        int end = input.position() + length;
+
+        while (input.position() < end) {
+            int first = readUnsignedByte(input);
+            if (first < 0x80) {
+                chars[charCount++] = (char) first;
+            } else if ((first & 0xE0) == 0xC0) {
+                chars[charCount++] = (char) (((first & 0x1F) << 6) | (readUnsignedByte(input) & 0x3F));
+            } else if ((first & 0xF0) == 0xE0) {
+                int second = readUnsignedByte(input);
+                chars[charCount++] = (char) (((first & 0x0F) << 12) | ((second & 0x3F) << 6) | (readUnsignedByte(input) & 0x3F));
+            } else {
+                throw new IOException("Malformed UTF-8 constant");
+            }
+        }
+
+        return new String(chars, 0, charCount);
+    }
+}
@@ -1,26 +1,34 @@
 package org.lambadaframework.jaxrs;
 
 
+import org.apache.log4j.Logger;
 import org.lambadaframework.jaxrs.model.Resource;
 
-import java.io.File;
+import javax.ws.rs.ext.Provider;
+
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.nio.file.*;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Enumeration;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
 public class JAXRSParser {
 
+    static final Logger logger = Logger.getLogger(JAXRSParser.class);
+
     private String packageName;
     private String jarUrl;
     private Class clazz;
+    private ResourceIndex resourceIndex;
+    private Path scanCacheLocation;
+
+    private String scannedClassesKey;
+    private List<Class<? extends Object>> scannedClasses;
 
 
     public JAXRSParser() {
@@ -44,43 +52,69 @@ public class JAXRSParser {
         return this;
     }
 
+    /**
+     * Uses a precomputed resource index instead of scanning the classpath.
+     * <p>
+     * The index is only used when scanning by package name, JAR file scans
+     * always read the JAR file itself.
+     *
+     * @param resourceIndex Resource index, null to always scan
+     * @return JAXRSParser
+     */
+    public JAXRSParser withResourceIndex(ResourceIndex resourceIndex) {
+        this.resourceIndex = resourceIndex;
+        return this;
+    }
+
+    /**
+     * Keeps the class file scan results of JAR files in the given file,
+     * so that the next scan parses only the changed classes.
+     *
+     * @param scanCacheLocation Cache file, usually in the target directory. Null to disable the cache
+     * @return JAXRSParser
+     */
+    public JAXRSParser withScanCache(Path scanCacheLocation) {
+        this.scanCacheLocation = scanCacheLocation;
+        return this;
+    }
+
     private List<Class<? extends Object>> getClassesInJarFile(String jarUrl)
             throws IOException {
 
         URL[] urls = {new URL("jar:file:" + jarUrl + "!/")};
-        JarFile jarFile = new JarFile(jarUrl);
-        URLClassLoader cl = new URLClassLoader(urls, Thread.currentThread().getContextClassLoader());
-
 
         List<Class<? extends Object>> classes = new LinkedList<>();
 
+        /**
+         * JAR file is mapped once per build and shared by the scans of the build,
+         * only the classes that use JAX-RS annotations are loaded
+         */
+        MappedJarFile jarFile = MappedJarFile.openShared(Paths.get(jarUrl));
 
-        Enumeration e = jarFile.entries();
-        while (e.hasMoreElements()) {
-            JarEntry je = (JarEntry) e.nextElement();
-            if (je.isDirectory() || !je.getName().endsWith(".class")) {
-                continue;
-            }
-            // -6 because of .class
-            String className = je.getName().substring(0, je.getName().length() - 6);
-            className = className.replace('/', '.');
+        try (URLClassLoader cl = new URLClassLoader(urls, Thread.currentThread().getContextClassLoader())) {
 
-            if (this.packageName != null && !className.startsWith(packageName)) {
-                continue;
-            }
+            ScanCache scanCache = scanCacheLocation == null ? null : ScanCache.load(scanCacheLocation);
 
-            try {
-                Class c = Class.forName(className, false, cl);
-                classes.add(c);
-            } catch (ClassNotFoundException | NoClassDefFoundError exception) {
-                System.out.printf("Can't load class: " + exception.getMessage());
+            List<String> classNames = ClassFileScanner.findResourceClassNames(jarFile, this.packageName, scanCache);
+
+            if (scanCache != null) {
+                try {
+                    scanCache.save();
+                } catch (IOException e) {
+                    // The cache is only an optimization, the next scan reads all classes
+                }
             }
 
+            for (String className : classNames) {
+                try {
+                    Class c = Class.forName(className, false, cl);
+                    classes.add(c);
+                } catch (ClassNotFoundException | NoClassDefFoundError exception) {
+                    logger.warn("Can't load class " + className + ": " + exception.getMessage());
+                }
+            }
         }
-        
-        jarFile.close();
-        cl.close();
-        
+
         return classes;
     }
 
@@ -101,11 +135,6 @@ public class JAXRSParser {
         List<Class<? extends Object>> classes = new LinkedList<>();
 
         try {
-            final String classExtension = ".class";
-            final String blank = "";
-            final String classSeperator = ".";
-
-
             final String jarPath = clazz.getProtectionDomain().getCodeSource().getLocation().toURI().getPath();
 
             if (jarPath.endsWith(".jar")) {
@@ -115,33 +144,19 @@ public class JAXRSParser {
                 return getClassesInJarFile(jarPath);
             }
 
-            final String packagePath = jarPath + packageName.replace(classSeperator, File.separator);
-
-            Files.walkFileTree(Paths.get(packagePath), new SimpleFileVisitor<Path>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
-                        throws IOException {
-
-                    String fileName = file.toString();
-
-                    if (fileName.endsWith(classExtension)) {
-                        String className = fileName.replace(jarPath, blank).replace(File.separator, classSeperator);
-                        className = className.substring(0, className.length() - classExtension.length());
-
-                        try {
-                            classes.add(
-                                    Class.forName(className)
-                            );
-                        } catch (ClassNotFoundException | NoClassDefFoundError e) {
-                            return FileVisitResult.CONTINUE;
-                        }
-
-                    }
-
-
-                    return FileVisitResult.CONTINUE;
+            /**
+             * The whole directory is read so that JAX-RS annotations
+             * inherited from super types outside the package are found
+             */
+            for (String className : ClassFileScanner.findResourceClassNames(Paths.get(jarPath), packageName)) {
+                try {
+                    classes.add(
+                            Class.forName(className)
+                    );
+                } catch (ClassNotFoundException | NoClassDefFoundError e) {
+                    // Skip classes that can not be loaded
                 }
-            });
+            }
 
         } catch (URISyntaxException | IOException e) {
             return classes;
@@ -153,16 +168,76 @@ public class JAXRSParser {
 
     /**
      * Scans package for JAX-RS Annotations
+     * <p>
+     * If the resource index has a route table, the resources are built from it instead.
      *
      * @return Found resources
      */
     public List<Resource> scan() {
+        if (jarUrl == null && resourceIndex != null && resourceIndex.hasRoutes()) {
+            List<Resource> indexedResources = resourceIndex.getResources(packageName, getClassLoader());
+            if (indexedResources != null) {
+                return indexedResources;
+            }
+        }
+
         List<Resource> foundResources = new LinkedList<>();
 
+        for (Class clazz : getClasses()) {
+            foundResources.addAll(getResourcesFromClassRecursive(clazz));
+        }
+
+        return foundResources;
+    }
+
+    /**
+     * Finds and loads the classes of the package, without building their resource models.
+     * <p>
+     * The classes are kept, so a following {@link #scan()} or {@link #scanProviders()} does not find them again.
+     *
+     * @return Found classes
+     */
+    public List<Class<? extends Object>> scanClasses() {
+        return getClasses();
+    }
+
+    /**
+     * Scans package for classes annotated with @Provider, like exception mappers
+     *
+     * @return Found provider classes
+     */
+    public List<Class<?>> scanProviders() {
+        List<Class<?>> providers = new LinkedList<>();
+
+        for (Class<?> clazz : getClasses()) {
+            try {
+                if (clazz.isAnnotationPresent(Provider.class)) {
+                    providers.add(clazz);
+                }
+            } catch (NoClassDefFoundError e) {
+                // Skip classes whose annotations can not be loaded
+            }
+        }
+
+        return providers;
+    }
+
+    /**
+     * Classes are listed once per package and source, so scanning resources and then providers
+     * does not walk the JAR file twice
+     */
+    private List<Class<? extends Object>> getClasses() {
+        String classesKey = jarUrl + "|" + packageName + "|" + (clazz == null ? null : clazz.getName()) + "|" + (resourceIndex != null);
+        if (classesKey.equals(scannedClassesKey)) {
+            return scannedClasses;
+        }
+
         List<Class<? extends Object>> classes;
 
         try {
-            if (jarUrl == null) {
+            if (jarUrl == null && resourceIndex != null) {
+                classes = resourceIndex.getClasses(this.packageName, getClassLoader());
+            } else if (jarUrl == null) {
                 if (this.clazz != null) {
                     classes = getClassesInPackage(this.packageName, this.clazz);
                 } else {
@@ -172,18 +247,19 @@ public class JAXRSParser {
                 classes = getClassesInJarFile(jarUrl);
             }
         } catch (IOException e) {
-            return foundResources;
+            return new LinkedList<>();
         }
 
+        scannedClasses = classes;
+        scannedClassesKey = classesKey;
+        return classes;
+    }
 
-        for (Class clazz : classes) {
-            foundResources.addAll(getResourcesFromClassRecursive(clazz));
-        }
 
-        return foundResources;
+    private ClassLoader getClassLoader() {
+        return (this.clazz != null ? this.clazz : JAXRSParser.class).getClassLoader();
     }
 
-
     private List<Resource> getResourcesFromClassRecursive(Class clazz) {
         List<Resource> foundResources = new LinkedList<>();
 
@@ -205,7 +281,12 @@ public class JAXRSParser {
     private List<Resource> getResourcesFromClassRecursive(Resource resource, List<Resource> foundResources) {
 
         if (resource.getChildResources().size() > 0) {
-            for (Resource subResource : resource.getChildResources()) {
+            /**
+             * Jersey lists child resources in reflection order, which changes between JVM runs
+             */
+            List<Resource> childResources = new ArrayList<>(resource.getChildResources());
+            childResources.sort(Comparator.comparing(Resource::getPath));
+            for (Resource subResource : childResources) {
                 foundResources = getResourcesFromClassRecursive(subResource, foundResources);
             }
         } else {
@@ -0,0 +1,388 @@
+package org.lambadaframework.jaxrs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read-only view of a JAR file that is memory mapped and whose central directory is parsed only once.
+ * <p>
+ * Stored entries are returned as slices of the mapping without copying, deflated entries are inflated
+ * into a buffer of their exact size.
+ * <p>
+ * The mapping is released when the file is closed, so the JAR file can be rewritten afterwards.
+ * Contents of stored entries must not be used after closing.
+ * <p>
+ * Files opened with {@link #openShared(Path)} are shared in the JVM for the whole build, so the index goal,
+ * the deployer and the local server read the same mapping and parse the central directory once.
+ * A shared file is mapped again if its size or modification time changes, and it is released by
+ * {@link #closeShared(Path)}, which must be called before the JAR file is rewritten.
+ * ZIP64 archives are not supported, {@link #open(Path)} throws an IOException for them.
+ */
+public final class MappedJarFile implements Closeable {
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+    private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private static final int STORED = 0;
+
+    private static final int DEFLATED = 8;
+
+    private static final Map<Path, MappedJarFile> sharedFiles = new ConcurrentHashMap<>();
+
+    public static final class Entry {
+
+        private final String name;
+
+        private final int compressionMethod;
+
+        private final long crc;
+
+        private final int compressedSize;
+
+        private final int size;
+
+        private final int localHeaderOffset;
+
+        private Entry(String name, int compressionMethod, long crc, int compressedSize, int size, int localHeaderOffset) {
+            this.name = name;
+            this.compressionMethod = compressionMethod;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return CRC-32 of the uncompressed content, as recorded in the central directory
+         */
+        public long getCrc() {
+            return crc;
+        }
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+
+    private final Path path;
+
+    private final long size;
+
+    private final long lastModified;
+
+    /**
+     * Mapping of the file, null after the file is closed
+     */
+    private volatile ByteBuffer mapping;
+
+    private final List<Entry> entries;
+
+    private MappedJarFile(Path path, long size, long lastModified, ByteBuffer mapping)
+            throws IOException {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.mapping = mapping;
+        this.entries = Collections.unmodifiableList(readCentralDirectory(mapping));
+    }
+
+    /**
+     * Maps the JAR file and reads its central directory
+     *
+     * @param path JAR file
+     * @return Mapped JAR file
+     * @throws IOException If the file can not be read or it is not a supported ZIP archive
+     */
+    public static MappedJarFile open(Path path)
+            throws IOException {
+
+        Path absolutePath = path.toAbsolutePath().normalize();
+        long size = Files.size(absolutePath);
+        long lastModified = Files.getLastModifiedTime(absolutePath).toMillis();
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("JAR files larger than 2GB are not supported: " + absolutePath);
+        }
+
+        ByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(absolutePath, StandardOpenOption.READ)) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        try {
+            return new MappedJarFile(absolutePath, size, lastModified, mapping);
+        } catch (IOException | RuntimeException e) {
+            unmap(mapping);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the shared instance of the JAR file, mapping it if it is not opened yet or if it has changed.
+     * <p>
+     * Shared instances must not be closed by their users, see {@link #closeShared(Path)}.
+     *
+     * @param path JAR file
+     * @return Shared mapped JAR file
+     * @throws IOException If the file can not be read or it is not a supported ZIP archive
+     */
+    public static MappedJarFile openShared(Path path)
+            throws IOException {
+
+        Path absolutePath = path.toAbsolutePath().normalize();
+        MappedJarFile jarFile = sharedFiles.get(absolutePath);
+        if (jarFile != null && jarFile.isCurrent()) {
+            return jarFile;
+        }
+
+        synchronized (sharedFiles) {
+            jarFile = sharedFiles.get(absolutePath);
+            if (jarFile != null && jarFile.isCurrent()) {
+                return jarFile;
+            }
+            if (jarFile != null) {
+                sharedFiles.remove(absolutePath);
+                jarFile.close();
+            }
+
+            jarFile = open(absolutePath);
+            sharedFiles.put(absolutePath, jarFile);
+            return jarFile;
+        }
+    }
+
+    /**
+     * Releases the shared instance of the JAR file, if it is opened
+     *
+     * @param path JAR file
+     */
+    public static void closeShared(Path path) {
+        MappedJarFile jarFile;
+        synchronized (sharedFiles) {
+            jarFile = sharedFiles.remove(path.toAbsolutePath().normalize());
+        }
+        if (jarFile != null) {
+            jarFile.close();
+        }
+    }
+
+    /**
+     * @return True if the file is open and it has not changed since it is mapped
+     */
+    private boolean isCurrent() {
+        try {
+            return mapping != null
+                    && Files.size(path) == size
+                    && Files.getLastModifiedTime(path).toMillis() == lastModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Releases the mapping
+     */
+    @Override
+    public void close() {
+        ByteBuffer mapping = this.mapping;
+        this.mapping = null;
+        if (mapping != null) {
+            unmap(mapping);
+        }
+    }
+
+    /**
+     * Mapped buffers are released by the garbage collector, which may be too late to rewrite the file on some platforms.
+     * There is no public API to release them earlier, so the cleaner of the buffer is used if the JVM allows it.
+     */
+    private static void unmap(ByteBuffer mapping) {
+        try {
+            Method cleanerMethod = mapping.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(mapping);
+            if (cleaner != null) {
+                Method cleanMethod = cleaner.getClass().getMethod("clean");
+                cleanMethod.setAccessible(true);
+                cleanMethod.invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            /**
+             * The garbage collector releases the mapping
+             */
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return Entries in central directory order
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the uncompressed content of the entry.
+     * <p>
+     * The returned buffer is independent, it can be read from multiple threads until the file is closed.
+     *
+     * @param entry Entry of this file
+     * @return Content of the entry
+     * @throws IOException If the entry is corrupt or uses an unsupported compression method
+     */
+    public ByteBuffer getContent(Entry entry)
+            throws IOException {
+
+        ByteBuffer data = getRawData(entry);
+
+        if (entry.compressionMethod == STORED) {
+            return data;
+        }
+
+        if (entry.compressionMethod != DEFLATED) {
+            throw new IOException("Unsupported compression method " + entry.compressionMethod + " for " + entry.name);
+        }
+
+        byte[] compressed = new byte[data.remaining()];
+        data.get(compressed);
+
+        byte[] content = new byte[entry.size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            int length = 0;
+            while (length < content.length && !inflater.finished()) {
+                int inflated = inflater.inflate(content, length, content.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != content.length) {
+                throw new IOException("Corrupt entry " + entry.name);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt entry " + entry.name, e);
+        } finally {
+            inflater.end();
+        }
+
+        return ByteBuffer.wrap(content);
+    }
+
+    private ByteBuffer getRawData(Entry entry)
+            throws IOException {
+
+        ByteBuffer mapping = this.mapping;
+        if (mapping == null) {
+            throw new IOException("JAR file is closed: " + path);
+        }
+
+        ByteBuffer buffer = mapping.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt(entry.localHeaderOffset) != LOCAL_FILE_HEADER_SIGNATURE) {
+            throw new IOException("Invalid local file header for " + entry.name);
+        }
+
+        int nameLength = buffer.getShort(entry.localHeaderOffset + 26) & 0xFFFF;
+        int extraLength = buffer.getShort(entry.localHeaderOffset + 28) & 0xFFFF;
+        int dataOffset = entry.localHeaderOffset + LOCAL_FILE_HEADER_SIZE + nameLength + extraLength;
+
+        buffer.position(dataOffset);
+        buffer.limit(dataOffset + entry.compressedSize);
+        return buffer.slice();
+    }
+
+    private List<Entry> readCentralDirectory(ByteBuffer mapping)
+            throws IOException {
+
+        ByteBuffer buffer = mapping.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        int endOfCentralDirectory = findEndOfCentralDirectory(buffer);
+        int entryCount = buffer.getShort(endOfCentralDirectory + 10) & 0xFFFF;
+        long centralDirectoryOffset = buffer.getInt(endOfCentralDirectory + 16) & 0xFFFFFFFFL;
+
+        if (entryCount == 0xFFFF || centralDirectoryOffset == 0xFFFFFFFFL) {
+            throw new IOException("ZIP64 archives are not supported: " + path);
+        }
+
+        List<Entry> entries = new ArrayList<>(entryCount);
+        int position = (int) centralDirectoryOffset;
+
+        for (int i = 0; i < entryCount; i++) {
+            if (buffer.getInt(position) != CENTRAL_DIRECTORY_SIGNATURE) {
+                throw new IOException("Invalid central directory in " + path);
+            }
+
+            int compressionMethod = buffer.getShort(position + 10) & 0xFFFF;
+            long crc = buffer.getInt(position + 16) & 0xFFFFFFFFL;
+            long compressedSize = buffer.getInt(position + 20) & 0xFFFFFFFFL;
+            long size = buffer.getInt(position + 24) & 0xFFFFFFFFL;
+            int nameLength = buffer.getShort(position + 28) & 0xFFFF;
+            int extraLength = buffer.getShort(position + 30) & 0xFFFF;
+            int commentLength = buffer.getShort(position + 32) & 0xFFFF;
+            long localHeaderOffset = buffer.getInt(position + 42) & 0xFFFFFFFFL;
+
+            if (compressedSize > Integer.MAX_VALUE || size > Integer.MAX_VALUE || localHeaderOffset > Integer.MAX_VALUE) {
+                throw new IOException("ZIP64 archives are not supported: " + path);
+            }
+
+            byte[] name = new byte[nameLength];
+            buffer.position(position + 46);
+            buffer.get(name);
+
+            entries.add(new Entry(new String(name, StandardCharsets.UTF_8), compressionMethod, crc, (int) compressedSize, (int) size, (int) localHeaderOffset));
+
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+
+        return entries;
+    }
+
+    private int findEndOfCentralDirectory(ByteBuffer buffer)
+            throws IOException {
+
+        int lowestPosition = Math.max(0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_LENGTH);
+        for (int position = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; position >= lowestPosition; position--) {
+            if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return position;
+            }
+        }
+
+        throw new IOException("Not a ZIP archive: " + path);
+    }
+}
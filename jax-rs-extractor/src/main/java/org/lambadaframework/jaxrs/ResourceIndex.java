@@ -0,0 +1,388 @@
+package org.lambadaframework.jaxrs;
+
+
+import org.apache.log4j.Logger;
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+
+import javax.ws.rs.core.MediaType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Precomputed list of JAX-RS resource and provider classes, and the route table of the resources.
+ * <p>
+ * The index is written into the JAR file at package time by the maven plugin,
+ * so that the runtime does not have to walk the whole JAR file on a cold start.
+ * It is a plain text file with one fully qualified class name per line.
+ * <p>
+ * The route table follows the class names, as the scanner found it: a "resource" line with the path of every resource,
+ * then a "method" line for each of its resource methods with the HTTP method, the handler class, the name and
+ * parameter types of the handling method, and the consumed and produced media types. Fields are separated by tabs.
+ * The runtime builds the resource model from the table, so Jersey does not read the annotations of the resource
+ * classes on a cold start. The classes are still loaded, to find the handling methods.
+ */
+public final class ResourceIndex {
+
+    static final Logger logger = Logger.getLogger(ResourceIndex.class);
+
+    /**
+     * Location of the index inside the JAR file
+     */
+    public static final String INDEX_LOCATION = "META-INF/lambada/resources.idx";
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private static final String RESOURCE_PREFIX = "resource\t";
+
+    private static final String METHOD_PREFIX = "method\t";
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private static final String LIST_SEPARATOR = ",";
+
+    private final Set<String> classNames;
+
+    private final List<IndexedResource> resources;
+
+    public ResourceIndex(Set<String> classNames) {
+        this(classNames, Collections.<IndexedResource>emptyList());
+    }
+
+    private ResourceIndex(Set<String> classNames, List<IndexedResource> resources) {
+        this.classNames = Collections.unmodifiableSet(new LinkedHashSet<>(classNames));
+        this.resources = Collections.unmodifiableList(new ArrayList<>(resources));
+    }
+
+    /**
+     * Resource of the route table
+     */
+    static final class IndexedResource {
+
+        final String path;
+
+        final List<IndexedMethod> methods = new ArrayList<>();
+
+        IndexedResource(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Resource method of the route table
+     */
+    static final class IndexedMethod {
+
+        final String httpMethod;
+
+        final String className;
+
+        final String methodName;
+
+        final List<String> parameterTypes;
+
+        final List<String> consumedTypes;
+
+        final List<String> producedTypes;
+
+        IndexedMethod(String httpMethod, String className, String methodName,
+                      List<String> parameterTypes, List<String> consumedTypes, List<String> producedTypes) {
+            this.httpMethod = httpMethod;
+            this.className = className;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes;
+            this.consumedTypes = consumedTypes;
+            this.producedTypes = producedTypes;
+        }
+
+        static IndexedMethod from(ResourceMethod resourceMethod) {
+            Method method = resourceMethod.getInvocable().getHandlingMethod();
+            List<String> parameterTypes = new ArrayList<>();
+            for (Class<?> parameterType : method.getParameterTypes()) {
+                parameterTypes.add(parameterType.getName());
+            }
+            return new IndexedMethod(
+                    resourceMethod.getHttpMethod(),
+                    resourceMethod.getInvocable().getHandler().getHandlerClass().getName(),
+                    method.getName(),
+                    parameterTypes,
+                    toStrings(resourceMethod.getConsumedTypes()),
+                    toStrings(resourceMethod.getProducedTypes()));
+        }
+
+        static IndexedMethod parse(String line) {
+            String[] fields = line.split(FIELD_SEPARATOR, -1);
+            return new IndexedMethod(fields[1], fields[2], fields[3],
+                    split(fields[4]), split(fields[5]), split(fields[6]));
+        }
+
+        String toLine() {
+            return METHOD_PREFIX + httpMethod
+                    + FIELD_SEPARATOR + className
+                    + FIELD_SEPARATOR + methodName
+                    + FIELD_SEPARATOR + String.join(LIST_SEPARATOR, parameterTypes)
+                    + FIELD_SEPARATOR + String.join(LIST_SEPARATOR, consumedTypes)
+                    + FIELD_SEPARATOR + String.join(LIST_SEPARATOR, producedTypes);
+        }
+
+        private static List<String> toStrings(List<MediaType> mediaTypes) {
+            List<String> strings = new ArrayList<>(mediaTypes.size());
+            for (MediaType mediaType : mediaTypes) {
+                strings.add(mediaType.toString());
+            }
+            return strings;
+        }
+
+        private static List<String> split(String field) {
+            if (field.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<String> values = new ArrayList<>();
+            Collections.addAll(values, field.split(LIST_SEPARATOR));
+            return values;
+        }
+    }
+
+    /**
+     * Creates an index from the resources found by the scanner
+     *
+     * @param resources Found resources
+     * @return Resource index
+     */
+    public static ResourceIndex fromResources(List<Resource> resources) {
+        return fromResources(resources, Collections.<Class<?>>emptyList());
+    }
+
+    /**
+     * Creates an index from the resources and the providers found by the scanner
+     *
+     * @param resources Found resources
+     * @param providers Found provider classes, like exception mappers
+     * @return Resource index
+     */
+    public static ResourceIndex fromResources(List<Resource> resources, List<Class<?>> providers) {
+        Set<String> classNames = new LinkedHashSet<>();
+        List<IndexedResource> indexedResources = new ArrayList<>();
+        for (Resource resource : resources) {
+            IndexedResource indexedResource = new IndexedResource(resource.getPath());
+            for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+                classNames.add(resourceMethod.getInvocable().getHandler().getHandlerClass().getName());
+
+                /**
+                 * Sub-resource locators have no HTTP method and are never routed
+                 */
+                if (resourceMethod.getHttpMethod() != null) {
+                    indexedResource.methods.add(IndexedMethod.from(resourceMethod));
+                }
+            }
+            if (!indexedResource.methods.isEmpty()) {
+                indexedResources.add(indexedResource);
+            }
+        }
+        for (Class<?> provider : providers) {
+            classNames.add(provider.getName());
+        }
+        return new ResourceIndex(classNames, indexedResources);
+    }
+
+    /**
+     * Loads the index from the classpath
+     *
+     * @param classLoader Class loader that loads the application JAR
+     * @return Resource index or null if the JAR file does not have an index
+     */
+    public static ResourceIndex load(ClassLoader classLoader) {
+        try (InputStream inputStream = classLoader.getResourceAsStream(INDEX_LOCATION)) {
+            if (inputStream == null) {
+                return null;
+            }
+            return read(inputStream);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static ResourceIndex read(InputStream inputStream)
+            throws IOException {
+        Set<String> classNames = new LinkedHashSet<>();
+        List<IndexedResource> resources = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(RESOURCE_PREFIX)) {
+                resources.add(new IndexedResource(line.substring(RESOURCE_PREFIX.length())));
+                continue;
+            }
+            if (line.startsWith(METHOD_PREFIX)) {
+                if (resources.isEmpty()) {
+                    throw new IOException("Resource method is indexed before its resource: " + line);
+                }
+                try {
+                    resources.get(resources.size() - 1).methods.add(IndexedMethod.parse(line));
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new IOException("Invalid resource method in the index: " + line);
+                }
+                continue;
+            }
+
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            classNames.add(line);
+        }
+        return new ResourceIndex(classNames, resources);
+    }
+
+    public void write(OutputStream outputStream)
+            throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        writer.write(COMMENT_PREFIX + " Lambada resource index\n");
+        for (String className : classNames) {
+            writer.write(className);
+            writer.write('\n');
+        }
+        for (IndexedResource resource : resources) {
+            writer.write(RESOURCE_PREFIX + resource.path);
+            writer.write('\n');
+            for (IndexedMethod method : resource.methods) {
+                writer.write(method.toLine());
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    public Set<String> getClassNames() {
+        return classNames;
+    }
+
+    /**
+     * @return Whether the index has a route table, indexes written by older plugins only list classes
+     */
+    public boolean hasRoutes() {
+        return !resources.isEmpty();
+    }
+
+    /**
+     * Builds the resources of the given package from the route table, without reading the annotations
+     * of the resource classes
+     *
+     * @param packageName Package name, null for all resources
+     * @param classLoader Class loader to load classes
+     * @return Resources in the order they were scanned, null if the index has no route table or a method of the table
+     * can not be found, then the classes should be scanned
+     */
+    public List<Resource> getResources(String packageName, ClassLoader classLoader) {
+        if (resources.isEmpty()) {
+            return null;
+        }
+
+        List<Resource> foundResources = new LinkedList<>();
+        for (IndexedResource indexedResource : resources) {
+            org.glassfish.jersey.server.model.Resource.Builder resourceBuilder =
+                    org.glassfish.jersey.server.model.Resource.builder(indexedResource.path);
+            boolean empty = true;
+
+            for (IndexedMethod indexedMethod : indexedResource.methods) {
+                if (packageName != null && !ClassFileScanner.isInPackage(indexedMethod.className, packageName)) {
+                    continue;
+                }
+                try {
+                    Class<?> handlerClass = Class.forName(indexedMethod.className, false, classLoader);
+                    Method method = handlerClass.getMethod(indexedMethod.methodName, getClasses(indexedMethod.parameterTypes, classLoader));
+                    resourceBuilder.addMethod(indexedMethod.httpMethod)
+                            .consumes(toMediaTypes(indexedMethod.consumedTypes))
+                            .produces(toMediaTypes(indexedMethod.producedTypes))
+                            .handledBy(handlerClass, method);
+                    empty = false;
+                } catch (ClassNotFoundException | NoSuchMethodException | LinkageError e) {
+                    logger.warn("Can't find indexed method " + indexedMethod.className + "." + indexedMethod.methodName
+                            + ", resources are scanned: " + e.getMessage());
+                    return null;
+                }
+            }
+
+            if (!empty) {
+                foundResources.add(new Resource(resourceBuilder.build()));
+            }
+        }
+        return foundResources;
+    }
+
+    private static Class<?>[] getClasses(List<String> classNames, ClassLoader classLoader)
+            throws ClassNotFoundException {
+        Class<?>[] classes = new Class<?>[classNames.size()];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = getClass(classNames.get(i), classLoader);
+        }
+        return classes;
+    }
+
+    private static Class<?> getClass(String className, ClassLoader classLoader)
+            throws ClassNotFoundException {
+        switch (className) {
+            case "boolean":
+                return boolean.class;
+            case "byte":
+                return byte.class;
+            case "char":
+                return char.class;
+            case "short":
+                return short.class;
+            case "int":
+                return int.class;
+            case "long":
+                return long.class;
+            case "float":
+                return float.class;
+            case "double":
+                return double.class;
+            default:
+                return Class.forName(className, false, classLoader);
+        }
+    }
+
+    private static List<MediaType> toMediaTypes(List<String> mediaTypes) {
+        List<MediaType> types = new ArrayList<>(mediaTypes.size());
+        for (String mediaType : mediaTypes) {
+            types.add(MediaType.valueOf(mediaType));
+        }
+        return types;
+    }
+
+    /**
+     * Loads the indexed classes that reside in the given package
+     *
+     * @param packageName Package name, null for all classes
+     * @param classLoader Class loader to load classes
+     * @return Loaded classes
+     */
+    public List<Class<? extends Object>> getClasses(String packageName, ClassLoader classLoader) {
+        List<Class<? extends Object>> classes = new LinkedList<>();
+        for (String className : classNames) {
+            if (packageName != null && !ClassFileScanner.isInPackage(className, packageName)) {
+                continue;
+            }
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException | NoClassDefFoundError e) {
+                logger.warn("Can't load indexed class " + className + ": " + e.getMessage());
+            }
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,164 @@
+package org.lambadaframework.jaxrs;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk cache of class file scan results, kept in the target directory between builds.
+ * <p>
+ * Entries are keyed by JAR entry name, CRC-32 and size, so only the classes that changed since
+ * the previous scan are parsed again. Classes that are resource candidates are still loaded and
+ * given to Jersey on every scan, because the resource model is built from loaded classes.
+ * <p>
+ * The file is text, one class per line with tab separated fields:
+ * entry name, CRC, size, class name, super class, interfaces, annotation types and whether the class file is unreadable.
+ */
+public final class ScanCache {
+
+    public static final String CACHE_FILE_NAME = "lambada-scan.cache";
+
+    private static final String HEADER = "# Lambada scan cache v1";
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private static final String LIST_SEPARATOR = ",";
+
+    private static final String EMPTY = "-";
+
+    private static final class CachedClassFile {
+
+        final long crc;
+
+        final long size;
+
+        final ClassFileScanner.ClassFile classFile;
+
+        CachedClassFile(long crc, long size, ClassFileScanner.ClassFile classFile) {
+            this.crc = crc;
+            this.size = size;
+            this.classFile = classFile;
+        }
+    }
+
+    private final Path location;
+
+    /**
+     * Entries read from the file
+     */
+    private final Map<String, CachedClassFile> previousEntries;
+
+    /**
+     * Entries of the current scan, only these are written back
+     */
+    private final Map<String, CachedClassFile> currentEntries = new ConcurrentHashMap<>();
+
+    private ScanCache(Path location, Map<String, CachedClassFile> previousEntries) {
+        this.location = location;
+        this.previousEntries = previousEntries;
+    }
+
+    /**
+     * Loads the cache, a missing or unreadable file gives an empty cache
+     *
+     * @param location Cache file
+     * @return Scan cache
+     */
+    public static ScanCache load(Path location) {
+        Map<String, CachedClassFile> entries = new HashMap<>();
+
+        if (Files.isRegularFile(location)) {
+            try (BufferedReader reader = Files.newBufferedReader(location, StandardCharsets.UTF_8)) {
+                if (!HEADER.equals(reader.readLine())) {
+                    return new ScanCache(location, Collections.emptyMap());
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split(FIELD_SEPARATOR, -1);
+                    entries.put(fields[0], new CachedClassFile(
+                            Long.parseLong(fields[1], 16),
+                            Long.parseLong(fields[2]),
+                            new ClassFileScanner.ClassFile(
+                                    fields[3],
+                                    EMPTY.equals(fields[4]) ? null : fields[4],
+                                    EMPTY.equals(fields[5]) ? new String[0] : fields[5].split(LIST_SEPARATOR),
+                                    EMPTY.equals(fields[6]) ? new HashSet<>() : new HashSet<>(Arrays.asList(fields[6].split(LIST_SEPARATOR))),
+                                    "1".equals(fields[7])
+                            )));
+                }
+            } catch (IOException | RuntimeException e) {
+                return new ScanCache(location, Collections.emptyMap());
+            }
+        }
+
+        return new ScanCache(location, entries);
+    }
+
+    public Path getLocation() {
+        return location;
+    }
+
+    ClassFileScanner.ClassFile get(MappedJarFile.Entry entry) {
+        CachedClassFile cachedClassFile = previousEntries.get(entry.getName());
+        if (cachedClassFile == null || cachedClassFile.crc != entry.getCrc() || cachedClassFile.size != entry.getSize()) {
+            return null;
+        }
+        currentEntries.put(entry.getName(), cachedClassFile);
+        return cachedClassFile.classFile;
+    }
+
+    void put(MappedJarFile.Entry entry, ClassFileScanner.ClassFile classFile) {
+        currentEntries.put(entry.getName(), new CachedClassFile(entry.getCrc(), entry.getSize(), classFile));
+    }
+
+    /**
+     * Writes the entries of the current scan, entries of deleted classes are dropped
+     *
+     * @throws IOException If the file can not be written
+     */
+    public void save()
+            throws IOException {
+
+        Path parent = location.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporaryFile = Files.createTempFile(parent, CACHE_FILE_NAME, ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, CachedClassFile> entry : currentEntries.entrySet()) {
+                ClassFileScanner.ClassFile classFile = entry.getValue().classFile;
+                writer.write(entry.getKey()
+                        + FIELD_SEPARATOR + Long.toHexString(entry.getValue().crc)
+                        + FIELD_SEPARATOR + entry.getValue().size
+                        + FIELD_SEPARATOR + classFile.className
+                        + FIELD_SEPARATOR + (classFile.superClassName == null ? EMPTY : classFile.superClassName)
+                        + FIELD_SEPARATOR + join(Arrays.asList(classFile.interfaceNames))
+                        + FIELD_SEPARATOR + join(classFile.annotationTypes)
+                        + FIELD_SEPARATOR + (classFile.unreadable ? "1" : "0"));
+                writer.newLine();
+            }
+        }
+
+        Files.move(temporaryFile, location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String join(Iterable<String> values) {
+        String joined = String.join(LIST_SEPARATOR, values);
+        return joined.isEmpty() ? EMPTY : joined;
+    }
+
+    int size() {
+        return currentEntries.size();
+    }
+}
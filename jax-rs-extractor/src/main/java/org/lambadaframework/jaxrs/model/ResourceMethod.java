@@ -22,7 +22,7 @@ public final class ResourceMethod {
     }
 
     public List<MediaType> getConsumedTypes() {
-        return proxied.getProducedTypes();
+        return proxied.getConsumedTypes();
     }
 
     public String getHttpMethod() {
@@ -33,7 +33,10 @@ public final class ResourceMethod {
         if (proxied.getParent() == null) {
             return null;
         }
-        return parent = new Resource(proxied.getParent());
+        if (parent == null) {
+            parent = new Resource(proxied.getParent());
+        }
+        return parent;
     }
 
     public Invocable getInvocable() {
@@ -0,0 +1,113 @@
+package org.lambadaframework.jaxrs;
+
+import org.junit.Test;
+import org.lambadaframework.stubs.StubHandler;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ClassFileScannerTest {
+
+    public static class PlainClass {
+        public static final long CONSTANT = 42L;
+
+        public String get() {
+            return "plain";
+        }
+    }
+
+    public interface AnnotatedInterface {
+        @GET
+        String get();
+    }
+
+    public static class InheritingResource implements AnnotatedInterface {
+        @Override
+        public String get() {
+            return "inherited";
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @HttpMethod("PATCH")
+    public @interface PATCH {
+    }
+
+    public static class CustomMethodResource {
+        @PATCH
+        public String patch() {
+            return "patched";
+        }
+    }
+
+    private static ClassFileScanner.ClassFile read(Class<?> clazz) throws IOException {
+        String resourceName = "/" + clazz.getName().replace('.', '/') + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(resourceName)) {
+            return ClassFileScanner.read(clazz.getName(), inputStream);
+        }
+    }
+
+    @Test
+    public void readsClassFileWithoutLoadingIt() throws Exception {
+        ClassFileScanner.ClassFile classFile = read(StubHandler.class);
+        assertFalse(classFile.unreadable);
+        assertEquals(StubHandler.class.getName(), classFile.className);
+        assertEquals(Object.class.getName(), classFile.superClassName);
+        assertTrue(classFile.annotationTypes.contains("L" + Path.class.getName().replace('.', '/') + ";"));
+    }
+
+    @Test
+    public void findsOnlyJaxrsClasses() throws Exception {
+        List<String> candidates = ClassFileScanner.findCandidates(Arrays.asList(
+                read(StubHandler.class),
+                read(PlainClass.class),
+                read(AnnotatedInterface.class),
+                read(InheritingResource.class),
+                read(PATCH.class),
+                read(CustomMethodResource.class)
+        ), null);
+
+        assertTrue(candidates.contains(StubHandler.class.getName()));
+        assertTrue(candidates.contains(InheritingResource.class.getName()));
+        assertTrue(candidates.contains(CustomMethodResource.class.getName()));
+        assertFalse(candidates.contains(PlainClass.class.getName()));
+    }
+
+    @Test
+    public void filtersByPackage() throws Exception {
+        List<String> candidates = ClassFileScanner.findCandidates(Arrays.asList(
+                read(StubHandler.class),
+                read(InheritingResource.class),
+                read(AnnotatedInterface.class)
+        ), "org.lambadaframework.stubs");
+
+        assertEquals(Arrays.asList(StubHandler.class.getName()), candidates);
+        assertTrue(ClassFileScanner.findCandidates(Arrays.asList(read(StubHandler.class)), "org.lambadaframework.stub").isEmpty());
+    }
+
+    @Test
+    public void packagesMatchAtNameBoundaries() throws Exception {
+        assertTrue(ClassFileScanner.isInPackage("org.example.Resource", "org.example"));
+        assertTrue(ClassFileScanner.isInPackage("org.example.api.Resource", "org.example"));
+        assertTrue(ClassFileScanner.isInPackage("org.example.Resource", "org.example."));
+        assertTrue(ClassFileScanner.isInPackage("org.example.Resource", ""));
+        assertFalse(ClassFileScanner.isInPackage("org.examples.Resource", "org.example"));
+        assertFalse(ClassFileScanner.isInPackage("org.example", "org.example"));
+    }
+
+    @Test
+    public void unreadableClassFilesAreCandidates() throws Exception {
+        ClassFileScanner.ClassFile classFile = ClassFileScanner.read("org.example.Broken", new java.io.ByteArrayInputStream(new byte[]{1, 2, 3}));
+        assertTrue(classFile.unreadable);
+        assertEquals(Arrays.asList("org.example.Broken"), ClassFileScanner.findCandidates(Arrays.asList(classFile), null));
+    }
+}
@@ -2,14 +2,20 @@ package org.lambadaframework.jaxrs;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FilenameFilter;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.junit.Test;
 import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.stubs.StubExceptionMapper;
 import org.lambadaframework.stubs.StubHandler;
 
 public class JAXRSParserTest {
@@ -47,4 +53,104 @@ public class JAXRSParserTest {
         assertEquals("/resource1/{id}", resourceList.get(2).getPath());
         assertEquals("/resource1/{id}/users", resourceList.get(3).getPath());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testScanWithResourceIndex() throws Exception {
+        List<Resource> scannedResources = new JAXRSParser().withPackageName("org.lambadaframework", StubHandler.class).scan();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ResourceIndex.fromResources(scannedResources).write(outputStream);
+        ResourceIndex resourceIndex = ResourceIndex.read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        assertEquals(1, resourceIndex.getClassNames().size());
+        assertTrue(resourceIndex.getClassNames().contains(StubHandler.class.getName()));
+
+        List<Resource> indexedResources = new JAXRSParser()
+                .withPackageName("org.lambadaframework", StubHandler.class)
+                .withResourceIndex(resourceIndex)
+                .scan();
+
+        assertEquals(scannedResources.size(), indexedResources.size());
+    }
+
+    @Test
+    public void testResourcesAreBuiltFromRouteTable() throws Exception {
+        List<Resource> scannedResources = new JAXRSParser().withPackageName("org.lambadaframework", StubHandler.class).scan();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ResourceIndex.fromResources(scannedResources).write(outputStream);
+        ResourceIndex resourceIndex = ResourceIndex.read(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertTrue(resourceIndex.hasRoutes());
+
+        List<Resource> indexedResources = resourceIndex.getResources("org.lambadaframework", StubHandler.class.getClassLoader());
+
+        assertEquals(scannedResources.size(), indexedResources.size());
+        for (int i = 0; i < scannedResources.size(); i++) {
+            Resource scannedResource = scannedResources.get(i);
+            Resource indexedResource = indexedResources.get(i);
+            assertEquals(scannedResource.getPath(), indexedResource.getPath());
+            assertEquals(scannedResource.getResourceMethods().size(), indexedResource.getResourceMethods().size());
+
+            for (int j = 0; j < scannedResource.getResourceMethods().size(); j++) {
+                ResourceMethod scannedMethod = scannedResource.getResourceMethods().get(j);
+                ResourceMethod indexedMethod = indexedResource.getResourceMethods().get(j);
+                assertEquals(scannedMethod.getHttpMethod(), indexedMethod.getHttpMethod());
+                assertEquals(scannedMethod.getConsumedTypes(), indexedMethod.getConsumedTypes());
+                assertEquals(scannedMethod.getProducedTypes(), indexedMethod.getProducedTypes());
+                assertEquals(scannedMethod.getInvocable().getHandlingMethod(), indexedMethod.getInvocable().getHandlingMethod());
+                assertEquals(StubHandler.class, indexedMethod.getInvocable().getHandler().getHandlerClass());
+                assertEquals(scannedResource.getPath(), indexedMethod.getParent().getPath());
+            }
+        }
+
+        assertTrue(resourceIndex.getResources("org.other", StubHandler.class.getClassLoader()).isEmpty());
+    }
+
+    @Test
+    public void testIndexWithoutRouteTableIsScanned() throws Exception {
+        ResourceIndex resourceIndex = ResourceIndex.read(new ByteArrayInputStream(
+                (StubHandler.class.getName() + "\n").getBytes(StandardCharsets.UTF_8)));
+        assertFalse(resourceIndex.hasRoutes());
+        assertNull(resourceIndex.getResources(null, StubHandler.class.getClassLoader()));
+
+        List<Resource> indexedResources = new JAXRSParser()
+                .withPackageName("org.lambadaframework", StubHandler.class)
+                .withResourceIndex(resourceIndex)
+                .scan();
+        assertEquals(4, indexedResources.size());
+    }
+
+    @Test
+    public void testStaleRouteTableIsScanned() throws Exception {
+        String index = StubHandler.class.getName() + "\n"
+                + "resource\t/resource1\n"
+                + "method\tGET\t" + StubHandler.class.getName() + "\tremoved\tlong\t\t\n";
+        ResourceIndex resourceIndex = ResourceIndex.read(new ByteArrayInputStream(index.getBytes(StandardCharsets.UTF_8)));
+        assertTrue(resourceIndex.hasRoutes());
+
+        List<Resource> indexedResources = new JAXRSParser()
+                .withPackageName("org.lambadaframework", StubHandler.class)
+                .withResourceIndex(resourceIndex)
+                .scan();
+        assertEquals(4, indexedResources.size());
+    }
+
+    @Test
+    public void testScanProviders() throws Exception {
+        JAXRSParser parser = new JAXRSParser().withPackageName("org.lambadaframework", StubHandler.class);
+        List<Resource> resources = parser.scan();
+        List<Class<?>> providers = parser.scanProviders();
+
+        assertEquals(1, providers.size());
+        assertEquals(StubExceptionMapper.class, providers.get(0));
+
+        ResourceIndex resourceIndex = ResourceIndex.fromResources(resources, providers);
+        assertTrue(resourceIndex.getClassNames().contains(StubExceptionMapper.class.getName()));
+
+        List<Class<?>> indexedProviders = new JAXRSParser()
+                .withPackageName("org.lambadaframework", StubHandler.class)
+                .withResourceIndex(resourceIndex)
+                .scanProviders();
+        assertEquals(providers, indexedProviders);
+    }
+}
@@ -0,0 +1,143 @@
+package org.lambadaframework.jaxrs;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.*;
+
+public class MappedJarFileTest {
+
+    private static final byte[] CONTENT = "Lambada".getBytes();
+
+    private Path createJarFile() throws Exception {
+        Path path = Files.createTempFile("mapped", ".jar");
+        path.toFile().deleteOnExit();
+
+        try (JarOutputStream outputStream = new JarOutputStream(Files.newOutputStream(path))) {
+            outputStream.putNextEntry(new JarEntry("org/"));
+            outputStream.closeEntry();
+
+            outputStream.putNextEntry(new JarEntry("org/deflated.txt"));
+            outputStream.write(CONTENT);
+            outputStream.closeEntry();
+
+            CRC32 crc = new CRC32();
+            crc.update(CONTENT);
+            JarEntry storedEntry = new JarEntry("org/stored.txt");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(CONTENT.length);
+            storedEntry.setCrc(crc.getValue());
+            outputStream.putNextEntry(storedEntry);
+            outputStream.write(CONTENT);
+            outputStream.closeEntry();
+        }
+
+        return path;
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void readsStoredAndDeflatedEntries() throws Exception {
+        try (MappedJarFile jarFile = MappedJarFile.open(createJarFile())) {
+            assertEquals(3, jarFile.getEntries().size());
+            assertTrue(jarFile.getEntries().get(0).isDirectory());
+            assertEquals("org/deflated.txt", jarFile.getEntries().get(1).getName());
+
+            assertArrayEquals(CONTENT, toBytes(jarFile.getContent(jarFile.getEntries().get(1))));
+            assertArrayEquals(CONTENT, toBytes(jarFile.getContent(jarFile.getEntries().get(2))));
+        }
+    }
+
+    @Test
+    public void sharedFilesAreMappedOncePerBuild() throws Exception {
+        Path path = createJarFile();
+        MappedJarFile jarFile = MappedJarFile.openShared(path);
+        assertSame(jarFile, MappedJarFile.openShared(path));
+
+        MappedJarFile.closeShared(path);
+        try {
+            jarFile.getContent(jarFile.getEntries().get(1));
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("JAR file is closed"));
+        }
+
+        MappedJarFile reopened = MappedJarFile.openShared(path);
+        assertNotSame(jarFile, reopened);
+        assertArrayEquals(CONTENT, toBytes(reopened.getContent(reopened.getEntries().get(2))));
+        MappedJarFile.closeShared(path);
+    }
+
+    @Test
+    public void changedSharedFilesAreMappedAgain() throws Exception {
+        Path path = createJarFile();
+        Files.setLastModifiedTime(path, FileTime.fromMillis(0));
+        MappedJarFile jarFile = MappedJarFile.openShared(path);
+
+        Files.setLastModifiedTime(path, FileTime.fromMillis(1000));
+        MappedJarFile reopened = MappedJarFile.openShared(path);
+
+        assertNotSame(jarFile, reopened);
+        assertEquals(3, reopened.getEntries().size());
+        MappedJarFile.closeShared(path);
+    }
+
+    @Test
+    public void closedFilesCanBeRewritten() throws Exception {
+        Path path = createJarFile();
+        MappedJarFile jarFile = MappedJarFile.open(path);
+        jarFile.close();
+
+        try {
+            jarFile.getContent(jarFile.getEntries().get(1));
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("JAR file is closed"));
+        }
+
+        Files.write(path, CONTENT);
+        assertArrayEquals(CONTENT, Files.readAllBytes(path));
+    }
+
+    /**
+     * To run this test, lambada-stub-handlers module should be compiled and packaged in lambada-stub-handlers/target folder
+     */
+    @Test
+    public void readsSameContentAsJarFile() throws Exception {
+        File stubHandlerFile = new File("../stub-handlers/target").listFiles((dir, filename) -> filename.startsWith("stub-handlers-"))[0];
+
+        try (MappedJarFile mappedJarFile = MappedJarFile.open(stubHandlerFile.toPath());
+             JarFile jarFile = new JarFile(stubHandlerFile)) {
+            assertEquals(jarFile.size(), mappedJarFile.getEntries().size());
+
+            for (MappedJarFile.Entry entry : mappedJarFile.getEntries()) {
+                ByteArrayOutputStream expected = new ByteArrayOutputStream();
+                try (InputStream inputStream = jarFile.getInputStream(jarFile.getEntry(entry.getName()))) {
+                    int read;
+                    while ((read = inputStream.read()) != -1) {
+                        expected.write(read);
+                    }
+                }
+                assertArrayEquals(entry.getName(), expected.toByteArray(), toBytes(mappedJarFile.getContent(entry)));
+            }
+        }
+    }
+}
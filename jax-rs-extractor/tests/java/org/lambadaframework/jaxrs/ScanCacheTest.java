@@ -0,0 +1,57 @@
+package org.lambadaframework.jaxrs;
+
+import org.junit.Test;
+import org.lambadaframework.stubs.StubHandler;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ScanCacheTest {
+
+    private static MappedJarFile getStubHandlersJar() throws Exception {
+        File stubHandlerFile = new File("../stub-handlers/target").listFiles((dir, filename) -> filename.startsWith("stub-handlers-"))[0];
+        return MappedJarFile.open(stubHandlerFile.toPath());
+    }
+
+    /**
+     * To run this test, lambada-stub-handlers module should be compiled and packaged in lambada-stub-handlers/target folder
+     */
+    @Test
+    public void cachedScanFindsSameClasses() throws Exception {
+        Path location = Files.createTempDirectory("scan-cache").resolve(ScanCache.CACHE_FILE_NAME);
+        MappedJarFile jarFile = getStubHandlersJar();
+
+        List<String> uncachedClassNames = ClassFileScanner.findResourceClassNames(jarFile, null);
+
+        ScanCache scanCache = ScanCache.load(location);
+        assertEquals(uncachedClassNames, ClassFileScanner.findResourceClassNames(jarFile, null, scanCache));
+        scanCache.save();
+        assertTrue(Files.isRegularFile(location));
+
+        ScanCache loadedScanCache = ScanCache.load(location);
+        for (MappedJarFile.Entry entry : jarFile.getEntries()) {
+            if (entry.getName().endsWith(".class")) {
+                assertNotNull(entry.getName(), loadedScanCache.get(entry));
+            }
+        }
+
+        assertEquals(uncachedClassNames, ClassFileScanner.findResourceClassNames(jarFile, null, ScanCache.load(location)));
+        assertTrue(uncachedClassNames.contains(StubHandler.class.getName()));
+    }
+
+    @Test
+    public void corruptCacheIsIgnored() throws Exception {
+        Path location = Files.createTempFile("scan-cache", ".cache");
+        Files.write(location, "# Lambada scan cache v1\nbroken".getBytes());
+
+        ScanCache scanCache = ScanCache.load(location);
+        assertEquals(0, scanCache.size());
+        for (MappedJarFile.Entry entry : getStubHandlersJar().getEntries()) {
+            assertNull(scanCache.get(entry));
+        }
+    }
+}
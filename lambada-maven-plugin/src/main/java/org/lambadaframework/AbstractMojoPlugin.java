@@ -41,6 +41,16 @@ public abstract class AbstractMojoPlugin extends AbstractMojo {
     @Parameter(defaultValue = "org.lambadaframework.runtime.Handler")
     public String lambdaHandler = "org.lambadaframework.runtime.Handler";
 
+    /**
+     * API Gateway integration type, AWS or AWS_PROXY
+     * <p>
+     * AWS creates a resource with mapping templates for every JAX-RS resource method.
+     * AWS_PROXY creates a single {proxy+} resource and routes the requests in the Lambda function,
+     * the handler is switched to org.lambadaframework.runtime.ProxyHandler unless lambdaHandler is set.
+     */
+    @Parameter(defaultValue = Deployment.INTEGRATION_TYPE_AWS)
+    public String apiGatewayIntegration = Deployment.INTEGRATION_TYPE_AWS;
+
     /**
      * Lambda execution role policy ARN
      * <p>
@@ -80,7 +90,10 @@ public abstract class AbstractMojoPlugin extends AbstractMojo {
         Properties cloudFormationParameters = new Properties();
         cloudFormationParameters.setProperty(Deployment.LAMBDA_MAXIMUM_EXECUTION_TIME_KEY, lambdaMaximumExecutionTime);
         cloudFormationParameters.setProperty(Deployment.LAMBDA_MEMORY_SIZE_KEY, lambdaMemorySize);
-        cloudFormationParameters.setProperty(Deployment.LAMBDA_HANDLER_KEY, lambdaHandler);
+        cloudFormationParameters.setProperty(Deployment.LAMBDA_HANDLER_KEY,
+                Deployment.INTEGRATION_TYPE_AWS_PROXY.equals(apiGatewayIntegration) && Deployment.LAMBDA_HANDLER_DEFAULT_VALUE.equals(lambdaHandler)
+                        ? Deployment.LAMBDA_PROXY_HANDLER_VALUE
+                        : lambdaHandler);
 
         if (lambdaExecutionRolePolicies != null) {
             cloudFormationParameters.setProperty(Deployment.LAMBDA_EXECUTION_ROLE_POLICY_KEY, String.join(",", lambdaExecutionRolePolicies));
@@ -102,6 +115,7 @@ public abstract class AbstractMojoPlugin extends AbstractMojo {
                 stageToDeploy);
 
         deployment.setLog(getLog());
+        deployment.setIntegrationType(apiGatewayIntegration);
 
 
         return deployment;
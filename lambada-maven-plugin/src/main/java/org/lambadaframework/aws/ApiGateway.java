@@ -20,6 +20,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,6 +48,25 @@ public class ApiGateway extends AWSTools {
             500
     };
 
+    /**
+     * Greedy resource and method of the proxy integration
+     */
+    protected static final String PROXY_PATH_PART = "{proxy+}";
+
+    protected static final String ANY_METHOD = "ANY";
+
+    /**
+     * Binary media type of proxy APIs, so compressed and binary responses of the function are decoded.
+     * Compressed responses keep the media type of their entity, so every type is listed.
+     * Request bodies are then always sent base64 encoded with isBase64Encoded set, the runtime decodes them.
+     */
+    protected static final String BINARY_MEDIA_TYPE = "*/*";
+
+    /**
+     * Stage variable read by ProxyHandler to find the package of the resources
+     */
+    protected static final String PACKAGE_STAGE_VARIABLE = "lambadaPackage";
+
     protected static final String[] HTTP_METHODS = {
             "GET", "POST", "DELETE", "HEAD", "OPTIONS", "PATCH", "PUT"
     };
@@ -67,8 +87,27 @@ public class ApiGateway extends AWSTools {
             "}";
 
 
+    protected final String JSON_REQUEST_BODY = "\"requestbody\": \"$util.escapeJavaScript($input.json('$'))\",";
+
+    /**
+     * Template of text bodies, the body is sent as a string
+     */
+    protected final String TEXT_INPUT_TEMPLATE = INPUT_TEMPLATE.replace(JSON_REQUEST_BODY,
+            "\"requestbody\": \"$util.escapeJavaScript($input.body)\",");
+
+    /**
+     * Template of binary bodies, the body is sent base64 encoded
+     */
+    protected final String BINARY_INPUT_TEMPLATE = INPUT_TEMPLATE.replace(JSON_REQUEST_BODY,
+            "\"requestbody\": \"$util.base64Encode($input.body)\",\n  \"isbase64encoded\": true,");
+
     protected final String OUTPUT_TEMPLATE = "$input.json('$.entity')";
 
+    /**
+     * Template of text and base64 encoded binary entities, the entity is returned without JSON quoting
+     */
+    protected final String RAW_OUTPUT_TEMPLATE = "$input.path('$.entity')";
+
     protected final String AUTHORIZATION_TYPE = "NONE";
     protected final String INVOCATION_METHOD = "POST";
 
@@ -136,7 +175,11 @@ public class ApiGateway extends AWSTools {
         }
 
         createOrUpdateApi();
-        walkThroughResources(resources);
+        if (deployment.isProxyIntegration()) {
+            deployProxyResources(resources);
+        } else {
+            walkThroughResources(resources);
+        }
         createDeployment();
     }
 
@@ -146,12 +189,17 @@ public class ApiGateway extends AWSTools {
             log.info("Creating new deployment");
         }
 
-        CreateDeploymentResult deploymentResult = getApiGatewayClient().createDeployment(new CreateDeploymentRequest()
+        CreateDeploymentRequest createDeploymentRequest = new CreateDeploymentRequest()
                 .withRestApiId(amazonApi.getId())
                 .withDescription(deployment.getProjectName() + " v" + deployment.getVersion())
                 .withStageDescription(deployment.getStage())
-                .withStageName(deployment.getStage())
-        );
+                .withStageName(deployment.getStage());
+
+        if (deployment.isProxyIntegration()) {
+            createDeploymentRequest.addVariablesEntry(PACKAGE_STAGE_VARIABLE, deployment.getPackageName());
+        }
+
+        CreateDeploymentResult deploymentResult = getApiGatewayClient().createDeployment(createDeploymentRequest);
 
         if (log != null) {
             log.info("Created new deployment: " + deploymentResult.getId());
@@ -275,7 +323,9 @@ public class ApiGateway extends AWSTools {
             log.info("JAR File is being scanned. Used JAR File location: " + jarFileLocation + " Package: " + deployment.getPackageName());
         }
 
-        JAXRSParser parser = new JAXRSParser().withJarFile(jarFileLocation, deployment.getPackageName());
+        JAXRSParser parser = new JAXRSParser()
+                .withJarFile(jarFileLocation, deployment.getPackageName())
+                .withScanCache(Paths.get(deployment.getScanCacheLocationOnLocalFileSystem()));
         return parser.scan();
     }
 
@@ -291,6 +341,13 @@ public class ApiGateway extends AWSTools {
         }
 
 
+        removeAllResources();
+
+        resources.forEach(resourceToDeploy -> deployResource(resourceToDeploy));
+    }
+
+    protected void removeAllResources() {
+
         if (log != null) {
             log.info("Removing all resources");
         }
@@ -311,8 +368,138 @@ public class ApiGateway extends AWSTools {
                  */
             }
         }
+    }
 
-        resources.forEach(resourceToDeploy -> deployResource(resourceToDeploy));
+    /**
+     * Deploys the proxy integration: ANY method on the root and on a greedy {proxy+} resource.
+     * <p>
+     * Every request is sent to the Lambda function as it is and routed by the runtime,
+     * so the API does not have to be redeployed when resources change.
+     *
+     * @param resources Resources found in the JAR file
+     */
+    protected void deployProxyResources(List<Resource> resources) {
+
+        if (resources.isEmpty()) {
+            if (log != null) {
+                log.info("Not found any resources to deploy");
+            }
+
+            return;
+        }
+
+        enableBinaryMediaType(BINARY_MEDIA_TYPE);
+        removeAllResources();
+
+        String rootResourceId = getResourceByPath(SLASH_CHARACTER).getId();
+        deleteMethods(rootResourceId);
+        deployProxyMethod(rootResourceId);
+
+        if (log != null) {
+            log.info("Resource is being created: " + SLASH_CHARACTER + PROXY_PATH_PART);
+        }
+
+        String proxyResourceId = getApiGatewayClient().createResource(new CreateResourceRequest()
+                .withRestApiId(amazonApi.getId())
+                .withParentId(rootResourceId)
+                .withPathPart(PROXY_PATH_PART)
+        ).getId();
+        deployProxyMethod(proxyResourceId);
+    }
+
+    /**
+     * Binary media types are not in the RestApi model of the SDK version in use, thus added by a patch operation
+     *
+     * @param mediaType Media type
+     */
+    protected void enableBinaryMediaType(String mediaType) {
+        if (log != null) {
+            log.info("Binary media type is being enabled: " + mediaType);
+        }
+
+        try {
+            getApiGatewayClient().updateRestApi(new UpdateRestApiRequest()
+                    .withRestApiId(amazonApi.getId())
+                    .withPatchOperations(new PatchOperation()
+                            .withOp(Op.Add)
+                            .withPath(getBinaryMediaTypePath(mediaType))));
+        } catch (ConflictException | BadRequestException e) {
+            /**
+             * Media type is already enabled
+             */
+            if (log != null) {
+                log.info("Binary media type could not be added: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * "/" of the media type is escaped as "~1" in patch paths
+     *
+     * @param mediaType Media type
+     * @return Patch path
+     */
+    protected static String getBinaryMediaTypePath(String mediaType) {
+        return "/binaryMediaTypes/" + mediaType.replace("~", "~0").replace(SLASH_CHARACTER, "~1");
+    }
+
+    /**
+     * AWS_PROXY integration type is not in the IntegrationType enum of the SDK version in use, thus set as string.
+     * Proxy integration needs no templates and no integration responses, status code and headers come from the function.
+     */
+    protected void deployProxyMethod(String resourceId) {
+
+        if (log != null) {
+            log.info("Creating " + ANY_METHOD + " method on resource " + resourceId);
+        }
+
+        getApiGatewayClient().putMethod(new PutMethodRequest()
+                .withRestApiId(amazonApi.getId())
+                .withResourceId(resourceId)
+                .withHttpMethod(ANY_METHOD)
+                .withApiKeyRequired(false)
+                .withAuthorizationType(AUTHORIZATION_TYPE)
+        );
+
+        getApiGatewayClient().putIntegration(new PutIntegrationRequest()
+                .withRestApiId(amazonApi.getId())
+                .withResourceId(resourceId)
+                .withHttpMethod(ANY_METHOD)
+                .withType(Deployment.INTEGRATION_TYPE_AWS_PROXY)
+                .withUri(getFunctionArnForApiGateway())
+                .withIntegrationHttpMethod(INVOCATION_METHOD)
+        );
+    }
+
+    /**
+     * Deletes the methods of an API Gateway resource, including ANY of the proxy integration
+     *
+     * @param resourceId API Gateway resource id
+     */
+    protected void deleteMethods(String resourceId) {
+        for (String methodToDelete : HTTP_METHODS) {
+            deleteMethod(resourceId, methodToDelete);
+        }
+        deleteMethod(resourceId, ANY_METHOD);
+    }
+
+    private void deleteMethod(String resourceId, String methodToDelete) {
+        try {
+            getApiGatewayClient().deleteMethod(
+                    new DeleteMethodRequest()
+                            .withHttpMethod(methodToDelete)
+                            .withRestApiId(amazonApi.getId())
+                            .withResourceId(resourceId));
+
+
+            if (log != null) {
+                log.info(methodToDelete + " method deleted on resource id " + resourceId);
+            }
+        } catch (NotFoundException e) {
+            /**
+             * Do nothing, continue
+             */
+        }
     }
 
     /**
@@ -417,24 +604,7 @@ public class ApiGateway extends AWSTools {
         }
 
 
-        for (String methodToDelete : HTTP_METHODS) {
-            try {
-                getApiGatewayClient().deleteMethod(
-                        new DeleteMethodRequest()
-                                .withHttpMethod(methodToDelete)
-                                .withRestApiId(amazonApi.getId())
-                                .withResourceId(apiGatewayResource.getId()));
-
-
-                if (log != null) {
-                    log.info(methodToDelete + " method deleted on resource id " + apiGatewayResource.getId());
-                }
-            } catch (NotFoundException e) {
-                /**
-                 * Do nothing, continue
-                 */
-            }
-        }
+        deleteMethods(apiGatewayResource.getId());
 
 
         jerseyResource.getResourceMethods().forEach(method -> {
@@ -491,7 +661,7 @@ public class ApiGateway extends AWSTools {
                         .withResourceId(apiGatewayResource.getId())
                         .withHttpMethod(httpMethod)
                         .withSelectionPattern(selectionPattern)
-                        .withResponseTemplates(getResponseTemplate())
+                        .withResponseTemplates(getResponseTemplate(method))
                         .withStatusCode(String.valueOf(responseCode))
                 );
 
@@ -501,23 +671,60 @@ public class ApiGateway extends AWSTools {
     }
 
 
-    private Map<String, String> getResponseTemplate() {
+    protected Map<String, String> getResponseTemplate(ResourceMethod jerseyMethod) {
 
         Map<String, String> responseTemplate = new LinkedHashMap<>();
 
         responseTemplate.put(MediaType.APPLICATION_JSON, OUTPUT_TEMPLATE);
 
+        for (MediaType producedType : jerseyMethod.getProducedTypes()) {
+            if (!producedType.isWildcardType() && !producedType.isWildcardSubtype()) {
+                responseTemplate.putIfAbsent(getContentType(producedType), isJson(producedType) ? OUTPUT_TEMPLATE : RAW_OUTPUT_TEMPLATE);
+            }
+        }
+
         return responseTemplate;
     }
 
 
+    /**
+     * A request template is created for every media type the method consumes.
+     * JSON bodies are sent as JSON, text bodies as strings and other bodies base64 encoded,
+     * the runtime reads them by their Content-Type header.
+     */
     protected Map<String, String> getInputTemplate(ResourceMethod jerseyMethod) {
         String packageName = jerseyMethod.getInvocable().getHandler().getHandlerClass().getPackage().getName();
         Map<String, String> requestTemplates = new LinkedHashMap<>();
         requestTemplates.put(MediaType.APPLICATION_JSON, INPUT_TEMPLATE.replace(PACKAGE_VARIABLE, packageName));
+
+        for (MediaType consumedType : jerseyMethod.getConsumedTypes()) {
+            if (consumedType.isWildcardType() || consumedType.isWildcardSubtype()) {
+                continue;
+            }
+
+            String template;
+            if (isJson(consumedType)) {
+                template = INPUT_TEMPLATE;
+            } else if ("text".equalsIgnoreCase(consumedType.getType())) {
+                template = TEXT_INPUT_TEMPLATE;
+            } else {
+                template = BINARY_INPUT_TEMPLATE;
+            }
+            requestTemplates.putIfAbsent(getContentType(consumedType), template.replace(PACKAGE_VARIABLE, packageName));
+        }
+
         return requestTemplates;
     }
 
+    private static String getContentType(MediaType mediaType) {
+        return (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase();
+    }
+
+    private static boolean isJson(MediaType mediaType) {
+        return "application".equalsIgnoreCase(mediaType.getType())
+                && ("json".equalsIgnoreCase(mediaType.getSubtype()) || mediaType.getSubtype().toLowerCase().endsWith("+json"));
+    }
+
 
     private Map<String, Boolean> getRequestParameters(ResourceMethod method) {
 
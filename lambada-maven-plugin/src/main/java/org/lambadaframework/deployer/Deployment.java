@@ -5,6 +5,7 @@ import com.amazonaws.services.cloudformation.model.Parameter;
 
 import org.apache.maven.artifact.versioning.OverConstrainedVersionException;
 import org.lambadaframework.aws.S3;
+import org.lambadaframework.jaxrs.ScanCache;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 import org.w3c.dom.Document;
@@ -33,6 +34,8 @@ public class Deployment {
 
     protected Properties properties;
 
+    protected String integrationType = INTEGRATION_TYPE_AWS;
+
     protected MavenProject project;
 
     private static final String deploymentBucketPropertyName = "deployment.bucket";
@@ -57,6 +60,14 @@ public class Deployment {
 
     public static final String LAMBDA_DESCRIPTION_KEY = "LambdaDescription";
 
+    /**
+     * API Gateway integration types, AWS maps every resource method with templates,
+     * AWS_PROXY sends every request to a single greedy resource
+     */
+    public static final String INTEGRATION_TYPE_AWS = "AWS";
+    public static final String INTEGRATION_TYPE_AWS_PROXY = "AWS_PROXY";
+    public static final String LAMBDA_PROXY_HANDLER_VALUE = "org.lambadaframework.runtime.ProxyHandler";
+
 
     protected Log log;
 
@@ -109,6 +120,21 @@ public class Deployment {
         }
     }
 
+    public String getIntegrationType() {
+        return integrationType;
+    }
+
+    public void setIntegrationType(String integrationType) {
+        if (!INTEGRATION_TYPE_AWS.equals(integrationType) && !INTEGRATION_TYPE_AWS_PROXY.equals(integrationType)) {
+            throw new RuntimeException("Unknown API Gateway integration type: " + integrationType + ". Use " + INTEGRATION_TYPE_AWS + " or " + INTEGRATION_TYPE_AWS_PROXY + ".");
+        }
+        this.integrationType = integrationType;
+    }
+
+    public boolean isProxyIntegration() {
+        return INTEGRATION_TYPE_AWS_PROXY.equals(integrationType);
+    }
+
     public String getVersion() {
         return this.project.getArtifact().getVersion();
     }
@@ -143,6 +169,13 @@ public class Deployment {
         return project.getBuild().getDirectory() + seperator + project.getBuild().getFinalName() + "." + project.getPackaging();
     }
 
+    /**
+     * Scan cache of the JAX-RS parser, kept in the target directory between builds
+     */
+    public String getScanCacheLocationOnLocalFileSystem() {
+        return project.getBuild().getDirectory() + seperator + ScanCache.CACHE_FILE_NAME;
+    }
+
     public String getBucketName() {
         String bucketName = this.project.getProperties().getProperty(deploymentBucketPropertyName);
         if (bucketName == null) {
@@ -0,0 +1,91 @@
+package org.lambadaframework.deployer;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.lambadaframework.AbstractMojoPlugin;
+import org.lambadaframework.jaxrs.JAXRSParser;
+import org.lambadaframework.jaxrs.MappedJarFile;
+import org.lambadaframework.jaxrs.ScanCache;
+import org.lambadaframework.jaxrs.ResourceIndex;
+import org.lambadaframework.jaxrs.model.Resource;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index goal scans the packaged JAR file for JAX-RS resources and writes
+ * the list of resource classes and their route table into the JAR file.
+ * <p>
+ * With the index the runtime module does not need to scan the JAR file on cold starts,
+ * and builds the resource model from the route table instead of the annotations of the classes.
+ * It should run after the JAR file is created, so it should be declared after the shade plugin.
+ */
+@Mojo(name = "index",
+        defaultPhase = LifecyclePhase.PACKAGE
+)
+public class ResourceIndexer extends AbstractMojoPlugin {
+
+    protected static final String SUPPORTED_PACKAGING = "jar";
+
+    protected String getJarFileLocation() {
+        return mavenProject.getBuild().getDirectory() + "/" + mavenProject.getBuild().getFinalName() + "." + mavenProject.getPackaging();
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        try {
+
+            if (!mavenProject.getPackaging().equals(SUPPORTED_PACKAGING)) {
+                getLog().info("Project packaging is not JAR (potentially a parent project), skipping indexing.");
+                return;
+            }
+
+            String jarFileLocation = getJarFileLocation();
+            getLog().info("JAR File is being indexed: " + jarFileLocation + " Package: " + packageName);
+
+            JAXRSParser parser = new JAXRSParser()
+                    .withJarFile(jarFileLocation, packageName)
+                    .withScanCache(Paths.get(mavenProject.getBuild().getDirectory(), ScanCache.CACHE_FILE_NAME));
+            List<Resource> resources = parser.scan();
+
+            ResourceIndex resourceIndex = ResourceIndex.fromResources(resources, parser.scanProviders());
+
+            /**
+             * Shared mapping of the JAR file is released before it is rewritten,
+             * the deployer and the local server map the indexed JAR file again
+             */
+            MappedJarFile.closeShared(Paths.get(jarFileLocation));
+            writeIndex(Paths.get(jarFileLocation), resourceIndex);
+
+            getLog().info(resourceIndex.getClassNames().size() + " resource classes and " + resources.size() + " resources has been indexed");
+        } catch (Exception e) {
+            throw new MojoExecutionException("Exception at indexing", e);
+        }
+    }
+
+    /**
+     * Writes the index into the JAR file, replacing the existing one
+     *
+     * @param jarFile       JAR file
+     * @param resourceIndex Index to write
+     * @throws Exception
+     */
+    protected void writeIndex(Path jarFile, ResourceIndex resourceIndex) throws Exception {
+        URI jarUri = URI.create("jar:" + jarFile.toUri());
+        try (FileSystem jarFileSystem = FileSystems.newFileSystem(jarUri, Collections.<String, Object>emptyMap())) {
+            Path indexPath = jarFileSystem.getPath(ResourceIndex.INDEX_LOCATION);
+            Files.createDirectories(indexPath.getParent());
+            try (OutputStream outputStream = Files.newOutputStream(indexPath)) {
+                resourceIndex.write(outputStream);
+            }
+        }
+    }
+}
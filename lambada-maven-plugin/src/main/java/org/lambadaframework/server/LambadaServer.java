@@ -11,6 +11,7 @@ import org.lambadaframework.jaxrs.model.Resource;
 import spark.Request;
 import spark.Response;
 
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 
@@ -65,7 +66,8 @@ public class LambadaServer extends AbstractMojoPlugin {
             Deployment deployment = getDeployment();
 
             JAXRSParser jaxrsParser = new JAXRSParser()
-                    .withJarFile(deployment.getJarFileLocationOnLocalFileSystem(), packageName);
+                    .withJarFile(deployment.getJarFileLocationOnLocalFileSystem(), packageName)
+                    .withScanCache(Paths.get(deployment.getScanCacheLocationOnLocalFileSystem()));
 
             List<Resource> resources = jaxrsParser.scan();
             getLog().info(resources.size() + " resources has been found");
@@ -159,4 +159,9 @@ public class ApiGatewayTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testGetBinaryMediaTypePath() throws Exception {
+        assertEquals("/binaryMediaTypes/*~1*", ApiGateway.getBinaryMediaTypePath("*/*"));
+        assertEquals("/binaryMediaTypes/application~1vnd.api+json", ApiGateway.getBinaryMediaTypePath("application/vnd.api+json"));
+    }
+}
@@ -0,0 +1,89 @@
+package org.lambadaframework.logger;
+
+import org.apache.log4j.Layout;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.time.Instant;
+
+/**
+ * Formats log events as single line JSON documents.
+ * <p>
+ * Caller location (class, method, line) is not written, because finding it needs a stack walk on every log call.
+ * AWS request id is taken from the AWSRequestId MDC key that Lambda runtime sets.
+ */
+public class JsonLayout extends Layout {
+
+    private static final String REQUEST_ID_KEY = "AWSRequestId";
+
+    @Override
+    public String format(LoggingEvent event) {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(event.getTimeStamp())).append('"');
+        json.append(",\"level\":\"").append(event.getLevel()).append('"');
+        appendField(json, "logger", event.getLoggerName());
+
+        Object requestId = event.getMDC(REQUEST_ID_KEY);
+        if (requestId != null) {
+            appendField(json, "requestId", requestId.toString());
+        }
+
+        appendField(json, "thread", event.getThreadName());
+        appendField(json, "message", event.getRenderedMessage());
+
+        String[] throwable = event.getThrowableStrRep();
+        if (throwable != null) {
+            appendField(json, "exception", String.join("\n", throwable));
+        }
+
+        return json.append('}').append(LINE_SEP).toString();
+    }
+
+    private static void appendField(StringBuilder json, String name, String value) {
+        json.append(",\"").append(name).append("\":");
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Exceptions are written in the exception field
+     */
+    @Override
+    public boolean ignoresThrowable() {
+        return false;
+    }
+
+    @Override
+    public void activateOptions() {
+    }
+}
@@ -1,30 +1,55 @@
 package org.lambadaframework.logger;
 
 
-import com.amazonaws.services.lambda.runtime.log4j.LambdaAppender;
-import org.apache.log4j.Appender;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import com.amazonaws.services.lambda.runtime.LambdaRuntimeInternal;
 import org.apache.log4j.Level;
-import org.apache.log4j.PatternLayout;
 
+/**
+ * Loggers writing JSON lines to Lambda logger through an asynchronous {@link RingBufferAppender}.
+ * <p>
+ * Buffer size is read from LAMBADA_LOG_BUFFER_SIZE environment variable (default 1024 lines).
+ * Lambada runtime attaches the appender to its own package and calls {@link #flush()} at the end of every invocation.
+ */
 public class LambdaLogger {
 
-    private static Appender appender;
+    public static final String BUFFER_SIZE_ENVIRONMENT_VARIABLE = "LAMBADA_LOG_BUFFER_SIZE";
+
+    private static volatile RingBufferAppender appender;
 
     private static Level globalLogLevel = Level.ALL;
 
     private LambdaLogger() {
     }
 
-    private static Appender getAppender() {
+    private static RingBufferAppender getAppender() {
         if (appender == null) {
-            PatternLayout patternLayout = new PatternLayout();
-            patternLayout.setConversionPattern("%d{yyyy-MM-dd HH:mm:ss} <%X{AWSRequestId}> %-5p %c{1}:%L - %m%n");
-            appender = new LambdaAppender();
-            appender.setLayout(patternLayout);
+            synchronized (LambdaLogger.class) {
+                if (appender == null) {
+                    RingBufferAppender ringBufferAppender = new RingBufferAppender(LambdaRuntime.getLogger(), getBufferSize());
+                    ringBufferAppender.setLayout(new JsonLayout());
+                    LambdaRuntimeInternal.setUseLog4jAppender(true);
+                    appender = ringBufferAppender;
+                }
+            }
         }
         return appender;
     }
 
+    private static int getBufferSize() {
+        String bufferSize = System.getenv(BUFFER_SIZE_ENVIRONMENT_VARIABLE);
+        if (bufferSize != null) {
+            try {
+                return Integer.parseInt(bufferSize.trim());
+            } catch (NumberFormatException e) {
+                /**
+                 * Use the default size
+                 */
+            }
+        }
+        return RingBufferAppender.DEFAULT_CAPACITY;
+    }
+
     public static void setLogLevel(Level level) {
         globalLogLevel = level;
     }
@@ -36,8 +61,43 @@ public class LambdaLogger {
     public static org.apache.log4j.Logger getLogger(Class clazz, Level level) {
         org.apache.log4j.Logger logger = org.apache.log4j.Logger.getLogger(clazz);
         logger.setLevel(level);
-        logger.addAppender(getAppender());
+        addAppender(logger);
         return logger;
     }
-}
 
+    /**
+     * Writes the log lines of a package through the appender.
+     * <p>
+     * Loggers of the package and its sub packages inherit the appender,
+     * so they can be obtained from log4j directly.
+     *
+     * @param packageName Package name
+     * @param level       Level of the package, null to keep the configured level
+     * @return Logger of the package
+     */
+    public static org.apache.log4j.Logger attach(String packageName, Level level) {
+        org.apache.log4j.Logger logger = org.apache.log4j.Logger.getLogger(packageName);
+        if (level != null) {
+            logger.setLevel(level);
+        }
+        addAppender(logger);
+        return logger;
+    }
+
+    private static void addAppender(org.apache.log4j.Logger logger) {
+        RingBufferAppender ringBufferAppender = getAppender();
+        if (!logger.isAttached(ringBufferAppender)) {
+            logger.addAppender(ringBufferAppender);
+        }
+    }
+
+    /**
+     * Writes buffered log lines, does nothing if no logger is created
+     */
+    public static void flush() {
+        RingBufferAppender currentAppender = appender;
+        if (currentAppender != null) {
+            currentAppender.flush();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.lambadaframework.logger;
+
+import org.apache.log4j.Logger;
+
+import java.util.function.Supplier;
+
+/**
+ * Logs messages that are built only if the level is enabled.
+ * <p>
+ * Concatenating a request into a debug message costs its toString() on every call, even when debug is off.
+ * With a supplier the message is built only when it is logged:
+ * <pre>
+ * LazyLog.debug(logger, () -&gt; "Request started with " + request);
+ * </pre>
+ */
+public final class LazyLog {
+
+    private LazyLog() {
+    }
+
+    public static void debug(Logger logger, Supplier<?> message) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(message.get());
+        }
+    }
+
+    public static void debug(Logger logger, Supplier<?> message, Throwable throwable) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(message.get(), throwable);
+        }
+    }
+
+    public static void trace(Logger logger, Supplier<?> message) {
+        if (logger.isTraceEnabled()) {
+            logger.trace(message.get());
+        }
+    }
+}
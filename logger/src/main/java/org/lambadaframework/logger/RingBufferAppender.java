@@ -0,0 +1,294 @@
+package org.lambadaframework.logger;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import org.apache.log4j.Appender;
+import org.apache.log4j.Layout;
+import org.apache.log4j.Priority;
+import org.apache.log4j.helpers.OnlyOnceErrorHandler;
+import org.apache.log4j.spi.ErrorHandler;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.spi.OptionHandler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender that formats log events on the calling thread and writes them to Lambda logger asynchronously.
+ * <p>
+ * Formatted lines are put in a lock-free ring buffer, a daemon thread drains it to the sink. If the buffer is full
+ * the calling thread drains it itself, so no line is lost. Lambda freezes the container as soon as
+ * the handler returns, thus {@link #flush()} should be called at the end of every invocation.
+ * <p>
+ * Appender interface is implemented directly, because doAppend of log4j AppenderSkeleton is synchronized
+ * and would serialize every logging thread on the appender.
+ */
+public class RingBufferAppender implements Appender, OptionHandler {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final LambdaLogger sink;
+
+    private final AtomicReferenceArray<String> slots;
+
+    private final int mask;
+
+    /**
+     * Next sequence to claim by producers
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next sequence to drain
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Only one thread drains at a time
+     */
+    private final Object drainLock = new Object();
+
+    private final Thread drainer;
+
+    private volatile boolean stopped;
+
+    private volatile String name;
+
+    private volatile Layout layout;
+
+    private volatile Priority threshold;
+
+    private volatile Filter headFilter;
+
+    private Filter tailFilter;
+
+    private volatile ErrorHandler errorHandler = new OnlyOnceErrorHandler();
+
+    /**
+     * @param sink     Lambda logger to write to
+     * @param capacity Number of lines the buffer holds, rounded up to a power of two
+     */
+    public RingBufferAppender(LambdaLogger sink, int capacity) {
+        this(sink, capacity, true);
+    }
+
+    /**
+     * @param startDrainer False to leave draining to {@link #flush()} and to the callers, used by tests
+     */
+    RingBufferAppender(LambdaLogger sink, int capacity, boolean startDrainer) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.sink = sink;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.drainer = new Thread(this::drainContinuously, "lambada-log-drainer");
+        this.drainer.setDaemon(true);
+        if (startDrainer) {
+            this.drainer.start();
+        }
+    }
+
+    /**
+     * Checks the threshold and the filters like AppenderSkeleton, without holding a lock
+     */
+    @Override
+    public void doAppend(LoggingEvent event) {
+        if (stopped) {
+            errorHandler.error("Attempted to append to closed appender named [" + name + "].");
+            return;
+        }
+
+        Priority currentThreshold = threshold;
+        if (currentThreshold != null && !event.getLevel().isGreaterOrEqual(currentThreshold)) {
+            return;
+        }
+
+        for (Filter filter = headFilter; filter != null; filter = filter.getNext()) {
+            int decision = filter.decide(event);
+            if (decision == Filter.DENY) {
+                return;
+            }
+            if (decision == Filter.ACCEPT) {
+                break;
+            }
+        }
+
+        append(event);
+    }
+
+    private void append(LoggingEvent event) {
+        String line = format(event);
+        if (!offer(line)) {
+            synchronized (drainLock) {
+                drain();
+                sink.log(line);
+            }
+        }
+    }
+
+    private String format(LoggingEvent event) {
+        Layout layout = this.layout;
+        if (layout == null) {
+            return event.getLevel() + " " + event.getRenderedMessage();
+        }
+
+        String line = layout.format(event);
+        if (!layout.ignoresThrowable()) {
+            return line;
+        }
+
+        String[] throwable = event.getThrowableStrRep();
+        if (throwable == null) {
+            return line;
+        }
+
+        StringBuilder builder = new StringBuilder(line);
+        for (String throwableLine : throwable) {
+            builder.append(throwableLine).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private boolean offer(String line) {
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                return false;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                slots.set((int) (sequence & mask), line);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Writes buffered lines to the sink, the caller should hold the drain lock
+     */
+    private void drain() {
+        long sequence = head.get();
+        while (sequence < tail.get()) {
+            int index = (int) (sequence & mask);
+            String line = slots.get(index);
+            if (line == null) {
+                /**
+                 * Sequence is claimed but the line is not published yet
+                 */
+                Thread.yield();
+                continue;
+            }
+            slots.lazySet(index, null);
+            head.set(++sequence);
+            sink.log(line);
+        }
+    }
+
+    private void drainContinuously() {
+        while (!stopped) {
+            if (head.get() < tail.get()) {
+                synchronized (drainLock) {
+                    drain();
+                }
+            }
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+        }
+    }
+
+    /**
+     * Writes all buffered lines synchronously
+     */
+    public void flush() {
+        synchronized (drainLock) {
+            drain();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        LockSupport.unpark(drainer);
+        flush();
+    }
+
+    @Override
+    public boolean requiresLayout() {
+        return true;
+    }
+
+    @Override
+    public void activateOptions() {
+    }
+
+    public Priority getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Events below the threshold are not appended
+     *
+     * @param threshold Threshold, null to append every event
+     */
+    public void setThreshold(Priority threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void addFilter(Filter filter) {
+        if (headFilter == null) {
+            tailFilter = filter;
+            headFilter = filter;
+        } else {
+            tailFilter.setNext(filter);
+            tailFilter = filter;
+        }
+    }
+
+    @Override
+    public Filter getFilter() {
+        return headFilter;
+    }
+
+    @Override
+    public synchronized void clearFilters() {
+        headFilter = null;
+        tailFilter = null;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Layout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public void setLayout(Layout layout) {
+        this.layout = layout;
+    }
+
+    @Override
+    public ErrorHandler getErrorHandler() {
+        return errorHandler;
+    }
+
+    @Override
+    public void setErrorHandler(ErrorHandler errorHandler) {
+        if (errorHandler != null) {
+            this.errorHandler = errorHandler;
+        }
+    }
+}
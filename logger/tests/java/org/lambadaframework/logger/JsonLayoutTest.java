@@ -0,0 +1,64 @@
+package org.lambadaframework.logger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.MDC;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JsonLayoutTest {
+
+    private static final Logger LOGGER = Logger.getLogger("org.example.Resource");
+
+    private final JsonLayout layout = new JsonLayout();
+
+    @After
+    public void tearDown() {
+        MDC.remove("AWSRequestId");
+    }
+
+    private static LoggingEvent event(String message, Throwable throwable) {
+        return new LoggingEvent(JsonLayoutTest.class.getName(), LOGGER, 0L, Level.INFO, message, throwable);
+    }
+
+    private static String withoutLineSeparator(String line) {
+        return line.substring(0, line.length() - JsonLayout.LINE_SEP.length());
+    }
+
+    @Test
+    public void writesOneLinePerEvent() throws Exception {
+        MDC.put("AWSRequestId", "request-1");
+        String line = layout.format(event("hello", null));
+
+        assertTrue(line.startsWith("{\"timestamp\":\"1970-01-01T00:00:00Z\",\"level\":\"INFO\",\"logger\":\"org.example.Resource\""));
+        assertTrue(line.contains(",\"requestId\":\"request-1\","));
+        assertTrue(line.endsWith(",\"message\":\"hello\"}" + JsonLayout.LINE_SEP));
+        assertFalse(withoutLineSeparator(line).contains("\n"));
+    }
+
+    @Test
+    public void escapesMessages() throws Exception {
+        String line = layout.format(event("quote \" backslash \\ newline \n return \r tab \t control \u0001", null));
+
+        assertTrue(line.contains("\"message\":\"quote \\\" backslash \\\\ newline \\n return \\r tab \\t control \\u0001\""));
+    }
+
+    @Test
+    public void nullMessagesAreWrittenAsNull() throws Exception {
+        String line = layout.format(event(null, null));
+
+        assertTrue(line.contains(",\"message\":null}"));
+    }
+
+    @Test
+    public void exceptionsAreWrittenInOneField() throws Exception {
+        String line = layout.format(event("failed", new IllegalStateException("broken")));
+
+        assertFalse(layout.ignoresThrowable());
+        assertTrue(line.contains(",\"exception\":\"java.lang.IllegalStateException: broken\\n\\tat "));
+        assertFalse(withoutLineSeparator(line).contains("\n"));
+    }
+}
@@ -0,0 +1,225 @@
+package org.lambadaframework.logger;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import org.apache.log4j.Appender;
+import org.apache.log4j.Layout;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.ErrorHandler;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class RingBufferAppenderTest {
+
+    private static final Logger LOGGER = Logger.getLogger(RingBufferAppenderTest.class);
+
+    private static class RecordingSink implements LambdaLogger {
+
+        final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void log(String line) {
+            lines.add(line);
+        }
+    }
+
+    private static class MessageLayout extends Layout {
+
+        @Override
+        public String format(LoggingEvent event) {
+            return event.getRenderedMessage();
+        }
+
+        @Override
+        public boolean ignoresThrowable() {
+            return false;
+        }
+
+        @Override
+        public void activateOptions() {
+        }
+    }
+
+    /**
+     * Keeps the errors of the appender, instead of writing them to the standard error
+     */
+    private static class RecordingErrorHandler implements ErrorHandler {
+
+        final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void setLogger(Logger logger) {
+        }
+
+        @Override
+        public void error(String message, Exception e, int errorCode) {
+            errors.add(message);
+        }
+
+        @Override
+        public void error(String message) {
+            errors.add(message);
+        }
+
+        @Override
+        public void error(String message, Exception e, int errorCode, LoggingEvent event) {
+            errors.add(message);
+        }
+
+        @Override
+        public void setAppender(Appender appender) {
+        }
+
+        @Override
+        public void setBackupAppender(Appender appender) {
+        }
+
+        @Override
+        public void activateOptions() {
+        }
+    }
+
+    private static RingBufferAppender getAppender(RecordingSink sink, int capacity) {
+        RingBufferAppender appender = new RingBufferAppender(sink, capacity, false);
+        appender.setLayout(new MessageLayout());
+        return appender;
+    }
+
+    private static LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(RingBufferAppenderTest.class.getName(), LOGGER, level, message, null);
+    }
+
+    @Test
+    public void linesAreBufferedUntilFlush() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        RingBufferAppender appender = getAppender(sink, 4);
+
+        appender.doAppend(event(Level.INFO, "first"));
+        appender.doAppend(event(Level.INFO, "second"));
+        assertTrue(sink.lines.isEmpty());
+
+        appender.flush();
+        assertEquals(Arrays.asList("first", "second"), sink.lines);
+
+        appender.flush();
+        assertEquals(2, sink.lines.size());
+    }
+
+    @Test
+    public void callerDrainsWhenBufferIsFull() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        RingBufferAppender appender = getAppender(sink, 2);
+
+        appender.doAppend(event(Level.INFO, "1"));
+        appender.doAppend(event(Level.INFO, "2"));
+        assertTrue(sink.lines.isEmpty());
+
+        appender.doAppend(event(Level.INFO, "3"));
+        assertEquals(Arrays.asList("1", "2", "3"), sink.lines);
+
+        appender.doAppend(event(Level.INFO, "4"));
+        appender.flush();
+        assertEquals(Arrays.asList("1", "2", "3", "4"), sink.lines);
+    }
+
+    @Test
+    public void concurrentProducersLoseNoLines() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        RingBufferAppender appender = getAppender(sink, 16);
+        int threads = 4;
+        int linesPerThread = 2000;
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String prefix = t + ":";
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < linesPerThread; i++) {
+                    appender.doAppend(event(Level.INFO, prefix + i));
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        appender.flush();
+
+        assertEquals(threads * linesPerThread, sink.lines.size());
+        int[] next = new int[threads];
+        for (String line : sink.lines) {
+            String[] parts = line.split(":");
+            int thread = Integer.parseInt(parts[0]);
+            assertEquals(next[thread]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    public void drainerThreadWritesLines() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        RingBufferAppender appender = new RingBufferAppender(sink, 8);
+        appender.setLayout(new MessageLayout());
+
+        appender.doAppend(event(Level.INFO, "background"));
+        for (int i = 0; i < 200 && sink.lines.isEmpty(); i++) {
+            Thread.sleep(5);
+        }
+        appender.close();
+
+        assertEquals(Collections.singletonList("background"), sink.lines);
+    }
+
+    @Test
+    public void thresholdAndFiltersAreApplied() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        RingBufferAppender appender = getAppender(sink, 8);
+        appender.setThreshold(Level.INFO);
+        appender.addFilter(new Filter() {
+            @Override
+            public int decide(LoggingEvent event) {
+                return "denied".equals(event.getRenderedMessage()) ? DENY : NEUTRAL;
+            }
+        });
+
+        appender.doAppend(event(Level.DEBUG, "debug"));
+        appender.doAppend(event(Level.INFO, "denied"));
+        appender.doAppend(event(Level.WARN, "warn"));
+        appender.flush();
+
+        assertEquals(Collections.singletonList("warn"), sink.lines);
+    }
+
+    @Test
+    public void closedAppenderDropsEvents() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        RingBufferAppender appender = getAppender(sink, 8);
+        appender.setName("ring");
+        appender.setErrorHandler(errorHandler);
+
+        appender.doAppend(event(Level.INFO, "before"));
+        appender.close();
+        appender.doAppend(event(Level.INFO, "after"));
+        appender.flush();
+
+        assertEquals(Collections.singletonList("before"), sink.lines);
+        assertEquals(Collections.singletonList("Attempted to append to closed appender named [ring]."), errorHandler.errors);
+    }
+}
@@ -3,10 +3,21 @@ package org.lambadaframework.runtime;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.logger.LambdaLogger;
+import org.lambadaframework.logger.LazyLog;
 import org.lambadaframework.runtime.errorhandling.ErrorHandler;
+import org.lambadaframework.runtime.errorhandling.ExceptionMappers;
 import org.lambadaframework.runtime.models.Request;
 import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.router.RouteMatch;
 import org.lambadaframework.runtime.router.Router;
+import org.lambadaframework.runtime.serialization.BodyFormats;
+import org.lambadaframework.runtime.serialization.ContentEncoding;
+import org.lambadaframework.runtime.startup.EagerInitialization;
+import org.lambadaframework.runtime.startup.StartupTimeline;
+import org.lambadaframework.runtime.tracing.RequestTracing;
+import org.lambadaframework.runtime.tracing.Span;
+import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 
 
@@ -15,6 +26,27 @@ public class Handler
 
     static final Logger logger = Logger.getLogger(Handler.class);
 
+    public static final String LOG_LEVEL_ENVIRONMENT_VARIABLE = "LAMBADA_RUNTIME_LOG_LEVEL";
+
+    static final Level DEFAULT_LOG_LEVEL = Level.WARN;
+
+    /**
+     * Handler class is loaded in the Lambda init phase, which does not add to request latency.
+     * <p>
+     * Loggers of the runtime write through the JSON ring buffer of {@link LambdaLogger}, like the loggers of resources.
+     * Their level is WARN unless LAMBADA_RUNTIME_LOG_LEVEL is set, debug lines of the runtime have request headers.
+     */
+    static {
+        String logLevel = System.getenv(LOG_LEVEL_ENVIRONMENT_VARIABLE);
+        LambdaLogger.attach(Handler.class.getPackage().getName(), logLevel == null ? DEFAULT_LOG_LEVEL : Level.toLevel(logLevel.trim(), DEFAULT_LOG_LEVEL));
+        EagerInitialization.initializeFromEnvironment();
+    }
+
+    /**
+     * Compresses response entities, disabled unless the proxy integration enables it
+     */
+    private ContentEncoding contentEncoding = new ContentEncoding(ContentEncoding.DISABLED);
+
     private Router router;
 
 
@@ -23,6 +55,11 @@ public class Handler
         return this;
     }
 
+    public Handler setContentEncoding(ContentEncoding contentEncoding) {
+        this.contentEncoding = contentEncoding;
+        return this;
+    }
+
     public Router getRouter() {
         if (router != null) {
             return router;
@@ -46,22 +83,98 @@ public class Handler
     }
 
 
+    /**
+     * Routing misses are answered with shared error responses,
+     * unless the package has an exception mapper for the exception JAX-RS would throw
+     *
+     * @param routeMatch Unmatched route
+     * @param request    Request
+     * @return Error response
+     */
+    private Response getErrorResponse(RouteMatch routeMatch, Request request) {
+        LazyLog.debug(logger, () -> "Request is not matched: " + routeMatch);
+        ExceptionMappers exceptionMappers = ExceptionMappers.forPackage(request.getPackage());
+        if (exceptionMappers != null && exceptionMappers.find(routeMatch.getExceptionClass()) != null) {
+            return ErrorHandler.getErrorResponse(routeMatch.toException(), request.getPackage());
+        }
+        return routeMatch.getErrorResponse();
+    }
+
+    /**
+     * Rejected requests are answered like routing misses
+     *
+     * @param rejectedRequest Rejection of the request
+     * @param request         Request
+     * @return Error response
+     */
+    private Response getErrorResponse(RejectedRequest rejectedRequest, Request request) {
+        LazyLog.debug(logger, () -> "Request is rejected: " + rejectedRequest);
+        ExceptionMappers exceptionMappers = ExceptionMappers.forPackage(request.getPackage());
+        if (exceptionMappers != null && exceptionMappers.find(rejectedRequest.getExceptionClass()) != null) {
+            return ErrorHandler.getErrorResponse(rejectedRequest.toException(), request.getPackage());
+        }
+        return rejectedRequest.getErrorResponse();
+    }
+
     @Override
     public Response handleRequest(Request request, Context context) {
 
+        if (StartupTimeline.isEmitted()) {
+            try {
+                return process(request, context);
+            } finally {
+                LambdaLogger.flush();
+            }
+        }
+
+        /**
+         * First invocation in the container, the startup timeline is written after it
+         */
+        long started = StartupTimeline.start();
+        try {
+            return process(request, context);
+        } finally {
+            StartupTimeline.record(StartupTimeline.Phase.FIRST_INVOCATION, started);
+            StartupTimeline.emit(context == null ? null : context.getLogger());
+            LambdaLogger.flush();
+        }
+    }
+
+    private Response process(Request request, Context context) {
+
+        RequestTracing.begin();
         try {
-            logger.debug("Request started with " + request + " and " + context);
+            LazyLog.debug(logger, () -> "Request started with " + request + " and " + context);
 
             checkHttpMethod(request);
             logger.debug("Request check is ok.");
 
             logger.debug("Matching request to a resource handler.");
-            ResourceMethod matchedResourceMethod = getRouter().route(request);
+            long started = RequestTracing.start();
+            RouteMatch routeMatch = getRouter().match(request);
+            RequestTracing.record(Span.ROUTING, started);
+            if (!routeMatch.isMatched()) {
+                return getErrorResponse(routeMatch, request);
+            }
+
+            ResourceMethod matchedResourceMethod = routeMatch.getResourceMethod();
+            RequestTracing.setRoute(matchedResourceMethod);
+
+            Object entity = ResourceMethodInvoker.invoke(routeMatch, request, context);
 
             logger.debug("Returning result.");
-            return Response.buildFromJAXRSResponse(ResourceMethodInvoker.invoke(matchedResourceMethod, request, context));
+            started = RequestTracing.start();
+            Response response = Response.buildFromJAXRSResponse(entity)
+                    .setDefaultContentType(request.getNegotiatedMediaType());
+            response = contentEncoding.encode(request, BodyFormats.writeEntity(response));
+            RequestTracing.record(Span.RESPONSE_MAPPING, started);
+            return response;
+        } catch (RejectedRequest rejectedRequest) {
+            return getErrorResponse(rejectedRequest, request);
         } catch (Exception ex) {
-            return ErrorHandler.getErrorResponse(ex);
+            return ErrorHandler.getErrorResponse(ex, request.getPackage());
+        } finally {
+            RequestTracing.finish(context == null ? null : context.getLogger());
         }
     }
 }
\ No newline at end of file
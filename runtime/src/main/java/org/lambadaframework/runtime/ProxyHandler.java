@@ -0,0 +1,61 @@
+package org.lambadaframework.runtime;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import org.lambadaframework.runtime.errorhandling.ErrorHandler;
+import org.lambadaframework.runtime.models.ProxyRequest;
+import org.lambadaframework.runtime.models.ProxyResponse;
+import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.router.Router;
+import org.lambadaframework.runtime.serialization.ContentEncoding;
+
+/**
+ * Entry point of the runtime for API Gateway Lambda proxy integration (AWS_PROXY).
+ * <p>
+ * API Gateway has a single greedy {proxy+} resource and sends every request here without mapping templates,
+ * the compiled router finds the resource method by the request path.
+ * Package of the resources is read from the lambadaPackage stage variable or LAMBADA_PACKAGE environment variable.
+ * <p>
+ * To use it, set apiGatewayIntegration configuration of the maven plugin to AWS_PROXY
+ */
+public class ProxyHandler
+        implements RequestHandler<ProxyRequest, ProxyResponse> {
+
+    public static final String PACKAGE_ENVIRONMENT_VARIABLE = "LAMBADA_PACKAGE";
+
+    /**
+     * Compressed entities are returned base64 encoded,
+     * API Gateway decodes them because the deployer sets binary media types of proxy APIs
+     */
+    private static final ContentEncoding CONTENT_ENCODING = ContentEncoding.fromEnvironment();
+
+    private final Handler handler = new Handler().setContentEncoding(CONTENT_ENCODING);
+
+    public ProxyHandler setRouter(Router router) {
+        handler.setRouter(router);
+        return this;
+    }
+
+    public ProxyHandler setContentEncoding(ContentEncoding contentEncoding) {
+        handler.setContentEncoding(contentEncoding);
+        return this;
+    }
+
+    @Override
+    public ProxyResponse handleRequest(ProxyRequest proxyRequest, Context context) {
+
+        Response response;
+        try {
+            response = handler.handleRequest(proxyRequest.toRequest(getPackageName(proxyRequest)), context);
+        } catch (Exception ex) {
+            response = ErrorHandler.getErrorResponse(ex);
+        }
+
+        return ProxyResponse.from(response);
+    }
+
+    private static String getPackageName(ProxyRequest proxyRequest) {
+        String packageName = proxyRequest.getPackageName();
+        return packageName != null ? packageName : System.getenv(PACKAGE_ENVIRONMENT_VARIABLE);
+    }
+}
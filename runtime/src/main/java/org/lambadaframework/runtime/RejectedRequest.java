@@ -0,0 +1,83 @@
+package org.lambadaframework.runtime;
+
+import org.lambadaframework.runtime.errorhandling.ErrorHandler;
+import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.models.error.ErrorResponses;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.ws.rs.BadRequestException;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Request that is rejected before its resource method runs:
+ * its body can not be read or its arguments violate the constraints of the method.
+ * <p>
+ * Rejections are thrown without a stack trace, so invalid requests do not pay for capturing one,
+ * and the rejection of unreadable bodies is a shared instance.
+ * The JAX-RS exception is created only if the package has an exception mapper for it.
+ */
+public final class RejectedRequest extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    static final RejectedRequest UNREADABLE_BODY = new RejectedRequest(
+            ErrorResponses.BAD_REQUEST,
+            BadRequestException.class,
+            () -> new BadRequestException("Request body could not be read"));
+
+    private final transient Response errorResponse;
+
+    private final Class<? extends RuntimeException> exceptionClass;
+
+    private final transient Supplier<RuntimeException> exceptionSupplier;
+
+    private RejectedRequest(Response errorResponse,
+                            Class<? extends RuntimeException> exceptionClass,
+                            Supplier<RuntimeException> exceptionSupplier) {
+        super(null, null, false, false);
+        this.errorResponse = errorResponse;
+        this.exceptionClass = exceptionClass;
+        this.exceptionSupplier = exceptionSupplier;
+    }
+
+    /**
+     * @param violations Constraint violations of the arguments
+     * @return Rejection of the violations
+     */
+    static RejectedRequest of(Set<? extends ConstraintViolation<?>> violations) {
+        return new RejectedRequest(
+                ErrorHandler.getBadRequestResponse(violations),
+                ConstraintViolationException.class,
+                () -> new ConstraintViolationException(violations));
+    }
+
+    /**
+     * @return Error response of the rejection
+     */
+    Response getErrorResponse() {
+        return errorResponse;
+    }
+
+    /**
+     * @return Class of the exception JAX-RS throws for the rejection
+     */
+    Class<? extends RuntimeException> getExceptionClass() {
+        return exceptionClass;
+    }
+
+    /**
+     * Creates the exception of the rejection, for the exception mappers of the package
+     *
+     * @return Exception
+     */
+    RuntimeException toException() {
+        return exceptionSupplier.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RejectedRequest{" + errorResponse.getStatusCode() + "}";
+    }
+}
@@ -2,25 +2,20 @@ package org.lambadaframework.runtime;
 
 
 import com.amazonaws.services.lambda.runtime.Context;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.apache.log4j.Logger;
-import org.glassfish.jersey.server.model.Invocable;
-import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.logger.LazyLog;
+import org.lambadaframework.runtime.invocation.InstanceProvider;
+import org.lambadaframework.runtime.invocation.InvocationPlan;
 import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.router.RouteMatch;
+import org.lambadaframework.runtime.tracing.RequestTracing;
+import org.lambadaframework.runtime.tracing.Span;
+import org.lambadaframework.runtime.validation.ValidationPlan;
 
-import javax.ws.rs.Consumes;
-import javax.ws.rs.HeaderParam;
-import javax.ws.rs.PathParam;
-import javax.ws.rs.QueryParam;
-import javax.ws.rs.core.MediaType;
-
-import java.io.IOException;
+import javax.validation.ConstraintViolation;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
 
 public class ResourceMethodInvoker {
 
@@ -30,133 +25,63 @@ public class ResourceMethodInvoker {
     private ResourceMethodInvoker() {
     }
 
-    private static Object toObject(String value, Class<?> clazz) {
-        if (clazz == Integer.class || Integer.TYPE == clazz) {
-            return Integer.parseInt(value);
-        }
-        if (clazz == Long.class || Long.TYPE == clazz) {
-            return Long.parseLong(value);
-        }
-        if (clazz == Float.class || Float.TYPE == clazz) {
-            return Float.parseFloat(value);
-        }
-        if (clazz == Boolean.class || Boolean.TYPE == clazz) {
-            return Boolean.parseBoolean(value);
-        }
-        if (clazz == Double.class || Double.TYPE == clazz) {
-            return Double.parseDouble(value);
-        }
-        if (clazz == Byte.class || Byte.TYPE == clazz) {
-            return Byte.parseByte(value);
-        }
-        if (clazz == Short.class || Short.TYPE == clazz) {
-            return Short.parseShort(value);
-        }
-        return value;
-    }
-
-    public static Object invoke(ResourceMethod resourceMethod,
+    /**
+     * Binds the request, validates the arguments and invokes the resource method
+     *
+     * @param routeMatch     Match of the resource method
+     * @param request        Request
+     * @param lambdaContext  Lambda context
+     * @return Entity returned by the resource method
+     * @throws RejectedRequest           If the body can not be read or the arguments violate the constraints of the method
+     * @throws InvocationTargetException If the resource method throws an exception
+     * @throws IllegalAccessException    If the resource method is not accessible
+     * @throws InstantiationException    If the resource class can not be instantiated
+     */
+    public static Object invoke(RouteMatch routeMatch,
                                 Request request,
                                 Context lambdaContext)
             throws
+            RejectedRequest,
             InvocationTargetException,
             IllegalAccessException,
             InstantiationException {
 
-        logger.debug("Request object is: " + request);
-
-
-        Invocable invocable = resourceMethod.getInvocable();
+        LazyLog.debug(logger, () -> "Request object is: " + request);
 
-        Method method = invocable.getHandlingMethod();
-        Class<?> clazz = invocable.getHandler().getHandlerClass();
 
-        Object instance = clazz.newInstance();
-
-        List<Object> varargs = new ArrayList<>();
+        InvocationPlan invocationPlan = routeMatch.getInvocationPlan();
 
+        long started = RequestTracing.start();
+        Object[] arguments = invocationPlan.getBindingPlan().bind(request, lambdaContext);
+        RequestTracing.record(Span.BINDING, started);
+        if (arguments == null) {
+            throw RejectedRequest.UNREADABLE_BODY;
+        }
 
         /**
-         * Get consumes annotation from handler method
+         * Invalid requests are rejected before the resource method runs, and before a resource instance is acquired
          */
-        Consumes consumesAnnotation = method.getAnnotation(Consumes.class);
-
-        for (Parameter parameter : method.getParameters()) {
-
-            Class<?> parameterClass = parameter.getType();
-
-            /**
-             * Path parameter
-             */
-            if (parameter.isAnnotationPresent(PathParam.class)) {
-                PathParam annotation = parameter.getAnnotation(PathParam.class);
-                varargs.add(toObject(
-                        request.getPathParameters().get(annotation.value()), parameterClass
-                        )
-                );
-
-            }
-
-
-            /**
-             * Query parameter
-             */
-            if (parameter.isAnnotationPresent(QueryParam.class)) {
-                QueryParam annotation = parameter.getAnnotation(QueryParam.class);
-                varargs.add(toObject(
-                        request.getQueryParams().get(annotation.value()), parameterClass
-                        )
-                );
-            }
-
-            /**
-             * Query parameter
-             */
-            if (parameter.isAnnotationPresent(HeaderParam.class)) {
-                HeaderParam annotation = parameter.getAnnotation(HeaderParam.class);
-                varargs.add(toObject(
-                        request.getRequestHeaders().get(annotation.value()), parameterClass
-                        )
-                );
-            }
-
-            if (consumesAnnotation != null && consumesSpecificType(consumesAnnotation, MediaType.APPLICATION_JSON)) {
-                if (parameterClass == String.class) {
-                    //Pass raw request body
-                    varargs.add(request.getRequestBody());
-                } else {
-                    ObjectMapper mapper = new ObjectMapper();
-                    try {
-                        Object deserializedParameter = mapper.readValue(request.getRequestBody(), parameterClass);
-                        varargs.add(deserializedParameter);
-                    } catch (IOException ioException) {
-                        logger.error("Could not serialized " + request.getRequestBody() + " to " + parameterClass + ":", ioException);
-                        varargs.add(null);
-                    }
-                }
-            }
-
-
-            /**
-             * Lambda Context can be automatically injected
-             */
-            if (parameter.getType() == Context.class) {
-                varargs.add(lambdaContext);
+        ValidationPlan validationPlan = invocationPlan.getValidationPlan();
+        if (!validationPlan.isEmpty()) {
+            started = RequestTracing.start();
+            Set<ConstraintViolation<Object>> violations = validationPlan.validate(invocationPlan.getValidationInstance(), arguments);
+            RequestTracing.record(Span.VALIDATION, started);
+            if (!violations.isEmpty()) {
+                throw RejectedRequest.of(violations);
             }
         }
 
-        return method.invoke(instance, varargs.toArray());
-    }
-
-    private static boolean consumesSpecificType(Consumes annotation, String type) {
-
-        String[] consumingTypes = annotation.value();
-        for (String consumingType : consumingTypes) {
-            if (type.equals(consumingType)) {
-                return true;
+        InstanceProvider instanceProvider = invocationPlan.getInstanceProvider();
+        Object instance = instanceProvider.acquire();
+        try {
+            started = RequestTracing.start();
+            try {
+                return invocationPlan.getMethodInvoker().invoke(instance, arguments);
+            } finally {
+                RequestTracing.record(Span.INVOCATION, started);
             }
+        } finally {
+            instanceProvider.release(instance);
         }
-
-        return false;
     }
 }
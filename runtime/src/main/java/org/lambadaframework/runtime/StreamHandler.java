@@ -0,0 +1,49 @@
+package org.lambadaframework.runtime;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import org.lambadaframework.runtime.errorhandling.ErrorHandler;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.router.Router;
+import org.lambadaframework.runtime.serialization.JsonSerialization;
+import org.lambadaframework.runtime.serialization.RequestReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Streaming entry point of the runtime.
+ * <p>
+ * Unlike {@link Handler}, the event is read with a streaming parser straight from the input stream
+ * and the response is written straight to the output stream, so Lambda runtime does not
+ * serialize the event and the response a second time.
+ * <p>
+ * To use it, set lambdaHandler configuration of the maven plugin to org.lambadaframework.runtime.StreamHandler
+ */
+public class StreamHandler
+        implements RequestStreamHandler {
+
+    private final Handler handler = new Handler();
+
+    public StreamHandler setRouter(Router router) {
+        handler.setRouter(router);
+        return this;
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context)
+            throws IOException {
+
+        Response response;
+        try {
+            Request request = RequestReader.read(input);
+            response = handler.handleRequest(request, context);
+        } catch (Exception ex) {
+            response = ErrorHandler.getErrorResponse(ex);
+        }
+
+        JsonSerialization.writer(response.getClass()).writeValue(output, response);
+    }
+}
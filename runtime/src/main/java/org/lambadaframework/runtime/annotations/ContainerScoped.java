@@ -0,0 +1,21 @@
+package org.lambadaframework.runtime.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Resource classes annotated with ContainerScoped are instantiated once per Lambda container
+ * and reused by the following invocations.
+ * <p>
+ * Lambda runs one invocation at a time in a container, so the instance is never used concurrently.
+ * When invocations run on several threads (for example in the local server) every thread gets its own instance,
+ * thus resources that are not thread-safe can safely keep expensive clients in their fields.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ContainerScoped {
+}
@@ -0,0 +1,24 @@
+package org.lambadaframework.runtime.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Resource classes annotated with Pooled are borrowed from a bounded pool of instances.
+ * <p>
+ * An instance is used by one invocation at a time. If all the instances are in use
+ * and the pool is full, the invocation waits until an instance is returned to the pool.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Pooled {
+
+    /**
+     * Maximum number of instances in the pool
+     */
+    int maxInstances() default 4;
+}
@@ -0,0 +1,294 @@
+package org.lambadaframework.runtime.binding;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.apache.log4j.Logger;
+import org.lambadaframework.logger.LazyLog;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.router.types.MediaRange;
+import org.lambadaframework.runtime.serialization.BodyFormat;
+import org.lambadaframework.runtime.serialization.BodyFormats;
+import org.lambadaframework.runtime.serialization.JsonSerialization;
+import org.lambadaframework.runtime.tracing.RequestTracing;
+import org.lambadaframework.runtime.tracing.Span;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Parameter binding plan of a resource method.
+ * <p>
+ * The annotations of the method and its parameters are read only once, when the plan is compiled.
+ * Binding a request runs the precompiled extractors, one for every parameter.
+ * <p>
+ * The request body is read by the {@link BodyFormat} of its Content-Type among the types of @Consumes.
+ * JSON bodies are read by the runtime object mapper, binary bodies are base64 decoded first.
+ * Bodies that can not be read are rejected with 400 Bad Request, empty bodies are bound as null.
+ * Unreadable bodies are reported by the result of {@link #bind}, not by an exception.
+ */
+public final class BindingPlan {
+
+    static final Logger logger = Logger.getLogger(BindingPlan.class);
+
+    private static final ParameterExtractor NULL_EXTRACTOR = (request, lambdaContext) -> null;
+
+    /**
+     * Value of a body that can not be read
+     */
+    private static final Object UNREADABLE = new Object();
+
+    private final ParameterExtractor[] extractors;
+
+    private BindingPlan(ParameterExtractor[] extractors) {
+        this.extractors = extractors;
+    }
+
+    /**
+     * Compiles the binding plan of the method
+     *
+     * @param method Resource method
+     * @return Binding plan
+     */
+    public static BindingPlan compile(Method method) {
+
+        /**
+         * Get consumes annotation from handler method
+         */
+        List<MediaRange> consumedTypes = getConsumedTypes(method.getAnnotation(Consumes.class));
+
+        Parameter[] parameters = method.getParameters();
+        ParameterExtractor[] extractors = new ParameterExtractor[parameters.length];
+
+        for (int i = 0; i < parameters.length; i++) {
+            extractors[i] = getExtractor(parameters[i], consumedTypes);
+        }
+
+        return new BindingPlan(extractors);
+    }
+
+    private static ParameterExtractor getExtractor(Parameter parameter, List<MediaRange> consumedTypes) {
+
+        Class<?> parameterClass = parameter.getType();
+
+        /**
+         * Path parameter
+         */
+        PathParam pathParam = parameter.getAnnotation(PathParam.class);
+        if (pathParam != null) {
+            String name = pathParam.value();
+            Function<String, Object> converter = ParameterConverters.forType(parameterClass);
+            return (request, lambdaContext) -> converter.apply(getValue(request.getPathParameters(), name));
+        }
+
+        /**
+         * Query parameter
+         */
+        QueryParam queryParam = parameter.getAnnotation(QueryParam.class);
+        if (queryParam != null) {
+            String name = queryParam.value();
+            Function<String, Object> converter = ParameterConverters.forType(parameterClass);
+            return (request, lambdaContext) -> converter.apply(getValue(request.getQueryParams(), name));
+        }
+
+        /**
+         * Header parameter
+         */
+        HeaderParam headerParam = parameter.getAnnotation(HeaderParam.class);
+        if (headerParam != null) {
+            String name = headerParam.value();
+            Function<String, Object> converter = ParameterConverters.forType(parameterClass);
+            return (request, lambdaContext) -> converter.apply(request.getHeader(name));
+        }
+
+        /**
+         * Lambda Context can be automatically injected
+         */
+        if (parameterClass == Context.class) {
+            return (request, lambdaContext) -> lambdaContext;
+        }
+
+        ParameterExtractor entityExtractor = getEntityExtractor(parameterClass, consumedTypes);
+        if (entityExtractor == NULL_EXTRACTOR) {
+            return entityExtractor;
+        }
+        return (request, lambdaContext) -> {
+            long started = RequestTracing.start();
+            try {
+                return entityExtractor.extract(request, lambdaContext);
+            } finally {
+                RequestTracing.record(Span.DESERIALIZATION, started);
+            }
+        };
+    }
+
+    /**
+     * Request body is bound by the format of the Content-Type header,
+     * or by the format of the first consumed type if the request does not have one
+     */
+    private static ParameterExtractor getEntityExtractor(Class<?> parameterClass, List<MediaRange> consumedTypes) {
+        Map<String, ParameterExtractor> extractors = new LinkedHashMap<>();
+        for (MediaRange consumedType : consumedTypes) {
+            ParameterExtractor extractor = getEntityExtractor(parameterClass, consumedType);
+            if (extractor != null) {
+                extractors.putIfAbsent(consumedType.getKey(), extractor);
+            }
+        }
+
+        if (extractors.isEmpty()) {
+            return NULL_EXTRACTOR;
+        }
+
+        ParameterExtractor defaultExtractor = extractors.values().iterator().next();
+        if (extractors.size() == 1) {
+            return defaultExtractor;
+        }
+
+        return (request, lambdaContext) -> {
+            MediaRange contentType = MediaRange.parseContentType(request.getHeader(HttpHeaders.CONTENT_TYPE));
+            ParameterExtractor extractor = contentType == null ? null : extractors.get(contentType.getKey());
+            return (extractor != null ? extractor : defaultExtractor).extract(request, lambdaContext);
+        };
+    }
+
+    private static ParameterExtractor getEntityExtractor(Class<?> parameterClass, MediaRange consumedType) {
+        if (BodyFormats.isJson(consumedType)) {
+            if (parameterClass == String.class) {
+                //Pass raw request body
+                return (request, lambdaContext) -> getRawBody(request);
+            }
+            ObjectReader reader = JsonSerialization.reader(parameterClass);
+            return (request, lambdaContext) -> readJson(reader, request, parameterClass);
+        }
+
+        if (parameterClass == String.class && "text".equals(consumedType.getType())) {
+            return (request, lambdaContext) -> getRawBody(request);
+        }
+
+        BodyFormat format = BodyFormats.getFormat(consumedType);
+        if (format != null && format.isReadable(parameterClass)) {
+            return (request, lambdaContext) -> readBody(format, request, parameterClass);
+        }
+
+        return null;
+    }
+
+    /**
+     * @return Request body, {@link #UNREADABLE} if it can not be read
+     */
+    private static Object readJson(ObjectReader reader, Request request, Class<?> parameterClass) {
+        try {
+            TokenBuffer requestBodyTokens = request.getRequestBodyTokens();
+            if (requestBodyTokens != null) {
+                return reader.readValue(requestBodyTokens.asParser());
+            }
+            String requestBody = request.getRequestBody();
+            if (requestBody == null || requestBody.isEmpty()) {
+                return null;
+            }
+            if (request.isBase64Encoded()) {
+                return reader.readValue(Base64.getMimeDecoder().decode(requestBody));
+            }
+            return reader.readValue(requestBody);
+        } catch (IOException | IllegalArgumentException exception) {
+            return unreadable(parameterClass, exception);
+        }
+    }
+
+    /**
+     * @return Request body, {@link #UNREADABLE} if it can not be read
+     */
+    private static Object readBody(BodyFormat format, Request request, Class<?> parameterClass) {
+        String eventBody = getEventBody(request);
+        if (eventBody == null || eventBody.isEmpty()) {
+            return null;
+        }
+        try {
+            return format.read(parameterClass, BodyFormats.decode(eventBody, request.isBase64Encoded(), format));
+        } catch (IOException | IllegalArgumentException exception) {
+            return unreadable(parameterClass, exception);
+        }
+    }
+
+    private static Object unreadable(Class<?> parameterClass, Exception exception) {
+        LazyLog.debug(logger, () -> "Request body could not be read as " + parameterClass + ": " + exception.getMessage());
+        return UNREADABLE;
+    }
+
+    private static String getRawBody(Request request) {
+        if (request.isBase64Encoded() && request.getRequestBody() != null) {
+            return new String(Base64.getMimeDecoder().decode(request.getRequestBody()), StandardCharsets.UTF_8);
+        }
+        return getEventBody(request);
+    }
+
+    /**
+     * @return Request body as it is sent in the event
+     */
+    private static String getEventBody(Request request) {
+        TokenBuffer requestBodyTokens = request.getRequestBodyTokens();
+        if (requestBodyTokens == null) {
+            return request.getRequestBody();
+        }
+        try {
+            return JsonSerialization.getObjectMapper().writeValueAsString(requestBodyTokens);
+        } catch (IOException ioException) {
+            logger.error("Could not write request body:", ioException);
+            return null;
+        }
+    }
+
+    private static String getValue(Map<String, String> parameters, String name) {
+        return parameters == null ? null : parameters.get(name);
+    }
+
+    private static List<MediaRange> getConsumedTypes(Consumes annotation) {
+        List<MediaRange> consumedTypes = new ArrayList<>();
+
+        if (annotation == null) {
+            return consumedTypes;
+        }
+
+        for (String consumingTypes : annotation.value()) {
+            for (String consumingType : consumingTypes.split(",")) {
+                MediaRange consumedType = MediaRange.parseContentType(consumingType.trim());
+                if (consumedType != null) {
+                    consumedTypes.add(consumedType);
+                }
+            }
+        }
+
+        return consumedTypes;
+    }
+
+    /**
+     * Binds the request to the method arguments
+     *
+     * @param request       Request
+     * @param lambdaContext Lambda context
+     * @return Method arguments, null if the request body can not be read
+     */
+    public Object[] bind(Request request, Context lambdaContext) {
+        Object[] arguments = new Object[extractors.length];
+        for (int i = 0; i < extractors.length; i++) {
+            arguments[i] = extractors[i].extract(request, lambdaContext);
+            if (arguments[i] == UNREADABLE) {
+                return null;
+            }
+        }
+        return arguments;
+    }
+}
@@ -0,0 +1,97 @@
+package org.lambadaframework.runtime.binding;
+
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Query parameter and header names that the resource methods of a package bind.
+ * <p>
+ * They are registered when the route tree of the package is compiled. Afterwards the request reader
+ * skips the parameters and headers no resource method binds, instead of keeping every header
+ * API Gateway forwards. Headers used by the runtime itself, like Content-Type and Accept, are always kept.
+ */
+public final class BoundParameters {
+
+    private static final String[] RUNTIME_HEADERS = {
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ACCEPT,
+            HttpHeaders.ACCEPT_ENCODING
+    };
+
+    private static final Map<String, BoundParameters> packages = new ConcurrentHashMap<>();
+
+    private final Set<String> queryParameters;
+
+    private final Set<String> headers;
+
+    private BoundParameters(Set<String> queryParameters, Set<String> headers) {
+        this.queryParameters = queryParameters;
+        this.headers = headers;
+    }
+
+    /**
+     * Registers the names bound by the resources of a package
+     *
+     * @param packageName Package name
+     * @param resources   Resources of the package
+     */
+    public static void register(String packageName, List<Resource> resources) {
+        Set<String> queryParameters = new HashSet<>();
+        Set<String> headers = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        Collections.addAll(headers, RUNTIME_HEADERS);
+
+        for (Resource resource : resources) {
+            for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+                Method method = resourceMethod.getInvocable() == null ? null : resourceMethod.getInvocable().getHandlingMethod();
+                if (method == null) {
+                    continue;
+                }
+                for (Parameter parameter : method.getParameters()) {
+                    QueryParam queryParam = parameter.getAnnotation(QueryParam.class);
+                    if (queryParam != null) {
+                        queryParameters.add(queryParam.value());
+                    }
+                    HeaderParam headerParam = parameter.getAnnotation(HeaderParam.class);
+                    if (headerParam != null) {
+                        headers.add(headerParam.value());
+                    }
+                }
+            }
+        }
+
+        packages.put(packageName, new BoundParameters(queryParameters, headers));
+    }
+
+    /**
+     * @param packageName Package name
+     * @return Bound names of the package, null if its route tree is not compiled yet
+     */
+    public static BoundParameters forPackage(String packageName) {
+        return packageName == null ? null : packages.get(packageName);
+    }
+
+    public boolean isQueryParameterBound(String name) {
+        return queryParameters.contains(name);
+    }
+
+    /**
+     * @param name Header name, compared case insensitively
+     * @return Whether a resource method or the runtime reads the header
+     */
+    public boolean isHeaderBound(String name) {
+        return headers.contains(name);
+    }
+}
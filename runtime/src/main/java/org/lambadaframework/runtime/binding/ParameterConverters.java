@@ -0,0 +1,56 @@
+package org.lambadaframework.runtime.binding;
+
+import java.util.function.Function;
+
+/**
+ * Converters from string request parameters to the declared parameter types
+ */
+final class ParameterConverters {
+
+    private static final Function<String, Object> STRING = value -> value;
+
+    private ParameterConverters() {
+    }
+
+    /**
+     * Gets the converter for the type.
+     * <p>
+     * Null values are passed as null to the reference types,
+     * primitive types fail to parse them as before.
+     *
+     * @param clazz Parameter type
+     * @return Converter
+     */
+    static Function<String, Object> forType(Class<?> clazz) {
+        Function<String, Object> converter = getConverter(clazz);
+        if (clazz.isPrimitive() || converter == STRING) {
+            return converter;
+        }
+        return value -> value == null ? null : converter.apply(value);
+    }
+
+    private static Function<String, Object> getConverter(Class<?> clazz) {
+        if (clazz == Integer.class || Integer.TYPE == clazz) {
+            return Integer::parseInt;
+        }
+        if (clazz == Long.class || Long.TYPE == clazz) {
+            return Long::parseLong;
+        }
+        if (clazz == Float.class || Float.TYPE == clazz) {
+            return Float::parseFloat;
+        }
+        if (clazz == Boolean.class || Boolean.TYPE == clazz) {
+            return Boolean::parseBoolean;
+        }
+        if (clazz == Double.class || Double.TYPE == clazz) {
+            return Double::parseDouble;
+        }
+        if (clazz == Byte.class || Byte.TYPE == clazz) {
+            return Byte::parseByte;
+        }
+        if (clazz == Short.class || Short.TYPE == clazz) {
+            return Short::parseShort;
+        }
+        return STRING;
+    }
+}
@@ -0,0 +1,16 @@
+package org.lambadaframework.runtime.binding;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import org.lambadaframework.runtime.models.Request;
+
+/**
+ * Extracts the value of a single resource method parameter from the request.
+ * <p>
+ * Extractors are created once per resource method by {@link BindingPlan},
+ * so they should not do any annotation lookups.
+ */
+@FunctionalInterface
+public interface ParameterExtractor {
+
+    Object extract(Request request, Context lambdaContext);
+}
@@ -2,14 +2,33 @@ package org.lambadaframework.runtime.errorhandling;
 
 
 import org.apache.log4j.Logger;
+import org.lambadaframework.logger.LazyLog;
+import org.lambadaframework.runtime.models.Response;
 import org.lambadaframework.runtime.models.error.BadRequestResponse;
 import org.lambadaframework.runtime.models.error.ErrorResponse;
+import org.lambadaframework.runtime.models.error.ErrorResponses;
+import org.lambadaframework.runtime.models.error.NotAcceptableErrorResponse;
 import org.lambadaframework.runtime.models.error.NotFoundErrorResponse;
+import org.lambadaframework.runtime.models.error.UnsupportedMediaTypeErrorResponse;
 
-
-import javax.ws.rs.NotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.ext.ExceptionMapper;
 import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Maps exceptions to responses.
+ * <p>
+ * Exceptions thrown by resource methods are unwrapped from InvocationTargetException first.
+ * An exception mapper of the package wins, then constraint violations are bad requests,
+ * WebApplicationException keeps its status and response,
+ * any other exception is an internal server error. Client errors are logged without their stack trace.
+ * Responses of common statuses are the shared instances of {@link ErrorResponses}.
+ */
 public class ErrorHandler {
 
     static final Logger logger = Logger.getLogger(ErrorHandler.class);
@@ -17,17 +36,116 @@ public class ErrorHandler {
     private ErrorHandler() {
     }
 
-    public static ErrorResponse getErrorResponse(Exception e) {
+    public static Response getErrorResponse(Exception e) {
+        return getErrorResponse(e, null);
+    }
+
+    /**
+     * @param e           Exception
+     * @param packageName Package of the request, its exception mappers are used
+     * @return Error response
+     */
+    public static Response getErrorResponse(Exception e, String packageName) {
+        Throwable exception = e instanceof InvocationTargetException && e.getCause() != null ? e.getCause() : e;
+
+        ExceptionMappers exceptionMappers = ExceptionMappers.forPackage(packageName);
+        if (exceptionMappers != null) {
+            ExceptionMapper<Throwable> exceptionMapper = exceptionMappers.find(exception.getClass());
+            if (exceptionMapper != null) {
+                return map(exceptionMapper, exception);
+            }
+        }
+
+        if (exception instanceof ConstraintViolationException) {
+            return getBadRequestResponse(((ConstraintViolationException) exception).getConstraintViolations());
+        }
+
+        if (exception instanceof WebApplicationException) {
+            return getResponse((WebApplicationException) exception);
+        }
+
+        logger.error("Request failed:", exception);
+        return ErrorResponses.INTERNAL_SERVER_ERROR;
+    }
+
+    private static Response map(ExceptionMapper<Throwable> exceptionMapper, Throwable exception) {
         try {
-            throw e;
-        } catch (InvocationTargetException ex) {
-            return new BadRequestResponse();
-        } catch (NotFoundException ex) {
-            return new NotFoundErrorResponse("Page not found");
-        } catch (Exception ex) {
-            return new ErrorResponse();
-        } finally {
-            logger.debug("Exception occured:", e);
+            return Response.buildFromJAXRSResponse(exceptionMapper.toResponse(exception));
+        } catch (RuntimeException mapperException) {
+            logger.error("Exception mapper " + exceptionMapper.getClass().getName() + " failed:", mapperException);
+            return ErrorResponses.INTERNAL_SERVER_ERROR;
+        }
+    }
+
+    /**
+     * Requests that violate the constraints of the resource method are bad requests
+     *
+     * @param violations Constraint violations
+     * @return Bad request response listing the violations, the shared one if there are none
+     */
+    public static Response getBadRequestResponse(Set<? extends ConstraintViolation<?>> violations) {
+        StringBuilder errorMessage = new StringBuilder();
+        for (ConstraintViolation<?> violation : violations) {
+            if (errorMessage.length() > 0) {
+                errorMessage.append(", ");
+            }
+            errorMessage.append(violation.getPropertyPath()).append(' ').append(violation.getMessage());
+        }
+
+        LazyLog.debug(logger, () -> "Request failed validation: " + errorMessage);
+        return errorMessage.length() == 0 ? ErrorResponses.BAD_REQUEST : new BadRequestResponse(errorMessage.toString());
+    }
+
+    private static Response getResponse(WebApplicationException exception) {
+        javax.ws.rs.core.Response response = exception.getResponse();
+        int status = response == null ? 500 : response.getStatus();
+
+        if (status >= 500) {
+            logger.error("Request failed:", exception);
+        } else {
+            LazyLog.debug(logger, () -> "Request failed with status " + status + ": " + exception.getMessage());
+        }
+
+        if (response != null && response.hasEntity()) {
+            return Response.buildFromJAXRSResponse(response);
+        }
+
+        /**
+         * Responses without headers of their own are shared
+         */
+        if (response == null || response.getStringHeaders().isEmpty()) {
+            ErrorResponse sharedResponse = ErrorResponses.forStatus(status);
+            if (sharedResponse != null) {
+                return sharedResponse;
+            }
+        }
+
+        ErrorResponse errorResponse = getErrorResponse(status, response);
+        if (response != null) {
+            for (Map.Entry<String, List<String>> header : response.getStringHeaders().entrySet()) {
+                if (!header.getValue().isEmpty()) {
+                    errorResponse.setHeader(header.getKey(), header.getValue().get(0));
+                }
+            }
+        }
+        return errorResponse;
+    }
+
+    private static ErrorResponse getErrorResponse(int status, javax.ws.rs.core.Response response) {
+        switch (status) {
+            case 400:
+                return new BadRequestResponse();
+            case 404:
+                return new NotFoundErrorResponse("Page not found");
+            case 406:
+                return new NotAcceptableErrorResponse();
+            case 415:
+                return new UnsupportedMediaTypeErrorResponse();
+            case 500:
+                return new ErrorResponse();
+            default:
+                String reasonPhrase = response == null ? null : response.getStatusInfo().getReasonPhrase();
+                return new ErrorResponse(reasonPhrase != null ? reasonPhrase : String.valueOf(status), status);
         }
     }
 }
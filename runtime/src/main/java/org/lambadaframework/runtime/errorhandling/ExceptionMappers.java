@@ -0,0 +1,116 @@
+package org.lambadaframework.runtime.errorhandling;
+
+import org.apache.log4j.Logger;
+
+import javax.ws.rs.ext.ExceptionMapper;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JAX-RS exception mappers of a package.
+ * <p>
+ * Mapper classes are found by the extractor among the @Provider classes of the package and instantiated once,
+ * when the route tree of the package is compiled. The mapper of an exception class is the one whose exception type
+ * is the nearest super class, as JAX-RS specifies. It is resolved once per exception class and cached.
+ */
+public final class ExceptionMappers {
+
+    static final Logger logger = Logger.getLogger(ExceptionMappers.class);
+
+    private static final Map<String, ExceptionMappers> packages = new ConcurrentHashMap<>();
+
+    /**
+     * Mappers by the exception type they declare
+     */
+    private final Map<Class<?>, ExceptionMapper<Throwable>> mappers;
+
+    /**
+     * Mapper of every exception class seen so far, null if no mapper handles the class
+     */
+    private final ClassValue<ExceptionMapper<Throwable>> resolvedMappers = new ClassValue<ExceptionMapper<Throwable>>() {
+        @Override
+        protected ExceptionMapper<Throwable> computeValue(Class<?> exceptionClass) {
+            for (Class<?> type = exceptionClass; type != null; type = type.getSuperclass()) {
+                ExceptionMapper<Throwable> mapper = mappers.get(type);
+                if (mapper != null) {
+                    return mapper;
+                }
+            }
+            return null;
+        }
+    };
+
+    ExceptionMappers(Map<Class<?>, ExceptionMapper<Throwable>> mappers) {
+        this.mappers = mappers;
+    }
+
+    /**
+     * Registers the exception mappers among the provider classes of a package
+     *
+     * @param packageName Package name
+     * @param providers   Provider classes found in the package
+     */
+    public static void register(String packageName, List<Class<?>> providers) {
+        packages.put(packageName, fromProviders(providers));
+    }
+
+    /**
+     * @param packageName Package name
+     * @return Exception mappers of the package, null if the package has no mappers or it is not compiled yet
+     */
+    public static ExceptionMappers forPackage(String packageName) {
+        return packageName == null ? null : packages.get(packageName);
+    }
+
+    @SuppressWarnings("unchecked")
+    static ExceptionMappers fromProviders(List<Class<?>> providers) {
+        Map<Class<?>, ExceptionMapper<Throwable>> mappers = new HashMap<>();
+        for (Class<?> provider : providers) {
+            if (!ExceptionMapper.class.isAssignableFrom(provider)) {
+                continue;
+            }
+
+            Class<?> exceptionType = getExceptionType(provider);
+            try {
+                mappers.putIfAbsent(exceptionType, (ExceptionMapper<Throwable>) provider.getDeclaredConstructor().newInstance());
+                logger.debug("Registering exception mapper " + provider.getName() + " for " + exceptionType.getName());
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.error("Exception mapper could not be created: " + provider.getName(), e);
+            }
+        }
+        return new ExceptionMappers(mappers);
+    }
+
+    /**
+     * Finds the type argument of ExceptionMapper in the class hierarchy of the mapper,
+     * Throwable if it is not a concrete class
+     */
+    private static Class<?> getExceptionType(Class<?> mapperClass) {
+        for (Class<?> type = mapperClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Type genericInterface : type.getGenericInterfaces()) {
+                if (genericInterface instanceof ParameterizedType
+                        && ((ParameterizedType) genericInterface).getRawType() == ExceptionMapper.class) {
+                    Type argument = ((ParameterizedType) genericInterface).getActualTypeArguments()[0];
+                    return argument instanceof Class ? (Class<?>) argument : Throwable.class;
+                }
+            }
+        }
+        return Throwable.class;
+    }
+
+    public boolean isEmpty() {
+        return mappers.isEmpty();
+    }
+
+    /**
+     * @param exceptionClass Class of the thrown exception
+     * @return Mapper of the nearest super class, null if no mapper handles the exception
+     */
+    public ExceptionMapper<Throwable> find(Class<? extends Throwable> exceptionClass) {
+        return mappers.isEmpty() ? null : resolvedMappers.get(exceptionClass);
+    }
+}
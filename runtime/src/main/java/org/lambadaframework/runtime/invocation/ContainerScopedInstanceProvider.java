@@ -0,0 +1,31 @@
+package org.lambadaframework.runtime.invocation;
+
+/**
+ * Keeps one instance per container thread.
+ *
+ * @see org.lambadaframework.runtime.annotations.ContainerScoped
+ */
+public class ContainerScopedInstanceProvider implements InstanceProvider {
+
+    private final ResourceFactory resourceFactory;
+
+    private final ThreadLocal<Object> instances = new ThreadLocal<>();
+
+    public ContainerScopedInstanceProvider(ResourceFactory resourceFactory) {
+        this.resourceFactory = resourceFactory;
+    }
+
+    @Override
+    public Object acquire() throws InstantiationException {
+        Object instance = instances.get();
+        if (instance == null) {
+            instance = resourceFactory.newInstance();
+            instances.set(instance);
+        }
+        return instance;
+    }
+
+    @Override
+    public void release(Object instance) {
+    }
+}
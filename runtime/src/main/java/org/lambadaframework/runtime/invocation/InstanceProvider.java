@@ -0,0 +1,22 @@
+package org.lambadaframework.runtime.invocation;
+
+/**
+ * Provides resource instances according to the lifecycle of the resource class
+ */
+public interface InstanceProvider {
+
+    /**
+     * Gets an instance for an invocation
+     *
+     * @return Resource instance
+     * @throws InstantiationException If the instance can not be created
+     */
+    Object acquire() throws InstantiationException;
+
+    /**
+     * Returns the instance after the invocation completes
+     *
+     * @param instance Resource instance
+     */
+    void release(Object instance);
+}
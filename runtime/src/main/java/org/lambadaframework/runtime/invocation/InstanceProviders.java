@@ -0,0 +1,39 @@
+package org.lambadaframework.runtime.invocation;
+
+import org.lambadaframework.runtime.annotations.ContainerScoped;
+import org.lambadaframework.runtime.annotations.Pooled;
+
+import javax.inject.Singleton;
+
+/**
+ * Selects the instance provider of a resource class by its lifecycle annotation.
+ * <p>
+ * Resource classes without a lifecycle annotation are instantiated for every request,
+ * as the JAX-RS specification describes.
+ */
+public final class InstanceProviders {
+
+    private InstanceProviders() {
+    }
+
+    public static InstanceProvider forClass(Class<?> resourceClass)
+            throws InstantiationException, IllegalAccessException {
+
+        ResourceFactory resourceFactory = ResourceFactory.compile(resourceClass);
+
+        if (resourceClass.isAnnotationPresent(Singleton.class)) {
+            return new SingletonInstanceProvider(resourceFactory);
+        }
+
+        if (resourceClass.isAnnotationPresent(ContainerScoped.class)) {
+            return new ContainerScopedInstanceProvider(resourceFactory);
+        }
+
+        Pooled pooled = resourceClass.getAnnotation(Pooled.class);
+        if (pooled != null) {
+            return new PooledInstanceProvider(resourceFactory, pooled.maxInstances());
+        }
+
+        return new PerRequestInstanceProvider(resourceFactory);
+    }
+}
@@ -0,0 +1,150 @@
+package org.lambadaframework.runtime.invocation;
+
+import org.glassfish.jersey.server.model.Invocable;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.runtime.binding.BindingPlan;
+import org.lambadaframework.runtime.validation.ValidationPlan;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Everything needed to invoke a resource method, compiled once per resource method.
+ * <p>
+ * The plan is kept by the {@link org.lambadaframework.runtime.router.RouteMatch} of the method,
+ * so an invocation does not look anything up by the method or the resource class.
+ * <p>
+ * Instance providers are shared by all methods of a resource class, otherwise singletons and pools would be lost.
+ * <p>
+ * Parameter constraints only see the arguments, but the validator needs an instance of the resource class.
+ * Methods with constraints keep one instance taken from the instance provider when the plan is compiled,
+ * so arguments are validated before an instance is acquired for the request.
+ * Constraints that read the state of the resource instance are not supported.
+ */
+public final class InvocationPlan {
+
+    /**
+     * Instance providers of the resource classes, only used while compiling plans
+     */
+    private static final Map<Class<?>, InstanceProvider> instanceProviders = new ConcurrentHashMap<>();
+
+    private final BindingPlan bindingPlan;
+
+    private final ValidationPlan validationPlan;
+
+    /**
+     * Resource instance given to the validator, null if the method has no constraints
+     */
+    private final Object validationInstance;
+
+    private final MethodHandleInvoker methodInvoker;
+
+    private final InstanceProvider instanceProvider;
+
+    private InvocationPlan(BindingPlan bindingPlan,
+                           ValidationPlan validationPlan,
+                           Object validationInstance,
+                           MethodHandleInvoker methodInvoker,
+                           InstanceProvider instanceProvider) {
+        this.bindingPlan = bindingPlan;
+        this.validationPlan = validationPlan;
+        this.validationInstance = validationInstance;
+        this.methodInvoker = methodInvoker;
+        this.instanceProvider = instanceProvider;
+    }
+
+    /**
+     * Compiles the invocation plan of the resource method
+     *
+     * @param resourceMethod Resource method
+     * @return Invocation plan
+     * @throws IllegalAccessException If the method or the constructor of the resource class is not accessible
+     * @throws InstantiationException If the resource class can not be instantiated
+     */
+    public static InvocationPlan compile(ResourceMethod resourceMethod)
+            throws IllegalAccessException, InstantiationException {
+
+        Invocable invocable = resourceMethod.getInvocable();
+        Method method = invocable.getHandlingMethod();
+        ValidationPlan validationPlan = ValidationPlan.compile(method);
+        InstanceProvider instanceProvider = getInstanceProvider(invocable.getHandler().getHandlerClass());
+
+        return new InvocationPlan(
+                BindingPlan.compile(method),
+                validationPlan,
+                getValidationInstance(validationPlan, instanceProvider),
+                MethodHandleInvoker.compile(method),
+                instanceProvider);
+    }
+
+    /**
+     * Takes the instance given to the validator, returns it to the provider right away
+     * because the validator does not change it
+     *
+     * @param validationPlan   Validation plan of the method
+     * @param instanceProvider Instance provider of the resource class
+     * @return Resource instance, null if the method has no constraints
+     * @throws InstantiationException If the instance can not be created
+     */
+    private static Object getValidationInstance(ValidationPlan validationPlan, InstanceProvider instanceProvider)
+            throws InstantiationException {
+        if (validationPlan.isEmpty()) {
+            return null;
+        }
+
+        Object instance = instanceProvider.acquire();
+        instanceProvider.release(instance);
+        return instance;
+    }
+
+    /**
+     * Gets the instance provider of the resource class, creates it if it is not created yet
+     *
+     * @param clazz Resource class
+     * @return Instance provider
+     * @throws InstantiationException If the class can not be instantiated
+     * @throws IllegalAccessException If the constructor is not accessible
+     */
+    private static InstanceProvider getInstanceProvider(Class<?> clazz)
+            throws InstantiationException, IllegalAccessException {
+        try {
+            return instanceProviders.computeIfAbsent(clazz, resourceClass -> {
+                try {
+                    return InstanceProviders.forClass(resourceClass);
+                } catch (InstantiationException | IllegalAccessException e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            });
+        } catch (UndeclaredThrowableException e) {
+            if (e.getUndeclaredThrowable() instanceof InstantiationException) {
+                throw (InstantiationException) e.getUndeclaredThrowable();
+            }
+            throw (IllegalAccessException) e.getUndeclaredThrowable();
+        }
+    }
+
+    public BindingPlan getBindingPlan() {
+        return bindingPlan;
+    }
+
+    public ValidationPlan getValidationPlan() {
+        return validationPlan;
+    }
+
+    /**
+     * @return Resource instance given to the validator, null if the method has no constraints
+     */
+    public Object getValidationInstance() {
+        return validationInstance;
+    }
+
+    public MethodHandleInvoker getMethodInvoker() {
+        return methodInvoker;
+    }
+
+    public InstanceProvider getInstanceProvider() {
+        return instanceProvider;
+    }
+}
@@ -0,0 +1,410 @@
+package org.lambadaframework.runtime.invocation;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes a resource method without reflection.
+ * <p>
+ * Public instance methods of public classes with up to {@link #MAX_GENERATED_ARITY} parameters and a return value
+ * are called by a class generated with LambdaMetafactory, as a lambda expression calling the method would be.
+ * The generated class calls the method directly, so the JIT compiler inlines the resource method into it,
+ * and inlines the generated class into the caller while the call site of its arity sees few resource methods,
+ * as in a function with a handful of routes.
+ * <p>
+ * Other methods (static, void, non-public or with more parameters) are called through a method handle
+ * adapted once to the (Object, Object[])Object shape. That handle is not a constant at the call site,
+ * so it is called through its lambda form and the resource method is not inlined into the caller.
+ * <p>
+ * The invoker is compiled once per resource method and held by its {@link InvocationPlan}.
+ * Either way, exceptions thrown by the method are told apart from arguments that do not match the method.
+ */
+public abstract class MethodHandleInvoker {
+
+    /**
+     * Highest number of parameters of the methods called by generated classes
+     */
+    static final int MAX_GENERATED_ARITY = 4;
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Functional interfaces implemented by the generated classes, by the number of parameters
+     */
+    private static final Class<?>[] FUNCTION_TYPES = {
+            Function0.class, Function1.class, Function2.class, Function3.class, Function4.class
+    };
+
+    /**
+     * (Throwable)InvocationTargetException
+     */
+    private static final MethodHandle WRAP_EXCEPTION;
+
+    static {
+        try {
+            WRAP_EXCEPTION = MethodHandles.lookup().findConstructor(InvocationTargetException.class,
+                    MethodType.methodType(void.class, Throwable.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    interface Function0 {
+        Object invoke(Object instance) throws Exception;
+    }
+
+    interface Function1 {
+        Object invoke(Object instance, Object argument0) throws Exception;
+    }
+
+    interface Function2 {
+        Object invoke(Object instance, Object argument0, Object argument1) throws Exception;
+    }
+
+    interface Function3 {
+        Object invoke(Object instance, Object argument0, Object argument1, Object argument2) throws Exception;
+    }
+
+    interface Function4 {
+        Object invoke(Object instance, Object argument0, Object argument1, Object argument2, Object argument3) throws Exception;
+    }
+
+    private MethodHandleInvoker() {
+    }
+
+    /**
+     * Creates the invoker of the method
+     *
+     * @param method Resource method
+     * @return Invoker
+     * @throws IllegalAccessException If the method is not accessible
+     */
+    public static MethodHandleInvoker compile(Method method)
+            throws IllegalAccessException {
+
+        makeAccessible(method);
+
+        MethodHandle methodHandle = MethodHandles.lookup().unreflect(method);
+
+        Object function = generateFunction(method, methodHandle);
+        if (function == null) {
+            return SpreaderInvoker.compile(method, methodHandle);
+        }
+
+        switch (method.getParameterCount()) {
+            case 0:
+                return new GeneratedInvoker0(method, (Function0) function);
+            case 1:
+                return new GeneratedInvoker1(method, (Function1) function);
+            case 2:
+                return new GeneratedInvoker2(method, (Function2) function);
+            case 3:
+                return new GeneratedInvoker3(method, (Function3) function);
+            default:
+                return new GeneratedInvoker4(method, (Function4) function);
+        }
+    }
+
+    /**
+     * Generates the class calling the method
+     *
+     * @return Instance of the functional interface of the arity, null if the method can not be called that way
+     */
+    private static Object generateFunction(Method method, MethodHandle methodHandle) {
+        int arity = method.getParameterCount();
+        if (arity > MAX_GENERATED_ARITY
+                || Modifier.isStatic(method.getModifiers())
+                || method.getReturnType() == void.class
+                || !isLinkable(method)) {
+            return null;
+        }
+
+        Class<?> functionType = FUNCTION_TYPES[arity];
+        try {
+            return LambdaMetafactory.metafactory(
+                    MethodHandles.lookup(),
+                    "invoke",
+                    MethodType.methodType(functionType),
+                    MethodType.genericMethodType(arity + 1),
+                    methodHandle,
+                    methodHandle.type().wrap())
+                    .getTarget()
+                    .invoke();
+        } catch (Throwable throwable) {
+            /**
+             * The method handle still works
+             */
+            return null;
+        }
+    }
+
+    /**
+     * The generated class calls the method directly, so the method and the classes of its signature should be
+     * public and resolve to the same classes from the class loader of the runtime
+     */
+    private static boolean isLinkable(Method method) {
+        if (!Modifier.isPublic(method.getModifiers()) || !isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+
+        for (Class<?> enclosingClass = type; enclosingClass != null; enclosingClass = enclosingClass.getEnclosingClass()) {
+            if (!Modifier.isPublic(enclosingClass.getModifiers())) {
+                return false;
+            }
+        }
+
+        try {
+            return Class.forName(type.getName(), false, MethodHandleInvoker.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    static void makeAccessible(AccessibleObject accessibleObject) {
+        try {
+            accessibleObject.setAccessible(true);
+        } catch (SecurityException e) {
+            /**
+             * Public members are still accessible
+             */
+        }
+    }
+
+    /**
+     * Invokes the method
+     * <p>
+     * Exceptions thrown by the method are wrapped with InvocationTargetException
+     * as Method.invoke does, so error handling does not depend on the invocation strategy.
+     * Errors are rethrown as they are.
+     *
+     * @param instance  Resource instance
+     * @param arguments Method arguments
+     * @return Return value of the method, null for void methods
+     * @throws InvocationTargetException If the method throws an exception
+     * @throws IllegalArgumentException  If the arguments can not be converted to the parameter types of the method
+     */
+    public abstract Object invoke(Object instance, Object[] arguments)
+            throws InvocationTargetException;
+
+    /**
+     * @return Whether the method is called by a generated class
+     */
+    abstract boolean isGenerated();
+
+    /**
+     * Calls the method through the spread method handle
+     */
+    private static final class SpreaderInvoker extends MethodHandleInvoker {
+
+        private final MethodHandle methodHandle;
+
+        private SpreaderInvoker(MethodHandle methodHandle) {
+            this.methodHandle = methodHandle;
+        }
+
+        /**
+         * Exceptions thrown by the method are wrapped inside the handle, before the argument conversions
+         */
+        static SpreaderInvoker compile(Method method, MethodHandle methodHandle) {
+            methodHandle = wrapExceptions(methodHandle);
+
+            if (Modifier.isStatic(method.getModifiers())) {
+                methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+            }
+
+            methodHandle = methodHandle
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKER_TYPE);
+
+            return new SpreaderInvoker(methodHandle);
+        }
+
+        /**
+         * Exceptions thrown by the method are rethrown as InvocationTargetException, errors are not wrapped
+         */
+        private static MethodHandle wrapExceptions(MethodHandle methodHandle) {
+            MethodHandle throwWrapped = MethodHandles.filterArguments(
+                    MethodHandles.throwException(methodHandle.type().returnType(), InvocationTargetException.class),
+                    0,
+                    WRAP_EXCEPTION);
+            return MethodHandles.catchException(methodHandle, Exception.class, throwWrapped);
+        }
+
+        @Override
+        public Object invoke(Object instance, Object[] arguments)
+                throws InvocationTargetException {
+            try {
+                return methodHandle.invokeExact(instance, arguments);
+            } catch (InvocationTargetException | Error e) {
+                throw e;
+            } catch (Throwable throwable) {
+                /**
+                 * Anything else is thrown by the argument conversions, e.g. null for a primitive parameter
+                 */
+                throw new IllegalArgumentException("Arguments do not match the method: " + throwable, throwable);
+            }
+        }
+
+        @Override
+        boolean isGenerated() {
+            return false;
+        }
+    }
+
+    /**
+     * Calls the method through a generated class.
+     * <p>
+     * The generated class converts the arguments itself, so they are checked before the call
+     * and every exception thrown by the call is thrown by the method.
+     */
+    private abstract static class GeneratedInvoker extends MethodHandleInvoker {
+
+        private final Class<?> declaringClass;
+
+        /**
+         * Boxed parameter types
+         */
+        private final Class<?>[] argumentTypes;
+
+        private final boolean[] primitive;
+
+        GeneratedInvoker(Method method) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            this.declaringClass = method.getDeclaringClass();
+            this.argumentTypes = MethodType.methodType(void.class, parameterTypes).wrap().parameterArray();
+            this.primitive = new boolean[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                this.primitive[i] = parameterTypes[i].isPrimitive();
+            }
+        }
+
+        @Override
+        public final Object invoke(Object instance, Object[] arguments)
+                throws InvocationTargetException {
+            checkArguments(instance, arguments);
+            try {
+                return call(instance, arguments);
+            } catch (Exception e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        private void checkArguments(Object instance, Object[] arguments) {
+            if (!declaringClass.isInstance(instance)) {
+                throw new IllegalArgumentException("Instance is not a " + declaringClass.getName() + ": " + instance);
+            }
+            if (arguments.length != argumentTypes.length) {
+                throw new IllegalArgumentException("Method takes " + argumentTypes.length + " arguments, got " + arguments.length);
+            }
+            for (int i = 0; i < arguments.length; i++) {
+                Object argument = arguments[i];
+                if (argument == null ? primitive[i] : !argumentTypes[i].isInstance(argument)) {
+                    throw new IllegalArgumentException("Argument " + i + " does not match " + argumentTypes[i].getName() + ": " + argument);
+                }
+            }
+        }
+
+        abstract Object call(Object instance, Object[] arguments) throws Exception;
+
+        @Override
+        final boolean isGenerated() {
+            return true;
+        }
+    }
+
+    private static final class GeneratedInvoker0 extends GeneratedInvoker {
+
+        private final Function0 function;
+
+        GeneratedInvoker0(Method method, Function0 function) {
+            super(method);
+            this.function = function;
+        }
+
+        @Override
+        Object call(Object instance, Object[] arguments) throws Exception {
+            return function.invoke(instance);
+        }
+    }
+
+    private static final class GeneratedInvoker1 extends GeneratedInvoker {
+
+        private final Function1 function;
+
+        GeneratedInvoker1(Method method, Function1 function) {
+            super(method);
+            this.function = function;
+        }
+
+        @Override
+        Object call(Object instance, Object[] arguments) throws Exception {
+            return function.invoke(instance, arguments[0]);
+        }
+    }
+
+    private static final class GeneratedInvoker2 extends GeneratedInvoker {
+
+        private final Function2 function;
+
+        GeneratedInvoker2(Method method, Function2 function) {
+            super(method);
+            this.function = function;
+        }
+
+        @Override
+        Object call(Object instance, Object[] arguments) throws Exception {
+            return function.invoke(instance, arguments[0], arguments[1]);
+        }
+    }
+
+    private static final class GeneratedInvoker3 extends GeneratedInvoker {
+
+        private final Function3 function;
+
+        GeneratedInvoker3(Method method, Function3 function) {
+            super(method);
+            this.function = function;
+        }
+
+        @Override
+        Object call(Object instance, Object[] arguments) throws Exception {
+            return function.invoke(instance, arguments[0], arguments[1], arguments[2]);
+        }
+    }
+
+    private static final class GeneratedInvoker4 extends GeneratedInvoker {
+
+        private final Function4 function;
+
+        GeneratedInvoker4(Method method, Function4 function) {
+            super(method);
+            this.function = function;
+        }
+
+        @Override
+        Object call(Object instance, Object[] arguments) throws Exception {
+            return function.invoke(instance, arguments[0], arguments[1], arguments[2], arguments[3]);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.lambadaframework.runtime.invocation;
+
+/**
+ * Creates a new instance for every invocation
+ */
+public class PerRequestInstanceProvider implements InstanceProvider {
+
+    private final ResourceFactory resourceFactory;
+
+    public PerRequestInstanceProvider(ResourceFactory resourceFactory) {
+        this.resourceFactory = resourceFactory;
+    }
+
+    @Override
+    public Object acquire() throws InstantiationException {
+        return resourceFactory.newInstance();
+    }
+
+    @Override
+    public void release(Object instance) {
+    }
+}
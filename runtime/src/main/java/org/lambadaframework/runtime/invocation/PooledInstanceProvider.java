@@ -0,0 +1,67 @@
+package org.lambadaframework.runtime.invocation;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lends instances from a bounded pool.
+ * <p>
+ * Instances are created on demand until the pool reaches its maximum size,
+ * after that invocations wait for a released instance.
+ *
+ * @see org.lambadaframework.runtime.annotations.Pooled
+ */
+public class PooledInstanceProvider implements InstanceProvider {
+
+    private final ResourceFactory resourceFactory;
+
+    private final int maxInstances;
+
+    private final BlockingQueue<Object> idleInstances;
+
+    private final AtomicInteger createdInstances = new AtomicInteger();
+
+    public PooledInstanceProvider(ResourceFactory resourceFactory, int maxInstances) {
+        if (maxInstances < 1) {
+            throw new IllegalArgumentException("Pool of " + resourceFactory.getResourceClass().getName() + " should have at least one instance");
+        }
+        this.resourceFactory = resourceFactory;
+        this.maxInstances = maxInstances;
+        this.idleInstances = new ArrayBlockingQueue<>(maxInstances);
+    }
+
+    @Override
+    public Object acquire() throws InstantiationException {
+        Object instance = idleInstances.poll();
+        if (instance != null) {
+            return instance;
+        }
+
+        int created;
+        while ((created = createdInstances.get()) < maxInstances) {
+            if (createdInstances.compareAndSet(created, created + 1)) {
+                try {
+                    return resourceFactory.newInstance();
+                } catch (InstantiationException e) {
+                    createdInstances.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+
+        try {
+            return idleInstances.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InstantiationException instantiationException = new InstantiationException("Interrupted while waiting for an instance of " + resourceFactory.getResourceClass().getName());
+            instantiationException.initCause(e);
+            throw instantiationException;
+        }
+    }
+
+    @Override
+    public void release(Object instance) {
+        idleInstances.offer(instance);
+    }
+}
@@ -0,0 +1,71 @@
+package org.lambadaframework.runtime.invocation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+/**
+ * Creates resource instances through the no-argument constructor's method handle
+ */
+public final class ResourceFactory {
+
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class);
+
+    private final Class<?> resourceClass;
+
+    private final MethodHandle constructorHandle;
+
+    private ResourceFactory(Class<?> resourceClass, MethodHandle constructorHandle) {
+        this.resourceClass = resourceClass;
+        this.constructorHandle = constructorHandle;
+    }
+
+    /**
+     * Creates the factory of the resource class
+     *
+     * @param resourceClass Resource class
+     * @return Resource factory
+     * @throws InstantiationException If the class does not have a no-argument constructor
+     * @throws IllegalAccessException If the constructor is not accessible
+     */
+    public static ResourceFactory compile(Class<?> resourceClass)
+            throws InstantiationException, IllegalAccessException {
+
+        Constructor<?> constructor;
+        try {
+            constructor = resourceClass.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new InstantiationException(resourceClass.getName() + " does not have a no-argument constructor");
+        }
+
+        MethodHandleInvoker.makeAccessible(constructor);
+
+        MethodHandle constructorHandle = MethodHandles.lookup()
+                .unreflectConstructor(constructor)
+                .asType(FACTORY_TYPE);
+
+        return new ResourceFactory(resourceClass, constructorHandle);
+    }
+
+    public Class<?> getResourceClass() {
+        return resourceClass;
+    }
+
+    /**
+     * Creates a new resource instance
+     *
+     * @return Resource instance
+     * @throws InstantiationException If the constructor throws an exception
+     */
+    public Object newInstance()
+            throws InstantiationException {
+        try {
+            return constructorHandle.invokeExact();
+        } catch (Throwable throwable) {
+            InstantiationException instantiationException = new InstantiationException("Could not create " + resourceClass.getName());
+            instantiationException.initCause(throwable);
+            throw instantiationException;
+        }
+    }
+}
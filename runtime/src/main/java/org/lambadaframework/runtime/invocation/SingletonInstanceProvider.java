@@ -0,0 +1,36 @@
+package org.lambadaframework.runtime.invocation;
+
+/**
+ * Shares a single instance between all invocations.
+ * <p>
+ * The instance is created on the first invocation.
+ */
+public class SingletonInstanceProvider implements InstanceProvider {
+
+    private final ResourceFactory resourceFactory;
+
+    private volatile Object instance;
+
+    public SingletonInstanceProvider(ResourceFactory resourceFactory) {
+        this.resourceFactory = resourceFactory;
+    }
+
+    @Override
+    public Object acquire() throws InstantiationException {
+        Object currentInstance = instance;
+        if (currentInstance != null) {
+            return currentInstance;
+        }
+
+        synchronized (this) {
+            if (instance == null) {
+                instance = resourceFactory.newInstance();
+            }
+            return instance;
+        }
+    }
+
+    @Override
+    public void release(Object instance) {
+    }
+}
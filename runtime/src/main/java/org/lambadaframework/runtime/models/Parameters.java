@@ -0,0 +1,202 @@
+package org.lambadaframework.runtime.models;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact map of request parameters or headers.
+ * <p>
+ * Names and values are kept side by side in one flat array, so a request with a few parameters
+ * allocates a single array instead of a hash table with an entry object for every parameter.
+ * Lookups are linear, which is faster than hashing for the handful of names a request carries.
+ * Header maps compare names case-insensitively, as HTTP does.
+ * <p>
+ * Only {@link org.lambadaframework.runtime.serialization.RequestReader}, used by the stream handler, fills these maps.
+ * Requests of the POJO {@link org.lambadaframework.runtime.Handler} are deserialized by AWS Lambda,
+ * which calls the setters of {@link Request} with the hash maps it builds.
+ */
+public final class Parameters extends AbstractMap<String, String> implements Serializable {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final boolean caseInsensitive;
+
+    /**
+     * Names at even indexes, values at odd indexes
+     */
+    private String[] entries;
+
+    private int size;
+
+    private Parameters(boolean caseInsensitive, int capacity) {
+        this.caseInsensitive = caseInsensitive;
+        this.entries = new String[Math.max(1, capacity) * 2];
+    }
+
+    /**
+     * @return Map with case sensitive names, for query and path parameters
+     */
+    public static Parameters caseSensitive() {
+        return new Parameters(false, INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return Map with case insensitive names, for headers
+     */
+    public static Parameters caseInsensitive() {
+        return new Parameters(true, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Copies a map, returns the same instance if it is already compact with the same case sensitivity
+     *
+     * @param map             Map to copy
+     * @param caseInsensitive Whether names are case insensitive
+     * @return Compact map, null if the map is null
+     */
+    public static Parameters copyOf(Map<String, String> map, boolean caseInsensitive) {
+        if (map == null) {
+            return null;
+        }
+        if (map instanceof Parameters && ((Parameters) map).caseInsensitive == caseInsensitive) {
+            return (Parameters) map;
+        }
+
+        Parameters parameters = new Parameters(caseInsensitive, map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            parameters.put(entry.getKey(), entry.getValue());
+        }
+        return parameters;
+    }
+
+    public boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    private int indexOf(Object name) {
+        if (!(name instanceof String)) {
+            return -1;
+        }
+        String key = (String) name;
+        int length = size * 2;
+        for (int i = 0; i < length; i += 2) {
+            String current = entries[i];
+            if (current == key || (caseInsensitive ? current.equalsIgnoreCase(key) : current.equals(key))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String get(Object name) {
+        int index = indexOf(name);
+        return index < 0 ? null : entries[index + 1];
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return indexOf(name) >= 0;
+    }
+
+    @Override
+    public String put(String name, String value) {
+        if (name == null) {
+            throw new NullPointerException("Parameter name can not be null");
+        }
+
+        int index = indexOf(name);
+        if (index >= 0) {
+            String previous = entries[index + 1];
+            entries[index + 1] = value;
+            return previous;
+        }
+
+        if (size * 2 == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[size * 2] = name;
+        entries[size * 2 + 1] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public String remove(Object name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return null;
+        }
+
+        String previous = entries[index + 1];
+        int last = (size - 1) * 2;
+        System.arraycopy(entries, index + 2, entries, index, last - index);
+        entries[last] = null;
+        entries[last + 1] = null;
+        size--;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(entries, 0, size * 2, null);
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<Map.Entry<String, String>>() {
+
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Iterator<Map.Entry<String, String>>() {
+
+                    private int next;
+
+                    private int current = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        current = next++;
+                        int index = current * 2;
+                        return new SimpleImmutableEntry<>(entries[index], entries[index + 1]);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (current < 0) {
+                            throw new IllegalStateException();
+                        }
+                        Parameters.this.remove(entries[current * 2]);
+                        next = current;
+                        current = -1;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
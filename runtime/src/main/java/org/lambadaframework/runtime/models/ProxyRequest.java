@@ -0,0 +1,177 @@
+package org.lambadaframework.runtime.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Event of API Gateway Lambda proxy integration (AWS_PROXY).
+ * <p>
+ * API Gateway sends the request as it is, without a mapping template. The resource is the greedy {proxy+} path,
+ * so the concrete path is routed by the compiled router and path parameters are captured from it.
+ * The package to route is read from a stage variable set by the deployer.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProxyRequest implements Serializable {
+
+    /**
+     * Stage variable that holds the package name of the resources
+     */
+    public static final String PACKAGE_STAGE_VARIABLE = "lambadaPackage";
+
+    /**
+     * API Gateway resource, /{proxy+} for the greedy resource
+     */
+    protected String resource;
+
+    /**
+     * Request path
+     */
+    protected String path;
+
+    /**
+     * HTTP method
+     */
+    protected String httpMethod;
+
+    protected Map<String, String> headers;
+
+    protected Map<String, String> queryStringParameters;
+
+    protected Map<String, String> stageVariables;
+
+    /**
+     * Request body, base64 encoded if it is binary
+     */
+    protected String body;
+
+    protected boolean base64Encoded;
+
+    public String getResource() {
+        return resource;
+    }
+
+    @JsonProperty("resource")
+    public ProxyRequest setResource(String resource) {
+        this.resource = resource;
+        return this;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @JsonProperty("path")
+    public ProxyRequest setPath(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    @JsonProperty("httpMethod")
+    public ProxyRequest setHttpMethod(String httpMethod) {
+        this.httpMethod = httpMethod;
+        return this;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    @JsonProperty("headers")
+    public ProxyRequest setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+        return this;
+    }
+
+    public Map<String, String> getQueryStringParameters() {
+        return queryStringParameters;
+    }
+
+    @JsonProperty("queryStringParameters")
+    public ProxyRequest setQueryStringParameters(Map<String, String> queryStringParameters) {
+        this.queryStringParameters = queryStringParameters;
+        return this;
+    }
+
+    public Map<String, String> getStageVariables() {
+        return stageVariables;
+    }
+
+    @JsonProperty("stageVariables")
+    public ProxyRequest setStageVariables(Map<String, String> stageVariables) {
+        this.stageVariables = stageVariables;
+        return this;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    @JsonProperty("body")
+    public ProxyRequest setBody(String body) {
+        this.body = body;
+        return this;
+    }
+
+    /**
+     * Bean named after the isBase64Encoded key, Lambda POJO serializer ignores Jackson annotations
+     */
+    public boolean getIsBase64Encoded() {
+        return base64Encoded;
+    }
+
+    @JsonProperty("isBase64Encoded")
+    public ProxyRequest setIsBase64Encoded(boolean base64Encoded) {
+        this.base64Encoded = base64Encoded;
+        return this;
+    }
+
+    /**
+     * @return Package name from the stage variables, null if it is not set
+     */
+    public String getPackageName() {
+        return stageVariables == null ? null : stageVariables.get(PACKAGE_STAGE_VARIABLE);
+    }
+
+    /**
+     * Converts the event to the request routed by the runtime
+     *
+     * @param packageName Package of the resources
+     * @return Request
+     */
+    public Request toRequest(String packageName) {
+        Request request = new Request()
+                .setPackage(packageName)
+                .setPathtemplate(path)
+                .setRequestbody(body)
+                .setIsbase64encoded(base64Encoded)
+                .setQuerystring(queryStringParameters)
+                .setHeader(headers);
+
+        if (httpMethod != null) {
+            request.setMethod(Request.RequestMethod.fromName(httpMethod));
+        }
+
+        return request;
+    }
+
+    @Override
+    public String toString() {
+        return "ProxyRequest{" +
+                "resource='" + resource + '\'' +
+                ", path='" + path + '\'' +
+                ", httpMethod='" + httpMethod + '\'' +
+                ", headers=" + headers +
+                ", queryStringParameters=" + queryStringParameters +
+                ", stageVariables=" + stageVariables +
+                ", body=" + body +
+                ", isBase64Encoded=" + base64Encoded +
+                '}';
+    }
+}
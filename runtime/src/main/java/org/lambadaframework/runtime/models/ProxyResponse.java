@@ -0,0 +1,79 @@
+package org.lambadaframework.runtime.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.lambadaframework.runtime.models.error.ErrorResponse;
+import org.lambadaframework.runtime.serialization.JsonSerialization;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Response of API Gateway Lambda proxy integration (AWS_PROXY).
+ * <p>
+ * Status code and headers are returned as they are, so no integration response mapping is needed.
+ * The body is always a string: JSON entities are serialized, binary entities stay base64 encoded.
+ */
+public class ProxyResponse implements Serializable {
+
+    protected int statusCode;
+
+    protected Map<String, String> headers;
+
+    protected String body;
+
+    protected boolean base64Encoded;
+
+    /**
+     * Converts a runtime response
+     *
+     * @param response Response
+     * @return Proxy response
+     */
+    public static ProxyResponse from(Response response) {
+        ProxyResponse proxyResponse = new ProxyResponse();
+        proxyResponse.statusCode = response.getStatusCode();
+        proxyResponse.headers = response.getHeaders();
+        proxyResponse.base64Encoded = response.getIsBase64Encoded();
+
+        Object entity = response instanceof ErrorResponse
+                ? Collections.singletonMap("errorMessage", response.getErrorMessage())
+                : response.getEntity();
+
+        try {
+            proxyResponse.body = entity == null || entity instanceof String
+                    ? (String) entity
+                    : JsonSerialization.writer(entity.getClass()).writeValueAsString(entity);
+        } catch (JsonProcessingException e) {
+            proxyResponse.statusCode = 500;
+            proxyResponse.body = null;
+            proxyResponse.base64Encoded = false;
+        }
+
+        return proxyResponse;
+    }
+
+    @JsonProperty("statusCode")
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    @JsonProperty("headers")
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    @JsonProperty("body")
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Bean named after the isBase64Encoded key read by API Gateway, Lambda POJO serializer ignores Jackson annotations
+     */
+    @JsonProperty("isBase64Encoded")
+    public boolean getIsBase64Encoded() {
+        return base64Encoded;
+    }
+}
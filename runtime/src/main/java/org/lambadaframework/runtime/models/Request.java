@@ -1,9 +1,14 @@
 package org.lambadaframework.runtime.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
+import javax.ws.rs.NotAllowedException;
 import javax.ws.rs.core.MediaType;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -17,6 +22,22 @@ public class Request implements Serializable {
 
     public enum RequestMethod {
         GET, HEAD, POST, PUT, PATCH, DELETE, OPTIONS, TRACE;
+
+        /**
+         * Parses the method of an event, case-insensitively
+         *
+         * @param name Method name
+         * @return Request method
+         * @throws NotAllowedException If the method is not one of the supported methods, so it is answered with 405
+         */
+        public static RequestMethod fromName(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                String[] moreAllowed = Arrays.stream(values()).skip(1).map(Enum::name).toArray(String[]::new);
+                throw new NotAllowedException("Method " + name + " is not supported", values()[0].name(), moreAllowed);
+            }
+        }
     }
 
     /**
@@ -40,7 +61,17 @@ public class Request implements Serializable {
     protected String requestBody;
 
     /**
-     * Query parameters
+     * Request body as JSON tokens, when the event carries the body as a JSON value instead of a string
+     */
+    protected transient TokenBuffer requestBodyTokens;
+
+    /**
+     * Whether the request body is base64 encoded
+     */
+    protected boolean base64Encoded;
+
+    /**
+     * Path parameters
      */
     protected Map<String, String> pathParameters;
 
@@ -50,7 +81,8 @@ public class Request implements Serializable {
     protected Map<String, String> queryParams;
 
     /**
-     * Request headers
+     * Request headers, a case insensitive {@link Parameters} map when the request is read by the stream handler.
+     * Requests deserialized by AWS Lambda for the POJO handler have the hash map of the Lambda serializer.
      */
     protected Map<String, String> requestHeaders;
 
@@ -64,6 +96,11 @@ public class Request implements Serializable {
      */
     protected MediaType producedMediaType = MediaType.APPLICATION_JSON_TYPE;
 
+    /**
+     * Response media type selected by content negotiation
+     */
+    protected transient MediaType negotiatedMediaType;
+
 
     private MediaType getMediaTypeFromString(String mimeType) {
         String[] m = mimeType.split("/");
@@ -115,6 +152,31 @@ public class Request implements Serializable {
         return this;
     }
 
+    public boolean isBase64Encoded() {
+        return base64Encoded;
+    }
+
+    /**
+     * Named after the isbase64encoded key of the binary integration template,
+     * Lambda POJO serializer binds bean properties and ignores Jackson annotations.
+     */
+    @JsonProperty("isBase64Encoded")
+    public Request setIsbase64encoded(boolean base64Encoded) {
+        this.base64Encoded = base64Encoded;
+        return this;
+    }
+
+    @JsonIgnore
+    public TokenBuffer getRequestBodyTokens() {
+        return requestBodyTokens;
+    }
+
+    @JsonIgnore
+    public Request setRequestBodyTokens(TokenBuffer requestBodyTokens) {
+        this.requestBodyTokens = requestBodyTokens;
+        return this;
+    }
+
     public MediaType getConsumedMediaType() {
         return consumedMediaType;
     }
@@ -136,6 +198,17 @@ public class Request implements Serializable {
         return this;
     }
 
+    @JsonIgnore
+    public MediaType getNegotiatedMediaType() {
+        return negotiatedMediaType;
+    }
+
+    @JsonIgnore
+    public Request setNegotiatedMediaType(MediaType negotiatedMediaType) {
+        this.negotiatedMediaType = negotiatedMediaType;
+        return this;
+    }
+
     public Map<String, String> getPathParameters() {
         return pathParameters;
     }
@@ -166,6 +239,30 @@ public class Request implements Serializable {
         return this;
     }
 
+    /**
+     * Gets a request header, header names are case insensitive
+     *
+     * @param name Header name
+     * @return Header value, null if the request does not have the header
+     */
+    public String getHeader(String name) {
+        if (requestHeaders == null) {
+            return null;
+        }
+
+        String value = requestHeaders.get(name);
+        if (value != null || requestHeaders instanceof Parameters && ((Parameters) requestHeaders).isCaseInsensitive()) {
+            return value;
+        }
+
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
         return "Request{" +
@@ -1,9 +1,13 @@
 package org.lambadaframework.runtime.models;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -28,6 +32,11 @@ public class Response implements Serializable {
      */
     protected Object entity;
 
+    /**
+     * Whether the entity is a base64 encoded binary body
+     */
+    protected boolean base64Encoded;
+
 
     public static Response buildFromJAXRSResponse(Object response) {
 
@@ -41,7 +50,7 @@ public class Response implements Serializable {
 
 
             for (Map.Entry<String, List<Object>> entry : JAXResponse.getHeaders().entrySet()) {
-                outputResponse.headers.put(entry.getKey(), (String) entry.getValue().get(0));
+                outputResponse.headers.put(entry.getKey(), String.valueOf(entry.getValue().get(0)));
             }
 
 
@@ -52,11 +61,50 @@ public class Response implements Serializable {
         return outputResponse;
     }
 
+    /**
+     * Sets Content-Type header to the negotiated media type, unless the resource method already set it
+     *
+     * @param mediaType Negotiated media type, wildcard types are not set
+     * @return This response
+     */
+    public Response setDefaultContentType(MediaType mediaType) {
+        if (mediaType == null || mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+            return this;
+        }
+
+        if (getHeader(HttpHeaders.CONTENT_TYPE) != null) {
+            return this;
+        }
+
+        return setHeader(HttpHeaders.CONTENT_TYPE, mediaType.toString());
+    }
+
     @JsonProperty("entity")
     public Object getEntity() {
         return entity;
     }
 
+    public Response setEntity(Object entity) {
+        this.entity = entity;
+        return this;
+    }
+
+    @JsonProperty("isBase64Encoded")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean getIsBase64Encoded() {
+        return base64Encoded;
+    }
+
+    public Response setIsBase64Encoded(boolean base64Encoded) {
+        this.base64Encoded = base64Encoded;
+        return this;
+    }
+
+    @JsonIgnore
+    public int getStatusCode() {
+        return code;
+    }
+
     /**
      * Returns status code as errorMessage
      * Why errorMessage? Because API Gateway only detects status code within errorMessage
@@ -72,4 +120,31 @@ public class Response implements Serializable {
     public Map<String, String> getHeaders() {
         return headers;
     }
+
+    /**
+     * Gets a response header, header names are case insensitive
+     *
+     * @param name Header name
+     * @return Header value, null if the response does not have the header
+     */
+    public String getHeader(String name) {
+        if (headers == null) {
+            return null;
+        }
+
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    public Response setHeader(String name, String value) {
+        if (headers == null) {
+            headers = new LinkedHashMap<>();
+        }
+        headers.put(name, value);
+        return this;
+    }
 }
@@ -3,8 +3,6 @@ package org.lambadaframework.runtime.models.error;
 
 public class BadRequestResponse extends ErrorResponse {
 
-    protected String errorMessage;
-
     public BadRequestResponse() {
         this.errorMessage = "Bad request";
         this.code = 400;
@@ -8,6 +8,11 @@ public class ErrorResponse extends Response {
 
     protected String errorMessage;
 
+    /**
+     * Shared responses are returned to many requests, they can not be changed
+     */
+    private boolean shared;
+
     public ErrorResponse() {
         this.errorMessage = "Internal Server Error";
         this.code = 500;
@@ -18,10 +23,44 @@ public class ErrorResponse extends Response {
         this.errorMessage = errorMessage;
     }
 
+    public ErrorResponse(String errorMessage, int code) {
+        this.errorMessage = errorMessage;
+        this.code = code;
+    }
+
     @JsonProperty("errorMessage")
     @Override
     public String getErrorMessage() {
         return errorMessage;
     }
 
+    ErrorResponse share() {
+        shared = true;
+        return this;
+    }
+
+    @Override
+    public Response setEntity(Object entity) {
+        checkNotShared();
+        return super.setEntity(entity);
+    }
+
+    @Override
+    public Response setIsBase64Encoded(boolean base64Encoded) {
+        checkNotShared();
+        return super.setIsBase64Encoded(base64Encoded);
+    }
+
+    @Override
+    public Response setHeader(String name, String value) {
+        checkNotShared();
+        return super.setHeader(name, value);
+    }
+
+    private void checkNotShared() {
+        if (shared) {
+            throw new UnsupportedOperationException("Shared error responses can not be changed");
+        }
+    }
+
 }
@@ -0,0 +1,45 @@
+package org.lambadaframework.runtime.models.error;
+
+
+/**
+ * Immutable error responses shared by all requests.
+ * <p>
+ * Unmatched routes and client errors without headers of their own are answered with these instances,
+ * so they do not allocate a response for every request.
+ */
+public final class ErrorResponses {
+
+    public static final ErrorResponse BAD_REQUEST = new BadRequestResponse().share();
+
+    public static final ErrorResponse NOT_FOUND = new NotFoundErrorResponse().share();
+
+    public static final ErrorResponse NOT_ACCEPTABLE = new NotAcceptableErrorResponse().share();
+
+    public static final ErrorResponse UNSUPPORTED_MEDIA_TYPE = new UnsupportedMediaTypeErrorResponse().share();
+
+    public static final ErrorResponse INTERNAL_SERVER_ERROR = new ErrorResponse().share();
+
+    private ErrorResponses() {
+    }
+
+    /**
+     * @param status HTTP status code
+     * @return Shared response of the status, null if there is none
+     */
+    public static ErrorResponse forStatus(int status) {
+        switch (status) {
+            case 400:
+                return BAD_REQUEST;
+            case 404:
+                return NOT_FOUND;
+            case 406:
+                return NOT_ACCEPTABLE;
+            case 415:
+                return UNSUPPORTED_MEDIA_TYPE;
+            case 500:
+                return INTERNAL_SERVER_ERROR;
+            default:
+                return null;
+        }
+    }
+}
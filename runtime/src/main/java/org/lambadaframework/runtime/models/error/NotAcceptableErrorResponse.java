@@ -0,0 +1,15 @@
+package org.lambadaframework.runtime.models.error;
+
+
+public class NotAcceptableErrorResponse extends ErrorResponse {
+
+    public NotAcceptableErrorResponse() {
+        this.errorMessage = "Not acceptable";
+        this.code = 406;
+    }
+
+    public NotAcceptableErrorResponse(String errorMessage) {
+        this();
+        this.errorMessage = errorMessage;
+    }
+}
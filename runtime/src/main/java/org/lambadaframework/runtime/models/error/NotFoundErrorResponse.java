@@ -4,8 +4,6 @@ package org.lambadaframework.runtime.models.error;
 
 public class NotFoundErrorResponse extends ErrorResponse {
 
-    protected String errorMessage;
-
     public NotFoundErrorResponse() {
         this.errorMessage = "Page not found";
         this.code = 404;
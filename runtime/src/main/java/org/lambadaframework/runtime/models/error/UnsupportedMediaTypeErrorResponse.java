@@ -0,0 +1,15 @@
+package org.lambadaframework.runtime.models.error;
+
+
+public class UnsupportedMediaTypeErrorResponse extends ErrorResponse {
+
+    public UnsupportedMediaTypeErrorResponse() {
+        this.errorMessage = "Unsupported media type";
+        this.code = 415;
+    }
+
+    public UnsupportedMediaTypeErrorResponse(String errorMessage) {
+        this();
+        this.errorMessage = errorMessage;
+    }
+}
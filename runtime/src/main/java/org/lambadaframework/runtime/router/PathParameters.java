@@ -0,0 +1,131 @@
+package org.lambadaframework.runtime.router;
+
+import org.lambadaframework.runtime.models.Parameters;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Path parameters captured by a {@link PathTemplate}.
+ * <p>
+ * Values are kept as offsets into the matched path and turned into strings only when they are read,
+ * so an instance can be cleared and reused for every match without allocating.
+ * <p>
+ * The parameters are a read-only map, so they are set as path parameters of the request without copying.
+ * Looking up a value does not allocate, only iterating the entries copies them.
+ */
+public final class PathParameters extends AbstractMap<String, String> {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private String path;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    private String[] values = new String[INITIAL_CAPACITY];
+
+    private int[] starts = new int[INITIAL_CAPACITY];
+
+    private int[] ends = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * Removes all parameters
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        path = null;
+        size = 0;
+    }
+
+    void setPath(String path) {
+        this.path = path;
+    }
+
+    void add(String name, int start, int end) {
+        ensureCapacity();
+        names[size] = name;
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    void add(String name, String value) {
+        ensureCapacity();
+        names[size] = name;
+        values[size] = value;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public String getValue(int index) {
+        if (values[index] == null) {
+            values[index] = path.substring(starts[index], ends[index]);
+        }
+        return values[index];
+    }
+
+    /**
+     * @param name Parameter name
+     * @return Value of the parameter, null if it is not captured
+     */
+    @Override
+    public String get(Object name) {
+        int index = indexOf(name);
+        return index < 0 ? null : getValue(index);
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return indexOf(name) >= 0;
+    }
+
+    private int indexOf(Object name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Copy of the entries
+     */
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return toMap().entrySet();
+    }
+
+    /**
+     * @return Parameters as a new compact map
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> map = Parameters.caseSensitive();
+        for (int i = 0; i < size; i++) {
+            map.put(names[i], getValue(i));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,196 @@
+package org.lambadaframework.runtime.router;
+
+import org.glassfish.jersey.uri.UriTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precompiled matcher of a resource path template.
+ * <p>
+ * Templates made of literal segments and plain {name} variables are matched segment by segment without
+ * allocating, the captured values are stored in a reusable {@link PathParameters}. Other templates
+ * (regular expressions, variables mixed with text in a segment) are matched by a Jersey UriTemplate that is
+ * also compiled only once.
+ * <p>
+ * A request segment that is a template variable itself, such as {id}, matches any variable segment,
+ * because API Gateway sends path templates instead of paths.
+ */
+public final class PathTemplate {
+
+    private static final char SEPARATOR = '/';
+
+    private final String template;
+
+    /**
+     * Literal value of every segment, null for variable segments
+     */
+    private final String[] literals;
+
+    /**
+     * Variable name of every segment, null for literal segments
+     */
+    private final String[] variableNames;
+
+    /**
+     * Jersey template for the templates that can not be matched segment by segment
+     */
+    private final UriTemplate uriTemplate;
+
+    private PathTemplate(String template, String[] literals, String[] variableNames, UriTemplate uriTemplate) {
+        this.template = template;
+        this.literals = literals;
+        this.variableNames = variableNames;
+        this.uriTemplate = uriTemplate;
+    }
+
+    /**
+     * Compiles the template
+     *
+     * @param template Resource path
+     * @return Path template
+     */
+    public static PathTemplate compile(String template) {
+        List<String> segments = split(template);
+        String[] literals = new String[segments.size()];
+        String[] variableNames = new String[segments.size()];
+
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (segment.indexOf('{') < 0 && segment.indexOf('}') < 0) {
+                literals[i] = segment;
+            } else if (isPlainVariable(segment)) {
+                variableNames[i] = segment.substring(1, segment.length() - 1).trim();
+            } else {
+                return new PathTemplate(template, null, null, new UriTemplate(template));
+            }
+        }
+
+        return new PathTemplate(template, literals, variableNames, null);
+    }
+
+    private static boolean isPlainVariable(String segment) {
+        return segment.length() > 2
+                && segment.charAt(0) == '{'
+                && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf(':') < 0
+                && segment.indexOf('{', 1) < 0
+                && segment.indexOf('}') == segment.length() - 1;
+    }
+
+    private static List<String> split(String template) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : template.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Matches the path, captured variables are added to the parameters
+     *
+     * @param path       Request path or path template
+     * @param parameters Parameters to fill, it is cleared first
+     * @return True if the path matches the template
+     */
+    public boolean match(String path, PathParameters parameters) {
+        parameters.clear();
+
+        if (path == null) {
+            return false;
+        }
+
+        if (uriTemplate != null) {
+            return matchUriTemplate(path, parameters);
+        }
+
+        parameters.setPath(path);
+
+        int length = path.length();
+        int position = 0;
+
+        for (int i = 0; i < literals.length; i++) {
+            while (position < length && path.charAt(position) == SEPARATOR) {
+                position++;
+            }
+            if (position >= length) {
+                parameters.clear();
+                return false;
+            }
+
+            int end = path.indexOf(SEPARATOR, position);
+            if (end < 0) {
+                end = length;
+            }
+
+            String literal = literals[i];
+            if (literal != null) {
+                if (end - position != literal.length() || !path.regionMatches(position, literal, 0, literal.length())) {
+                    parameters.clear();
+                    return false;
+                }
+            } else {
+                parameters.add(variableNames[i], position, end);
+            }
+
+            position = end;
+        }
+
+        /**
+         * Only trailing slashes may be left
+         */
+        while (position < length) {
+            if (path.charAt(position++) != SEPARATOR) {
+                parameters.clear();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean matchUriTemplate(String path, PathParameters parameters) {
+        List<String> values = new ArrayList<>();
+        if (!uriTemplate.match(path, values)) {
+            return matchVariableSegments(path);
+        }
+
+        List<String> names = uriTemplate.getTemplateVariables();
+        for (int i = 0; i < names.size() && i < values.size(); i++) {
+            parameters.add(names.get(i), values.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Matches a path template sent by API Gateway against a template with regular expressions,
+     * variables in the request match any segment that has a variable in the template
+     */
+    private boolean matchVariableSegments(String path) {
+        List<String> templateSegments = split(template);
+        List<String> pathSegments = split(path);
+
+        if (templateSegments.size() != pathSegments.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < templateSegments.size(); i++) {
+            String templateSegment = templateSegments.get(i);
+            String pathSegment = pathSegments.get(i);
+            boolean pathVariable = pathSegment.startsWith("{") && pathSegment.endsWith("}");
+            boolean templateVariable = templateSegment.indexOf('{') >= 0;
+
+            if (pathVariable ? !templateVariable : !templateSegment.equals(pathSegment)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,208 @@
+package org.lambadaframework.runtime.router;
+
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.router.types.ConsumedTypes;
+import org.lambadaframework.runtime.router.types.MediaRange;
+import org.lambadaframework.runtime.router.types.MediaTypeTable;
+import org.lambadaframework.runtime.router.types.ProducedTypes;
+
+import javax.ws.rs.NotAcceptableException;
+import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+
+/**
+ * Resource methods of one path and HTTP method, with their media types compiled when the route tree is built.
+ * <p>
+ * A method is selected by content negotiation as JAX-RS specifies: its @Consumes must match the Content-Type header
+ * of the request, and methods declaring the content type more closely come first (application/json before
+ * application/* before *&#47;*). Then the method whose @Produces matches the most preferred range of the Accept
+ * header wins, and among equally preferred ranges the method declaring the response type more closely.
+ * Remaining ties go to the method declared first. The selected response media type is stored in the request.
+ */
+public final class Route {
+
+    private final ResourceMethod[] resourceMethods;
+
+    /**
+     * Path template of the resource, compiled once to capture path parameters of raw paths
+     */
+    private final PathTemplate pathTemplate;
+
+    /**
+     * Match of every resource method, created once
+     */
+    private final RouteMatch[] matches;
+
+    private final MediaTypeTable[] consumedTypes;
+
+    private final MediaTypeTable[] producedTypes;
+
+    /**
+     * Response media type of the single method that consumes anything, when the client accepts anything
+     */
+    private final MediaType defaultMediaType;
+
+    public Route(List<ResourceMethod> resourceMethods, ConsumedTypes consumedTypes, ProducedTypes producedTypes) {
+        int size = resourceMethods.size();
+        this.resourceMethods = resourceMethods.toArray(new ResourceMethod[size]);
+        this.matches = new RouteMatch[size];
+        this.consumedTypes = new MediaTypeTable[size];
+        this.producedTypes = new MediaTypeTable[size];
+
+        for (int i = 0; i < size; i++) {
+            this.matches[i] = RouteMatch.of(this.resourceMethods[i]);
+            this.consumedTypes[i] = consumedTypes.getTable(this.resourceMethods[i]);
+            this.producedTypes[i] = producedTypes.getTable(this.resourceMethods[i]);
+        }
+
+        this.defaultMediaType = size == 1 && this.consumedTypes[0].isAny()
+                ? this.producedTypes[0].select(MediaRange.ACCEPT_ALL[0])
+                : null;
+
+        Resource resource = size == 0 ? null : this.resourceMethods[0].getParent();
+        this.pathTemplate = resource == null || resource.getPath() == null ? null : PathTemplate.compile(resource.getPath());
+    }
+
+    /**
+     * If the request has a raw path instead of a path template and path parameters
+     * set by an API Gateway mapping template, path parameters are captured from the path.
+     * Nothing is captured or allocated if the selected method has no @PathParam parameters.
+     * <p>
+     * The captured {@link PathParameters} are set as the path parameters of the request without copying.
+     *
+     * @param request Request routed to this route
+     * @param match   Match of the selected method
+     */
+    public void bindPathParameters(Request request, RouteMatch match) {
+        if (!match.isPathParametersBound() || pathTemplate == null
+                || request.getPathParameters() != null || request.getPathTemplate().indexOf('{') >= 0) {
+            return;
+        }
+
+        PathParameters pathParameters = new PathParameters();
+        if (pathTemplate.match(request.getPathTemplate(), pathParameters)) {
+            request.setPath(pathParameters);
+        }
+    }
+
+    public ResourceMethod[] getResourceMethods() {
+        return resourceMethods;
+    }
+
+    /**
+     * @return Matches of the resource methods, in the order of {@link #getResourceMethods()}
+     */
+    public RouteMatch[] getMatches() {
+        return matches;
+    }
+
+    /**
+     * Selects the resource method for the request
+     *
+     * @param request Request
+     * @return Resource method
+     * @throws NotSupportedException  If no method consumes the content type of the request
+     * @throws NotAcceptableException If no method produces a media type the client accepts
+     */
+    public ResourceMethod select(Request request)
+            throws NotSupportedException, NotAcceptableException {
+        RouteMatch match = match(request);
+        if (!match.isMatched()) {
+            throw match.toException();
+        }
+        return match.getResourceMethod();
+    }
+
+    /**
+     * Selects the resource method for the request without throwing
+     *
+     * @param request Request
+     * @return Match of the selected method, {@link RouteMatch#NOT_SUPPORTED} if no method consumes the content type
+     * of the request or {@link RouteMatch#NOT_ACCEPTABLE} if no method produces a media type the client accepts
+     */
+    public RouteMatch match(Request request) {
+
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+
+        if (defaultMediaType != null && acceptHeader == null) {
+            request.setNegotiatedMediaType(defaultMediaType);
+            return matches[0];
+        }
+
+        MediaRange contentType = MediaRange.parseContentType(request.getHeader(HttpHeaders.CONTENT_TYPE));
+        MediaRange[] acceptedRanges = MediaRange.parseAccept(acceptHeader);
+
+        int selected = -1;
+        MediaType selectedMediaType = null;
+        int selectedConsumedSpecificity = -1;
+        float selectedQuality = -1f;
+        int selectedSpecificity = -1;
+        int selectedProducedSpecificity = -1;
+        boolean consumed = false;
+
+        for (int i = 0; i < resourceMethods.length; i++) {
+            if (!consumedTypes[i].matches(contentType)) {
+                continue;
+            }
+            consumed = true;
+
+            int consumedSpecificity = consumedTypes[i].getSpecificity(contentType);
+            if (consumedSpecificity < selectedConsumedSpecificity) {
+                continue;
+            }
+
+            /**
+             * Ranges are sorted by preference, so the first compatible range is the best one for this method
+             */
+            for (MediaRange range : acceptedRanges) {
+                if (range.getQuality() <= 0f) {
+                    break;
+                }
+                MediaType mediaType = producedTypes[i].select(range);
+                if (mediaType == null) {
+                    continue;
+                }
+                int producedSpecificity = producedTypes[i].getSelectedSpecificity(range);
+                if (isPreferred(consumedSpecificity, range, producedSpecificity,
+                        selectedConsumedSpecificity, selectedQuality, selectedSpecificity, selectedProducedSpecificity)) {
+                    selected = i;
+                    selectedMediaType = mediaType;
+                    selectedConsumedSpecificity = consumedSpecificity;
+                    selectedQuality = range.getQuality();
+                    selectedSpecificity = range.getSpecificity();
+                    selectedProducedSpecificity = producedSpecificity;
+                }
+                break;
+            }
+        }
+
+        if (selected < 0) {
+            return consumed ? RouteMatch.NOT_ACCEPTABLE : RouteMatch.NOT_SUPPORTED;
+        }
+
+        request.setNegotiatedMediaType(selectedMediaType);
+        return matches[selected];
+    }
+
+    /**
+     * Compares a candidate with the selected method: @Consumes match first, then the Accept range and @Produces match
+     */
+    private static boolean isPreferred(int consumedSpecificity, MediaRange range, int producedSpecificity,
+                                       int selectedConsumedSpecificity, float selectedQuality,
+                                       int selectedSpecificity, int selectedProducedSpecificity) {
+        if (consumedSpecificity != selectedConsumedSpecificity) {
+            return consumedSpecificity > selectedConsumedSpecificity;
+        }
+        if (range.getQuality() != selectedQuality) {
+            return range.getQuality() > selectedQuality;
+        }
+        if (range.getSpecificity() != selectedSpecificity) {
+            return range.getSpecificity() > selectedSpecificity;
+        }
+        return producedSpecificity > selectedProducedSpecificity;
+    }
+}
@@ -0,0 +1,151 @@
+package org.lambadaframework.runtime.router;
+
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.runtime.invocation.InvocationPlan;
+import org.lambadaframework.runtime.models.error.ErrorResponse;
+import org.lambadaframework.runtime.models.error.ErrorResponses;
+
+import javax.ws.rs.NotAcceptableException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.WebApplicationException;
+import java.lang.annotation.Annotation;
+import java.util.function.Supplier;
+
+/**
+ * Result of routing a request: the selected resource method, or the error response of the request.
+ * <p>
+ * Routing misses are returned instead of thrown, so unmatched requests do not pay for capturing a stack trace.
+ * Matches are created once per resource method when the route is compiled and misses are shared constants.
+ * <p>
+ * The invocation plan of the resource method is compiled on the first invocation and kept by the match,
+ * so invocations do not look it up.
+ */
+public final class RouteMatch {
+
+    public static final RouteMatch NOT_FOUND =
+            new RouteMatch(null, ErrorResponses.NOT_FOUND, NotFoundException.class, NotFoundException::new, false);
+
+    public static final RouteMatch NOT_SUPPORTED =
+            new RouteMatch(null, ErrorResponses.UNSUPPORTED_MEDIA_TYPE, NotSupportedException.class, NotSupportedException::new, false);
+
+    public static final RouteMatch NOT_ACCEPTABLE =
+            new RouteMatch(null, ErrorResponses.NOT_ACCEPTABLE, NotAcceptableException.class, NotAcceptableException::new, false);
+
+    private final ResourceMethod resourceMethod;
+
+    private final ErrorResponse errorResponse;
+
+    private final Class<? extends WebApplicationException> exceptionClass;
+
+    private final Supplier<WebApplicationException> exceptionSupplier;
+
+    /**
+     * Whether the resource method has @PathParam parameters, path parameters of raw paths are captured only then
+     */
+    private final boolean pathParametersBound;
+
+    private volatile InvocationPlan invocationPlan;
+
+    private RouteMatch(ResourceMethod resourceMethod,
+                       ErrorResponse errorResponse,
+                       Class<? extends WebApplicationException> exceptionClass,
+                       Supplier<WebApplicationException> exceptionSupplier,
+                       boolean pathParametersBound) {
+        this.resourceMethod = resourceMethod;
+        this.errorResponse = errorResponse;
+        this.exceptionClass = exceptionClass;
+        this.exceptionSupplier = exceptionSupplier;
+        this.pathParametersBound = pathParametersBound;
+    }
+
+    public static RouteMatch of(ResourceMethod resourceMethod) {
+        return new RouteMatch(resourceMethod, null, null, null, bindsPathParameters(resourceMethod));
+    }
+
+    private static boolean bindsPathParameters(ResourceMethod resourceMethod) {
+        for (Annotation[] annotations : resourceMethod.getInvocable().getHandlingMethod().getParameterAnnotations()) {
+            for (Annotation annotation : annotations) {
+                if (annotation instanceof PathParam) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean isMatched() {
+        return resourceMethod != null;
+    }
+
+    /**
+     * @return Selected resource method, null if the request is not matched
+     */
+    public ResourceMethod getResourceMethod() {
+        return resourceMethod;
+    }
+
+    /**
+     * @return Whether the resource method binds path parameters
+     */
+    public boolean isPathParametersBound() {
+        return pathParametersBound;
+    }
+
+    /**
+     * Gets the invocation plan of the resource method, compiles it if it is not compiled yet
+     *
+     * @return Invocation plan
+     * @throws IllegalAccessException If the method or the constructor of the resource class is not accessible
+     * @throws InstantiationException If the resource class can not be instantiated
+     */
+    public InvocationPlan getInvocationPlan()
+            throws IllegalAccessException, InstantiationException {
+        InvocationPlan invocationPlan = this.invocationPlan;
+        if (invocationPlan != null) {
+            return invocationPlan;
+        }
+
+        synchronized (this) {
+            if (this.invocationPlan == null) {
+                if (resourceMethod == null) {
+                    throw new IllegalStateException("Request is not matched");
+                }
+                this.invocationPlan = InvocationPlan.compile(resourceMethod);
+            }
+            return this.invocationPlan;
+        }
+    }
+
+    /**
+     * @return Shared error response of the miss, null if the request is matched
+     */
+    public ErrorResponse getErrorResponse() {
+        return errorResponse;
+    }
+
+    /**
+     * @return Class of the exception JAX-RS throws for the miss, null if the request is matched
+     */
+    public Class<? extends WebApplicationException> getExceptionClass() {
+        return exceptionClass;
+    }
+
+    /**
+     * Creates the exception of the miss, for callers that report routing errors by exceptions
+     *
+     * @return Exception
+     */
+    public WebApplicationException toException() {
+        if (exceptionSupplier == null) {
+            throw new IllegalStateException("Request is matched");
+        }
+        return exceptionSupplier.get();
+    }
+
+    @Override
+    public String toString() {
+        return isMatched() ? "RouteMatch{" + resourceMethod + "}" : "RouteMatch{" + errorResponse.getStatusCode() + "}";
+    }
+}
@@ -0,0 +1,394 @@
+package org.lambadaframework.runtime.router;
+
+import org.glassfish.jersey.uri.UriTemplate;
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.runtime.router.types.ConsumedTypes;
+import org.lambadaframework.runtime.router.types.ProducedTypes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix tree of path segments compiled once from the scanned resources.
+ * <p>
+ * Every node has a table of literal child segments, a list of template child segments
+ * and a dispatch table of resource methods by HTTP method. Looking up a path costs
+ * O(path depth) instead of O(number of resource methods).
+ * <p>
+ * Every template matching the path is a candidate, and the candidates are ranked over their whole template
+ * as described in JAX-RS specification (3.7.2): more literal characters first, then more template variables,
+ * then more regular expression variables. The ranking is done by the Jersey UriTemplate comparator.
+ * <p>
+ * Templates with a regular expression variable that can match "/", like {path: .+}, can not be split into
+ * segments. They are matched by Jersey UriTemplates compiled once and ranked with the templates of the tree.
+ * <p>
+ * Resource methods of every path and HTTP method are also compiled into a {@link Route}
+ * with precomputed media type tables for content negotiation.
+ */
+public final class RouteTree {
+
+    private static final char SLASH_CHARACTER = '/';
+
+    private final Node root = new Node();
+
+    /**
+     * Templates spanning segments
+     */
+    private final List<MultiSegmentTemplate> multiSegmentTemplates = new ArrayList<>();
+
+    private final ConsumedTypes consumedTypes = new ConsumedTypes();
+
+    private final ProducedTypes producedTypes = new ProducedTypes();
+
+    /**
+     * Every compiled route of the tree
+     */
+    private final List<Route> routes = new ArrayList<>();
+
+    public RouteTree(List<Resource> resources) {
+        for (Resource resource : resources) {
+            String path = resource.getPath();
+            if (path == null) {
+                continue;
+            }
+
+            List<String> segments = splitTemplate(path);
+            Node node = spansSegments(segments) ? getOrCreateMultiSegmentTemplate(path) : root;
+            if (node == root) {
+                for (String segment : segments) {
+                    node = node.getOrCreateChild(segment);
+                }
+                node.setTemplate(SLASH_CHARACTER + String.join(String.valueOf(SLASH_CHARACTER), segments));
+            }
+
+            for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+                node.addResourceMethod(resourceMethod);
+            }
+        }
+
+        root.compileRoutes(consumedTypes, producedTypes, routes);
+        for (MultiSegmentTemplate multiSegmentTemplate : multiSegmentTemplates) {
+            multiSegmentTemplate.node.compileRoutes(consumedTypes, producedTypes, routes);
+        }
+    }
+
+    /**
+     * @return Every compiled route of the tree
+     */
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    private Node getOrCreateMultiSegmentTemplate(String path) {
+        String template = path.charAt(0) == SLASH_CHARACTER ? path : SLASH_CHARACTER + path;
+        for (MultiSegmentTemplate multiSegmentTemplate : multiSegmentTemplates) {
+            if (multiSegmentTemplate.template.equals(template)) {
+                return multiSegmentTemplate.node;
+            }
+        }
+
+        MultiSegmentTemplate multiSegmentTemplate = new MultiSegmentTemplate(template);
+        multiSegmentTemplates.add(multiSegmentTemplate);
+        return multiSegmentTemplate.node;
+    }
+
+    /**
+     * Finds the route of the path and the HTTP method
+     * <p>
+     * Path can be either a concrete path (/resource1/12) or a path template (/resource1/{id})
+     * as sent by API Gateway.
+     *
+     * @param path       Request path or path template
+     * @param httpMethod HTTP method
+     * @return Route, null if there is no match
+     */
+    public Route findRoute(String path, String httpMethod) {
+        if (path == null || httpMethod == null) {
+            return null;
+        }
+
+        Node node = findNode(root, split(path), 0, httpMethod, null);
+        for (MultiSegmentTemplate multiSegmentTemplate : multiSegmentTemplates) {
+            if (multiSegmentTemplate.node.methods.containsKey(httpMethod) && multiSegmentTemplate.matches(path)) {
+                node = select(multiSegmentTemplate.node, node);
+            }
+        }
+        return node == null ? null : node.routes.get(httpMethod);
+    }
+
+    /**
+     * Walks every branch of the tree matching the path
+     *
+     * @param best Best node found so far, null if there is none
+     * @return Node of the template with the highest precedence that has methods for the HTTP method,
+     * null if there is none
+     */
+    private Node findNode(Node node, List<String> segments, int index, String httpMethod, Node best) {
+        if (index == segments.size()) {
+            return node.methods.containsKey(httpMethod) ? select(node, best) : best;
+        }
+
+        String segment = segments.get(index);
+
+        Node literalChild = node.literalChildren.get(segment);
+        if (literalChild != null) {
+            best = findNode(literalChild, segments, index + 1, httpMethod, best);
+        }
+
+        for (TemplateSegment templateChild : node.templateChildren) {
+            if (templateChild.matches(segment)) {
+                best = findNode(templateChild.node, segments, index + 1, httpMethod, best);
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * @return The node whose template has the higher precedence
+     */
+    private static Node select(Node candidate, Node best) {
+        if (best == null || UriTemplate.COMPARATOR.compare(candidate.uriTemplate, best.uriTemplate) < 0) {
+            return candidate;
+        }
+        return best;
+    }
+
+    private static List<String> split(String path) {
+        List<String> segments = new ArrayList<>();
+        int length = path.length();
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == SLASH_CHARACTER) {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Splits a resource path, "/" in regular expressions of variables does not split
+     */
+    private static List<String> splitTemplate(String path) {
+        List<String> segments = new ArrayList<>();
+        int length = path.length();
+        int start = 0;
+        int depth = 0;
+        for (int i = 0; i <= length; i++) {
+            char character = i == length ? SLASH_CHARACTER : path.charAt(i);
+            if (character == '{') {
+                depth++;
+            } else if (character == '}') {
+                depth--;
+            } else if (character == SLASH_CHARACTER && depth <= 0) {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+    private static boolean isTemplate(String segment) {
+        return segment.indexOf('{') >= 0;
+    }
+
+    /**
+     * @return Index of the brace closing the variable, -1 if it is not closed
+     */
+    private static int findClosingBrace(String template, int open) {
+        int depth = 0;
+        for (int i = open; i < template.length(); i++) {
+            char character = template.charAt(i);
+            if (character == '{') {
+                depth++;
+            } else if (character == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return True if a regular expression of a variable may match "/"
+     */
+    private static boolean spansSegments(List<String> segments) {
+        for (String segment : segments) {
+            int open = segment.indexOf('{');
+            while (open >= 0) {
+                int close = findClosingBrace(segment, open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Invalid path template: " + segment);
+                }
+                String variable = segment.substring(open + 1, close);
+                int colon = variable.indexOf(':');
+                if (colon >= 0) {
+                    String regex = variable.substring(colon + 1).trim();
+                    if (regex.indexOf(SLASH_CHARACTER) >= 0 || Pattern.compile(regex).matcher("/").find()) {
+                        return true;
+                    }
+                }
+                open = segment.indexOf('{', close + 1);
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> literalChildren = new HashMap<>();
+
+        private final List<TemplateSegment> templateChildren = new ArrayList<>();
+
+        private final Map<String, List<ResourceMethod>> methods = new HashMap<>();
+
+        private final Map<String, Route> routes = new HashMap<>();
+
+        /**
+         * Whole template of the resources of the node, used to rank the matching nodes
+         */
+        private UriTemplate uriTemplate;
+
+        private void setTemplate(String template) {
+            if (uriTemplate == null) {
+                uriTemplate = new UriTemplate(template);
+            }
+        }
+
+        private Node getOrCreateChild(String segment) {
+            if (!isTemplate(segment)) {
+                return literalChildren.computeIfAbsent(segment, key -> new Node());
+            }
+
+            for (TemplateSegment templateChild : templateChildren) {
+                if (templateChild.template.equals(segment)) {
+                    return templateChild.node;
+                }
+            }
+
+            TemplateSegment templateChild = new TemplateSegment(segment);
+            templateChildren.add(templateChild);
+            return templateChild.node;
+        }
+
+        private void addResourceMethod(ResourceMethod resourceMethod) {
+            methods.computeIfAbsent(resourceMethod.getHttpMethod(), key -> new LinkedList<>()).add(resourceMethod);
+        }
+
+        private void compileRoutes(ConsumedTypes consumedTypes, ProducedTypes producedTypes, List<Route> compiledRoutes) {
+            for (Map.Entry<String, List<ResourceMethod>> entry : methods.entrySet()) {
+                Route route = new Route(entry.getValue(), consumedTypes, producedTypes);
+                routes.put(entry.getKey(), route);
+                compiledRoutes.add(route);
+            }
+            for (Node child : literalChildren.values()) {
+                child.compileRoutes(consumedTypes, producedTypes, compiledRoutes);
+            }
+            for (TemplateSegment templateChild : templateChildren) {
+                templateChild.node.compileRoutes(consumedTypes, producedTypes, compiledRoutes);
+            }
+        }
+    }
+
+    /**
+     * A path segment with one or more template variables like {id} or {id: [0-9]+}
+     */
+    private static final class TemplateSegment {
+
+        private final String template;
+
+        private final Node node = new Node();
+
+        /**
+         * Null if the segment consists of a single variable without a regular expression
+         */
+        private final Pattern pattern;
+
+        private TemplateSegment(String template) {
+            this.template = template;
+
+            int literalCharacters = 0;
+            int variables = 0;
+            int regularExpressions = 0;
+            StringBuilder regex = new StringBuilder();
+            int position = 0;
+            while (position < template.length()) {
+                int open = template.indexOf('{', position);
+                if (open < 0) {
+                    open = template.length();
+                }
+                if (open > position) {
+                    String literal = template.substring(position, open);
+                    literalCharacters += literal.length();
+                    regex.append(Pattern.quote(literal));
+                }
+                if (open == template.length()) {
+                    break;
+                }
+
+                int close = findClosingBrace(template, open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Invalid path template: " + template);
+                }
+
+                String variable = template.substring(open + 1, close);
+                int colon = variable.indexOf(':');
+                variables++;
+                if (colon >= 0) {
+                    regularExpressions++;
+                    regex.append('(').append(variable.substring(colon + 1).trim()).append(')');
+                } else {
+                    regex.append("([^/]+)");
+                }
+                position = close + 1;
+            }
+
+            this.pattern = (variables == 1 && literalCharacters == 0 && regularExpressions == 0)
+                    ? null
+                    : Pattern.compile(regex.toString());
+        }
+
+        private boolean matches(String segment) {
+            if (pattern == null || template.equals(segment)) {
+                return true;
+            }
+
+            /*
+             * API Gateway sends the resource path template instead of the concrete path
+             */
+            if (segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}') {
+                return true;
+            }
+
+            return pattern.matcher(segment).matches();
+        }
+    }
+
+    /**
+     * A template with a regular expression variable spanning segments, like /files/{path: .+}
+     */
+    private static final class MultiSegmentTemplate {
+
+        private final String template;
+
+        private final Node node = new Node();
+
+        private MultiSegmentTemplate(String template) {
+            this.template = template;
+            this.node.setTemplate(template);
+        }
+
+        private boolean matches(String path) {
+            return template.equals(path) || node.uriTemplate.getPattern().match(path) != null;
+        }
+    }
+}
@@ -2,13 +2,19 @@ package org.lambadaframework.runtime.router;
 
 import org.apache.log4j.Logger;
 import org.lambadaframework.jaxrs.JAXRSParser;
+import org.lambadaframework.jaxrs.ResourceIndex;
 import org.lambadaframework.jaxrs.model.Resource;
 import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.logger.LazyLog;
+import org.lambadaframework.runtime.binding.BoundParameters;
+import org.lambadaframework.runtime.errorhandling.ExceptionMappers;
 import org.lambadaframework.runtime.models.Request;
-import org.lambadaframework.runtime.router.types.*;
+import org.lambadaframework.runtime.startup.StartupTimeline;
+import org.lambadaframework.runtime.validation.Validators;
 
+import javax.ws.rs.NotAcceptableException;
 import javax.ws.rs.NotFoundException;
-import java.util.LinkedList;
+import javax.ws.rs.NotSupportedException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -21,13 +27,26 @@ public final class Router {
 
     static final Logger logger = Logger.getLogger(Router.class);
 
-    private static Router singletonInstance = null;
+    /**
+     * Resource index generated by the maven plugin at package time.
+     * <p>
+     * It is loaded once per container, when this class is initialized.
+     * If the JAR file does not have an index, the package is scanned instead.
+     */
+    private static final ResourceIndex RESOURCE_INDEX = loadResourceIndex();
+
+    private static ResourceIndex loadResourceIndex() {
+        long started = StartupTimeline.start();
+        ResourceIndex resourceIndex = ResourceIndex.load(Router.class.getClassLoader());
+        StartupTimeline.record(StartupTimeline.Phase.RESOURCE_INDEX, started);
+        return resourceIndex;
+    }
 
     private Map<String, List<Resource>> resourceMap = new ConcurrentHashMap<>();
 
-    private Map<String, ResourceMethod> routingCache = new ConcurrentHashMap<>();
+    private Map<String, RouteTree> routeTrees = new ConcurrentHashMap<>();
 
-    private List<RouterType> routerTypes = new LinkedList<>();
+    private RoutingCache routingCache = RoutingCache.fromEnvironment();
 
     JAXRSParser jaxrsParser;
 
@@ -36,6 +55,23 @@ public final class Router {
         return this;
     }
 
+    /**
+     * Holds the singleton instance, it is created when it is first used.
+     * <p>
+     * JVM initializes the holder class only once, so concurrent first requests share one router.
+     */
+    private static final class RouterHolder {
+
+        private static final Router INSTANCE = createRouter();
+
+        private static Router createRouter() {
+            long started = StartupTimeline.start();
+            Router router = new Router();
+            StartupTimeline.record(StartupTimeline.Phase.ROUTER_CONSTRUCTION, started);
+            return router;
+        }
+    }
+
     /**
      * Gets the singleton instance
      * <p>
@@ -45,25 +81,12 @@ public final class Router {
      * @return Router
      */
     public static Router getRouter() {
-        if (singletonInstance != null) {
-            logger.debug("Singleton router is being returned.");
-            return singletonInstance;
-        }
-
-        return singletonInstance = new Router();
+        return RouterHolder.INSTANCE;
     }
 
     private Router() {
         logger.debug("Router is being initialized.");
-        jaxrsParser = new JAXRSParser();
-        addRouterTypes();
-    }
-
-    private void addRouterTypes() {
-        logger.debug("Adding router types.");
-        routerTypes.add(new Path());
-        routerTypes.add(new Method());
-        logger.debug("Router types are added.");
+        jaxrsParser = new JAXRSParser().withResourceIndex(RESOURCE_INDEX);
     }
 
 
@@ -87,59 +110,122 @@ public final class Router {
         }
 
         logger.debug("Cached resource map not found. Scanning package.");
+        long started = StartupTimeline.start();
         JAXRSParser jaxrsParser = this.jaxrsParser.withPackageName(packageName, Router.class);
+        jaxrsParser.scanClasses();
+        StartupTimeline.record(StartupTimeline.Phase.RESOURCE_SCAN, started);
+
+        started = StartupTimeline.start();
         List<Resource> foundResources = jaxrsParser.scan();
+        StartupTimeline.record(StartupTimeline.Phase.RESOURCE_MODEL, started);
         resourceMap.put(packageName, foundResources);
         logger.debug(foundResources.size() + " resources found.");
         return foundResources;
     }
 
 
-    private boolean isResourceMapMatches(Request request, ResourceMethod resourceMethod) {
-        for (RouterType router : routerTypes) {
-            if (!router.isMatching(request, resourceMethod)) {
-                return false;
+    /**
+     * Gets the compiled route tree of the package
+     *
+     * @param packageName Package name
+     * @return Route tree
+     */
+    protected RouteTree getRouteTree(String packageName) {
+        RouteTree routeTree = routeTrees.get(packageName);
+        if (routeTree != null) {
+            return routeTree;
+        }
+
+        /**
+         * Concurrent first requests wait for one scan instead of scanning in parallel
+         */
+        synchronized (routeTrees) {
+            routeTree = routeTrees.get(packageName);
+            if (routeTree != null) {
+                return routeTree;
             }
+
+            logger.debug("Compiling route tree for package: " + packageName);
+            List<Resource> resources = getJAXRSResourcesFromPackage(packageName);
+            long started = StartupTimeline.start();
+            routeTree = new RouteTree(resources);
+            BoundParameters.register(packageName, resources);
+            Validators.initialize(resources);
+            ExceptionMappers.register(packageName, jaxrsParser.withPackageName(packageName, Router.class).scanProviders());
+            StartupTimeline.record(StartupTimeline.Phase.ROUTE_TREE, started);
+            routeTrees.put(packageName, routeTree);
+            return routeTree;
         }
-        return true;
     }
 
-
-    private String calculateCacheKeyForRequest(Request request) {
-        return request.getPathTemplate() + "-" +
-                request.getMethod();
+    /**
+     * Scans the package and compiles its route tree before the first request.
+     * <p>
+     * The package is prepared by {@link #getRouteTree(String)}, as on the first request.
+     *
+     * @param packageName Package name
+     * @return Compiled routes of the package
+     */
+    public List<Route> prepare(String packageName) {
+        return getRouteTree(packageName).getRoutes();
     }
 
+    /**
+     * Path and HTTP method are matched by the route tree,
+     * then the resource method of the route is selected by content negotiation.
+     *
+     * @param request Request
+     * @return Resource method
+     * @throws NotFoundException      If there is no resource method for the path and HTTP method
+     * @throws NotSupportedException  If no resource method consumes the content type of the request
+     * @throws NotAcceptableException If no resource method produces a media type the client accepts
+     */
     public ResourceMethod route(Request request)
-            throws NotFoundException {
+            throws NotFoundException, NotSupportedException, NotAcceptableException {
+        RouteMatch match = match(request);
+        if (!match.isMatched()) {
+            throw match.toException();
+        }
+        return match.getResourceMethod();
+    }
+
+    /**
+     * Matches the request like {@link #route(Request)}, but returns routing misses instead of throwing them
+     *
+     * @param request Request
+     * @return Match of the resource method, or one of the shared misses of {@link RouteMatch}
+     */
+    public RouteMatch match(Request request) {
 
-        if (request.getPackage() == null) {
-            throw new NotFoundException("Request should have package attribute");
+        if (request.getPackage() == null || request.getMethod() == null || request.getPathTemplate() == null) {
+            logger.debug("Request should have package, method and pathTemplate attributes");
+            return RouteMatch.NOT_FOUND;
         }
 
-        String cacheKey = calculateCacheKeyForRequest(request);
-        ResourceMethod foundMethod;
+        String packageName = request.getPackage();
+        String pathTemplate = request.getPathTemplate();
+        Request.RequestMethod method = request.getMethod();
 
         logger.debug("Matching request with a corresponding resource method.");
 
-
-        if ((foundMethod = routingCache.get(cacheKey)) != null) {
-            logger.debug("Request is already cached: " + foundMethod.getClass().toString());
-            return foundMethod;
+        Route route = routingCache.get(packageName, pathTemplate, method);
+        if (route == RoutingCache.MISS) {
+            return RouteMatch.NOT_FOUND;
         }
-
-        List<Resource> foundResources = getJAXRSResourcesFromPackage(request.getPackage());
-
-        for (Resource resource : foundResources) {
-            for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
-                if (isResourceMapMatches(request, resourceMethod)) {
-                    logger.debug("Match complete: " + resourceMethod.getClass().toString());
-                    routingCache.put(cacheKey, resourceMethod);
-                    return resourceMethod;
-                }
+        if (route == null) {
+            route = getRouteTree(packageName).findRoute(pathTemplate, method.name());
+            if (route == null) {
+                routingCache.putMiss(packageName, pathTemplate, method);
+                return RouteMatch.NOT_FOUND;
             }
+            routingCache.put(packageName, pathTemplate, method, route);
         }
 
-        throw new NotFoundException();
+        RouteMatch match = route.match(request);
+        LazyLog.debug(logger, () -> "Match complete: " + match);
+        if (match.isMatched()) {
+            route.bindPathParameters(request, match);
+        }
+        return match;
     }
 }
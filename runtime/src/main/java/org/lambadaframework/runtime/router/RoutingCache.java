@@ -0,0 +1,154 @@
+package org.lambadaframework.runtime.router;
+
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.router.types.ConsumedTypes;
+import org.lambadaframework.runtime.router.types.ProducedTypes;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free cache of routing results.
+ * <p>
+ * Routes are cached instead of resource methods, because the method is selected by content negotiation
+ * which depends on the headers of every request.
+ * <p>
+ * The cache is direct-mapped: a request maps to exactly one slot by the hash of its package,
+ * path template and method, and a new entry evicts whatever was in its slot. Entries keep the full key
+ * and it is compared on every lookup, so no key object is allocated per request and collisions are only misses.
+ * <p>
+ * Misses are cached too, so repeated requests to unknown paths do not walk the route tree again.
+ * A miss never evicts a found route, so random paths can not push the real routes out of the cache.
+ * <p>
+ * Size is read from LAMBADA_ROUTING_CACHE_SIZE (rounded up to a power of two, 0 disables the cache),
+ * caching misses can be disabled by setting LAMBADA_ROUTING_CACHE_MISSES to false.
+ */
+public final class RoutingCache {
+
+    public static final String SIZE_ENVIRONMENT_VARIABLE = "LAMBADA_ROUTING_CACHE_SIZE";
+
+    public static final String MISSES_ENVIRONMENT_VARIABLE = "LAMBADA_ROUTING_CACHE_MISSES";
+
+    public static final int DEFAULT_SIZE = 1024;
+
+    private static final int MAXIMUM_SIZE = 1 << 20;
+
+    /**
+     * Route of a cached miss, it does not have any resource methods
+     */
+    public static final Route MISS = new Route(Collections.emptyList(), new ConsumedTypes(), new ProducedTypes());
+
+    private static final class Entry {
+
+        final String packageName;
+
+        final String pathTemplate;
+
+        final Request.RequestMethod method;
+
+        final Route route;
+
+        Entry(String packageName, String pathTemplate, Request.RequestMethod method, Route route) {
+            this.packageName = packageName;
+            this.pathTemplate = pathTemplate;
+            this.method = method;
+            this.route = route;
+        }
+
+        boolean matches(String packageName, String pathTemplate, Request.RequestMethod method) {
+            return this.method == method
+                    && this.pathTemplate.equals(pathTemplate)
+                    && this.packageName.equals(packageName);
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+
+    private final int mask;
+
+    private final boolean cacheMisses;
+
+    /**
+     * @param size        Number of slots, rounded up to a power of two. 0 disables the cache
+     * @param cacheMisses Whether misses are cached
+     */
+    public RoutingCache(int size, boolean cacheMisses) {
+        int capacity = size <= 0 ? 0 : Integer.highestOneBit(Math.min(Math.max(size, 2), MAXIMUM_SIZE) * 2 - 1);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.cacheMisses = cacheMisses;
+    }
+
+    /**
+     * Creates the cache configured by the environment variables
+     *
+     * @return Routing cache
+     */
+    public static RoutingCache fromEnvironment() {
+        int size = DEFAULT_SIZE;
+        String configuredSize = System.getenv(SIZE_ENVIRONMENT_VARIABLE);
+        if (configuredSize != null) {
+            try {
+                size = Integer.parseInt(configuredSize.trim());
+            } catch (NumberFormatException e) {
+                Router.logger.warn(SIZE_ENVIRONMENT_VARIABLE + " is not a number, using " + DEFAULT_SIZE);
+            }
+        }
+
+        return new RoutingCache(size, !"false".equalsIgnoreCase(System.getenv(MISSES_ENVIRONMENT_VARIABLE)));
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private int slot(String packageName, String pathTemplate, Request.RequestMethod method) {
+        int hash = (packageName.hashCode() * 31 + pathTemplate.hashCode()) * 31 + method.ordinal();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Gets the cached route
+     *
+     * @param packageName  Package name
+     * @param pathTemplate Path template
+     * @param method       HTTP method
+     * @return Route, {@link #MISS} if the request is cached as a miss, null if the request is not cached
+     */
+    public Route get(String packageName, String pathTemplate, Request.RequestMethod method) {
+        if (mask < 0) {
+            return null;
+        }
+        Entry entry = slots.get(slot(packageName, pathTemplate, method));
+        if (entry == null || !entry.matches(packageName, pathTemplate, method)) {
+            return null;
+        }
+        return entry.route;
+    }
+
+    public void put(String packageName, String pathTemplate, Request.RequestMethod method, Route route) {
+        if (mask < 0) {
+            return;
+        }
+        slots.set(slot(packageName, pathTemplate, method), new Entry(packageName, pathTemplate, method, route));
+    }
+
+    public void putMiss(String packageName, String pathTemplate, Request.RequestMethod method) {
+        if (mask < 0 || !cacheMisses) {
+            return;
+        }
+
+        int slot = slot(packageName, pathTemplate, method);
+        Entry current = slots.get(slot);
+        if (current != null && current.route != MISS) {
+            return;
+        }
+        slots.compareAndSet(slot, current, new Entry(packageName, pathTemplate, method, MISS));
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+}
@@ -4,10 +4,28 @@ package org.lambadaframework.runtime.router.types;
 import org.lambadaframework.jaxrs.model.ResourceMethod;
 import org.lambadaframework.runtime.models.Request;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+
+/**
+ * Matches the media type of the request body with @Consumes of the resource method
+ */
 public class ConsumedTypes implements RouterType {
+
+    private final Map<ResourceMethod, MediaTypeTable> tables = new ConcurrentHashMap<>();
+
+    /**
+     * @param resourceMethod Resource method
+     * @return Compiled consumed types of the method
+     */
+    public MediaTypeTable getTable(ResourceMethod resourceMethod) {
+        return tables.computeIfAbsent(resourceMethod, key -> new MediaTypeTable(key.getConsumedTypes()));
+    }
+
     @Override
     public boolean isMatching(Request request, ResourceMethod resourceMethod) {
-        return resourceMethod.getConsumedTypes().contains(request.getConsumedMediaType());
+        return request.getConsumedMediaType() == null
+                || getTable(resourceMethod).matches(MediaRange.of(request.getConsumedMediaType()));
     }
 }
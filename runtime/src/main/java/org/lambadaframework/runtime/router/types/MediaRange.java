@@ -0,0 +1,207 @@
+package org.lambadaframework.runtime.router.types;
+
+import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Media type of a Content-Type header or one element of an Accept header.
+ * <p>
+ * Type and subtype are lower case and the parameters are dropped, so a range can be looked up
+ * in a {@link MediaTypeTable} without allocating. Clients send the same few header values over and over,
+ * so parsed headers are cached by their raw value.
+ */
+public final class MediaRange {
+
+    private static final String WILDCARD = MediaType.MEDIA_TYPE_WILDCARD;
+
+    private static final int MAXIMUM_CACHED_HEADERS = 256;
+
+    private static final Map<String, MediaRange[]> parsedAcceptHeaders = new ConcurrentHashMap<>();
+
+    private static final Map<String, MediaRange> parsedContentTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Accept header of a request that does not send one
+     */
+    public static final MediaRange[] ACCEPT_ALL = {new MediaRange(WILDCARD, WILDCARD, 1f)};
+
+    /**
+     * Most preferred ranges first, more specific ranges first among equally preferred ones
+     */
+    private static final Comparator<MediaRange> PREFERENCE = Comparator
+            .comparingDouble((MediaRange range) -> range.quality).reversed()
+            .thenComparing(Comparator.comparingInt((MediaRange range) -> range.specificity).reversed());
+
+    private final String type;
+
+    private final String subtype;
+
+    private final String key;
+
+    private final float quality;
+
+    private final int specificity;
+
+    private final MediaType mediaType;
+
+    MediaRange(String type, String subtype, float quality) {
+        this.type = type.toLowerCase(Locale.ROOT);
+        this.subtype = subtype.toLowerCase(Locale.ROOT);
+        this.key = this.type + '/' + this.subtype;
+        this.quality = quality;
+        this.specificity = WILDCARD.equals(this.type) ? 0 : WILDCARD.equals(this.subtype) ? 1 : 2;
+        this.mediaType = new MediaType(this.type, this.subtype);
+    }
+
+    /**
+     * @param mediaType Media type
+     * @return Range of the media type with quality 1
+     */
+    public static MediaRange of(MediaType mediaType) {
+        return new MediaRange(mediaType.getType(), mediaType.getSubtype(), 1f);
+    }
+
+    /**
+     * Parses a Content-Type header
+     *
+     * @param header Header value
+     * @return Media range, null if the header is missing or invalid
+     */
+    public static MediaRange parseContentType(String header) {
+        if (header == null) {
+            return null;
+        }
+
+        MediaRange contentType = parsedContentTypes.get(header);
+        if (contentType == null) {
+            contentType = parse(header);
+            if (contentType != null && parsedContentTypes.size() < MAXIMUM_CACHED_HEADERS) {
+                parsedContentTypes.put(header, contentType);
+            }
+        }
+        return contentType;
+    }
+
+    /**
+     * Parses an Accept header, invalid elements are skipped
+     *
+     * @param header Header value
+     * @return Media ranges in order of preference, {@link #ACCEPT_ALL} if the header is missing or empty
+     */
+    public static MediaRange[] parseAccept(String header) {
+        if (header == null) {
+            return ACCEPT_ALL;
+        }
+
+        MediaRange[] ranges = parsedAcceptHeaders.get(header);
+        if (ranges != null) {
+            return ranges;
+        }
+
+        List<MediaRange> parsedRanges = new ArrayList<>();
+        for (String element : header.split(",")) {
+            MediaRange range = parse(element);
+            if (range != null) {
+                parsedRanges.add(range);
+            }
+        }
+        parsedRanges.sort(PREFERENCE);
+
+        ranges = parsedRanges.isEmpty() ? ACCEPT_ALL : parsedRanges.toArray(new MediaRange[parsedRanges.size()]);
+        if (parsedAcceptHeaders.size() < MAXIMUM_CACHED_HEADERS) {
+            parsedAcceptHeaders.put(header, ranges);
+        }
+        return ranges;
+    }
+
+    private static MediaRange parse(String value) {
+        String[] parts = value.split(";");
+        String fullType = parts[0].trim();
+        int slash = fullType.indexOf('/');
+
+        String type;
+        String subtype;
+        if (slash < 0) {
+            /**
+             * Some clients send a single * for any media type
+             */
+            if (!WILDCARD.equals(fullType)) {
+                return null;
+            }
+            type = WILDCARD;
+            subtype = WILDCARD;
+        } else {
+            type = fullType.substring(0, slash).trim();
+            subtype = fullType.substring(slash + 1).trim();
+        }
+
+        if (type.isEmpty() || subtype.isEmpty() || (WILDCARD.equals(type) && !WILDCARD.equals(subtype))) {
+            return null;
+        }
+
+        float quality = 1f;
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q') && parameter.charAt(1) == '=') {
+                try {
+                    quality = Math.max(0f, Math.min(1f, Float.parseFloat(parameter.substring(2).trim())));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+
+        return new MediaRange(type, subtype, quality);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getSubtype() {
+        return subtype;
+    }
+
+    /**
+     * @return Lower case type and subtype separated by a slash
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public float getQuality() {
+        return quality;
+    }
+
+    /**
+     * @return 2 for a concrete type, 1 for type/* and 0 for *&#47;*
+     */
+    public int getSpecificity() {
+        return specificity;
+    }
+
+    public boolean isWildcardType() {
+        return specificity == 0;
+    }
+
+    public boolean isWildcardSubtype() {
+        return specificity < 2;
+    }
+
+    /**
+     * @return Media type without parameters
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    @Override
+    public String toString() {
+        return quality == 1f ? key : key + ";q=" + quality;
+    }
+}
@@ -0,0 +1,164 @@
+package org.lambadaframework.runtime.router.types;
+
+import javax.ws.rs.core.MediaType;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Media types declared by @Consumes or @Produces of a resource method, compiled into hash tables.
+ * <p>
+ * Matching a {@link MediaRange} costs a few hash lookups no matter how many types are declared.
+ * A method without declared types, or with *&#47;*, accepts any media type as JAX-RS specifies.
+ */
+public final class MediaTypeTable {
+
+    private static final String WILDCARD = MediaType.MEDIA_TYPE_WILDCARD;
+
+    /**
+     * Response media type when neither the method nor the client names one
+     */
+    public static final MediaType DEFAULT_MEDIA_TYPE = MediaType.APPLICATION_JSON_TYPE;
+
+    /**
+     * Concrete declared types by their key
+     */
+    private final Map<String, MediaType> concreteTypes = new HashMap<>();
+
+    /**
+     * First concrete declared type of every type, for type/* ranges
+     */
+    private final Map<String, MediaType> firstConcreteTypes = new HashMap<>();
+
+    /**
+     * Types declared as type/*
+     */
+    private final Set<String> wildcardSubtypes = new HashSet<>();
+
+    private final boolean any;
+
+    /**
+     * First declared concrete type, returned for *&#47;* ranges
+     */
+    private final MediaType preferredType;
+
+    public MediaTypeTable(List<MediaType> mediaTypes) {
+        boolean any = mediaTypes == null || mediaTypes.isEmpty();
+        MediaType preferredType = null;
+
+        if (mediaTypes != null) {
+            for (MediaType mediaType : mediaTypes) {
+                MediaRange range = MediaRange.of(mediaType);
+                if (range.isWildcardType()) {
+                    any = true;
+                } else if (range.isWildcardSubtype()) {
+                    wildcardSubtypes.add(range.getType());
+                } else {
+                    concreteTypes.putIfAbsent(range.getKey(), range.getMediaType());
+                    firstConcreteTypes.putIfAbsent(range.getType(), range.getMediaType());
+                    if (preferredType == null) {
+                        preferredType = range.getMediaType();
+                    }
+                }
+            }
+        }
+
+        this.any = any;
+        this.preferredType = preferredType != null ? preferredType : DEFAULT_MEDIA_TYPE;
+    }
+
+    /**
+     * @return True if every media type matches
+     */
+    public boolean isAny() {
+        return any;
+    }
+
+    /**
+     * Checks whether a request body of the media type can be consumed
+     *
+     * @param contentType Content type of the request, null matches every table
+     * @return True if the media type is declared
+     */
+    public boolean matches(MediaRange contentType) {
+        if (any || contentType == null || contentType.isWildcardType()) {
+            return true;
+        }
+
+        if (wildcardSubtypes.contains(contentType.getType())) {
+            return true;
+        }
+
+        if (contentType.isWildcardSubtype()) {
+            return firstConcreteTypes.containsKey(contentType.getType());
+        }
+
+        return concreteTypes.containsKey(contentType.getKey());
+    }
+
+    /**
+     * How closely a matching request body media type is declared, methods declaring it more closely are preferred
+     *
+     * @param contentType Content type of the request
+     * @return 2 if the media type is declared, 1 if it is declared as type/*, 0 if it only matches any type
+     */
+    public int getSpecificity(MediaRange contentType) {
+        if (contentType == null) {
+            return 0;
+        }
+        if (concreteTypes.containsKey(contentType.getKey())) {
+            return 2;
+        }
+        return wildcardSubtypes.contains(contentType.getType()) ? 1 : 0;
+    }
+
+    /**
+     * How closely the media type {@link #select(MediaRange)} returns for the range is declared
+     *
+     * @param accepted Range from the Accept header that the table is compatible with
+     * @return 2 for a concrete declared type, 1 for a declared type/*, 0 if it only matches any type
+     */
+    public int getSelectedSpecificity(MediaRange accepted) {
+        if (accepted.isWildcardType()) {
+            return concreteTypes.isEmpty() ? 0 : 2;
+        }
+
+        if (accepted.isWildcardSubtype() ? firstConcreteTypes.containsKey(accepted.getType()) : concreteTypes.containsKey(accepted.getKey())) {
+            return 2;
+        }
+        return wildcardSubtypes.contains(accepted.getType()) ? 1 : 0;
+    }
+
+    /**
+     * Selects the media type of the response for an acceptable range
+     *
+     * @param accepted Range from the Accept header
+     * @return Declared media type compatible with the range, null if there is none.
+     * The range itself is returned if the method declares a wildcard and the range is concrete.
+     */
+    public MediaType select(MediaRange accepted) {
+        if (accepted.isWildcardType()) {
+            return preferredType;
+        }
+
+        if (accepted.isWildcardSubtype()) {
+            MediaType mediaType = firstConcreteTypes.get(accepted.getType());
+            if (mediaType != null) {
+                return mediaType;
+            }
+            if (any && DEFAULT_MEDIA_TYPE.getType().equals(accepted.getType())) {
+                return DEFAULT_MEDIA_TYPE;
+            }
+            return any || wildcardSubtypes.contains(accepted.getType()) ? accepted.getMediaType() : null;
+        }
+
+        MediaType mediaType = concreteTypes.get(accepted.getKey());
+        if (mediaType != null) {
+            return mediaType;
+        }
+
+        return any || wildcardSubtypes.contains(accepted.getType()) ? accepted.getMediaType() : null;
+    }
+}
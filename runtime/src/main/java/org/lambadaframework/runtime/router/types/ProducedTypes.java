@@ -4,9 +4,27 @@ package org.lambadaframework.runtime.router.types;
 import org.lambadaframework.jaxrs.model.ResourceMethod;
 import org.lambadaframework.runtime.models.Request;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matches the media type the client accepts with @Produces of the resource method
+ */
 public class ProducedTypes implements RouterType {
+
+    private final Map<ResourceMethod, MediaTypeTable> tables = new ConcurrentHashMap<>();
+
+    /**
+     * @param resourceMethod Resource method
+     * @return Compiled produced types of the method
+     */
+    public MediaTypeTable getTable(ResourceMethod resourceMethod) {
+        return tables.computeIfAbsent(resourceMethod, key -> new MediaTypeTable(key.getProducedTypes()));
+    }
+
     @Override
     public boolean isMatching(Request request, ResourceMethod resourceMethod) {
-        return resourceMethod.getProducedTypes().contains(request.getProducedMediaType());
+        return request.getProducedMediaType() == null
+                || getTable(resourceMethod).select(MediaRange.of(request.getProducedMediaType())) != null;
     }
 }
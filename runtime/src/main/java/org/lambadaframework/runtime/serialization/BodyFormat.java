@@ -0,0 +1,38 @@
+package org.lambadaframework.runtime.serialization;
+
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads request bodies and writes response entities of some media types.
+ * <p>
+ * Formats are selected by @Consumes and @Produces of the resource method and the negotiated media type.
+ * Implementations are discovered with {@link java.util.ServiceLoader}, so they should be listed in
+ * META-INF/services/org.lambadaframework.runtime.serialization.BodyFormat file of the project.
+ * They take precedence over the built-in formats.
+ */
+public interface BodyFormat {
+
+    /**
+     * @return Media types of the format
+     */
+    List<MediaType> getMediaTypes();
+
+    /**
+     * Binary bodies are sent base64 encoded in the Lambda event and the response
+     *
+     * @return True if the format is binary
+     */
+    boolean isBinary();
+
+    boolean isReadable(Class<?> type);
+
+    Object read(Class<?> type, byte[] body)
+            throws IOException;
+
+    boolean isWriteable(Class<?> type);
+
+    byte[] write(Object entity)
+            throws IOException;
+}
@@ -0,0 +1,163 @@
+package org.lambadaframework.runtime.serialization;
+
+import org.apache.log4j.Logger;
+import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.router.types.MediaRange;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the body formats by media type.
+ * <p>
+ * Formats registered with {@link java.util.ServiceLoader} come first, then the built-in formats:
+ * JSON, Smile and CBOR if their Jackson data format is in the class path, protocol buffers and octet stream.
+ * Structured syntax suffixes are supported, application/vnd.example+json is read as JSON.
+ */
+public final class BodyFormats {
+
+    static final Logger logger = Logger.getLogger(BodyFormats.class);
+
+    public static final MediaType SMILE_TYPE = new MediaType("application", "x-jackson-smile");
+
+    public static final MediaType CBOR_TYPE = new MediaType("application", "cbor");
+
+    private static final String JSON_KEY = MediaType.APPLICATION_JSON;
+
+    private BodyFormats() {
+    }
+
+    /**
+     * Holds the registry, it is created when it is first used
+     */
+    private static final class RegistryHolder {
+
+        private static final Map<String, BodyFormat> FORMATS = createRegistry();
+
+        private static Map<String, BodyFormat> createRegistry() {
+            List<BodyFormat> formats = new ArrayList<>();
+            for (BodyFormat format : ServiceLoader.load(BodyFormat.class, BodyFormats.class.getClassLoader())) {
+                logger.debug("Registering body format " + format.getClass().getName());
+                formats.add(format);
+            }
+
+            formats.add(new JacksonBodyFormat(MediaType.APPLICATION_JSON_TYPE, null));
+            addIfAvailable(formats, JacksonBodyFormat.ifAvailable(SMILE_TYPE, "com.fasterxml.jackson.dataformat.smile.SmileFactory"));
+            addIfAvailable(formats, JacksonBodyFormat.ifAvailable(CBOR_TYPE, "com.fasterxml.jackson.dataformat.cbor.CBORFactory"));
+            formats.add(new ProtobufBodyFormat());
+            formats.add(new OctetStreamBodyFormat());
+
+            Map<String, BodyFormat> registry = new HashMap<>();
+            for (BodyFormat format : formats) {
+                for (MediaType mediaType : format.getMediaTypes()) {
+                    registry.putIfAbsent(MediaRange.of(mediaType).getKey(), format);
+                }
+            }
+            return registry;
+        }
+
+        private static void addIfAvailable(List<BodyFormat> formats, BodyFormat format) {
+            if (format != null) {
+                formats.add(format);
+            }
+        }
+    }
+
+    /**
+     * Gets the format of the media type
+     *
+     * @param mediaType Media type
+     * @return Body format, null if no format is registered for the media type
+     */
+    public static BodyFormat getFormat(MediaRange mediaType) {
+        if (mediaType == null || mediaType.isWildcardSubtype()) {
+            return null;
+        }
+
+        BodyFormat format = RegistryHolder.FORMATS.get(mediaType.getKey());
+        if (format != null) {
+            return format;
+        }
+
+        int suffix = mediaType.getSubtype().lastIndexOf('+');
+        if (suffix < 0) {
+            return null;
+        }
+        return RegistryHolder.FORMATS.get("application/" + mediaType.getSubtype().substring(suffix + 1));
+    }
+
+    public static BodyFormat getFormat(MediaType mediaType) {
+        return mediaType == null ? null : getFormat(MediaRange.of(mediaType));
+    }
+
+    /**
+     * @param mediaType Media type
+     * @return True if the media type is application/json or has +json suffix
+     */
+    public static boolean isJson(MediaRange mediaType) {
+        return mediaType != null
+                && (JSON_KEY.equals(mediaType.getKey())
+                || ("application".equals(mediaType.getType()) && mediaType.getSubtype().endsWith("+json")));
+    }
+
+    /**
+     * Gets the bytes of a request body
+     *
+     * @param body          Request body from the event
+     * @param base64Encoded Whether the event says the body is base64 encoded
+     * @param format        Format of the body
+     * @return Body bytes, binary formats are always base64 encoded
+     */
+    public static byte[] decode(String body, boolean base64Encoded, BodyFormat format) {
+        if (body == null) {
+            return new byte[0];
+        }
+        if (base64Encoded || format.isBinary()) {
+            return Base64.getMimeDecoder().decode(body);
+        }
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the entity of the response in the format of its Content-Type.
+     * <p>
+     * JSON entities are left as objects, Lambda runtime serializes them with the response.
+     * Binary formats are written as base64 strings and the response is marked as base64 encoded.
+     *
+     * @param response Response with Content-Type header set
+     * @return The response
+     * @throws IOException If the entity can not be written
+     */
+    public static Response writeEntity(Response response)
+            throws IOException {
+
+        Object entity = response.getEntity();
+        if (entity == null || entity instanceof String) {
+            return response;
+        }
+
+        MediaRange contentType = MediaRange.parseContentType(response.getHeader(HttpHeaders.CONTENT_TYPE));
+        if (contentType == null || isJson(contentType)) {
+            return response;
+        }
+
+        BodyFormat format = getFormat(contentType);
+        if (format == null || !format.isWriteable(entity.getClass())) {
+            return response;
+        }
+
+        byte[] body = format.write(entity);
+        if (format.isBinary()) {
+            return response.setEntity(Base64.getEncoder().encodeToString(body)).setIsBase64Encoded(true);
+        }
+        return response.setEntity(new String(body, StandardCharsets.UTF_8));
+    }
+}
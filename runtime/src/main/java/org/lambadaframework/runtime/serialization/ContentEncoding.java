@@ -0,0 +1,258 @@
+package org.lambadaframework.runtime.serialization;
+
+import org.apache.log4j.Logger;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.models.Response;
+
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses response entities with the encoding negotiated from the Accept-Encoding header.
+ * <p>
+ * gzip and deflate are supported, gzip wins when the client accepts both equally. Entities smaller than
+ * the minimum size, or that do not get smaller, are left as they are. Compressed entities are returned
+ * base64 encoded with Content-Encoding and Vary headers set, so API Gateway can pass them through as binary.
+ * <p>
+ * Compression is disabled unless the minimum size in bytes is set in LAMBADA_COMPRESSION_MIN_SIZE,
+ * a negative value disables it too. Only the proxy integration compresses responses: mapping templates
+ * of the AWS integration neither decode binary entities nor map the Content-Encoding header.
+ * Brotli is not supported because the JDK has no encoder for it, br in Accept-Encoding is ignored.
+ */
+public final class ContentEncoding {
+
+    static final Logger logger = Logger.getLogger(ContentEncoding.class);
+
+    public static final String MIN_SIZE_ENVIRONMENT_VARIABLE = "LAMBADA_COMPRESSION_MIN_SIZE";
+
+    /**
+     * Minimum size that disables compression
+     */
+    public static final int DISABLED = -1;
+
+    public static final String GZIP = "gzip";
+
+    public static final String DEFLATE = "deflate";
+
+    private static final String IDENTITY = "identity";
+
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private static final String VARY = "Vary";
+
+    private static final int POOL_SIZE = 8;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int MAXIMUM_CACHED_HEADERS = 256;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    /**
+     * Negotiated encodings by Accept-Encoding header, identity if the client accepts neither gzip nor deflate
+     */
+    private static final Map<String, String> negotiatedEncodings = new ConcurrentHashMap<>();
+
+    private final int minimumSize;
+
+    private final DeflaterPool gzipDeflaters = new DeflaterPool(POOL_SIZE, Deflater.DEFAULT_COMPRESSION, true);
+
+    private final DeflaterPool zlibDeflaters = new DeflaterPool(POOL_SIZE, Deflater.DEFAULT_COMPRESSION, false);
+
+    /**
+     * @param minimumSize Minimum entity size in bytes to compress, negative disables compression
+     */
+    public ContentEncoding(int minimumSize) {
+        this.minimumSize = minimumSize;
+    }
+
+    /**
+     * Creates the stage configured by the environment variable
+     *
+     * @return Content encoding
+     */
+    public static ContentEncoding fromEnvironment() {
+        int minimumSize = DISABLED;
+        String configuredSize = System.getenv(MIN_SIZE_ENVIRONMENT_VARIABLE);
+        if (configuredSize != null) {
+            try {
+                minimumSize = Integer.parseInt(configuredSize.trim());
+            } catch (NumberFormatException e) {
+                logger.warn(MIN_SIZE_ENVIRONMENT_VARIABLE + " is not a number, compression is disabled");
+            }
+        }
+        return new ContentEncoding(minimumSize);
+    }
+
+    public boolean isEnabled() {
+        return minimumSize >= 0;
+    }
+
+    /**
+     * Negotiates the encoding
+     *
+     * @param acceptEncoding Accept-Encoding header
+     * @return gzip, deflate or null if the response should not be compressed
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+
+        String encoding = negotiatedEncodings.get(acceptEncoding);
+        if (encoding == null) {
+            encoding = parse(acceptEncoding);
+            if (negotiatedEncodings.size() < MAXIMUM_CACHED_HEADERS) {
+                negotiatedEncodings.put(acceptEncoding, encoding);
+            }
+        }
+        return IDENTITY.equals(encoding) ? null : encoding;
+    }
+
+    private static String parse(String acceptEncoding) {
+        float gzip = -1f;
+        float deflate = -1f;
+        float wildcard = -1f;
+
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            float quality = 1f;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Float.parseFloat(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0f;
+                    }
+                }
+            }
+
+            if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+                gzip = quality;
+            } else if (DEFLATE.equals(coding)) {
+                deflate = quality;
+            } else if ("*".equals(coding)) {
+                wildcard = quality;
+            }
+        }
+
+        if (gzip < 0f) {
+            gzip = wildcard;
+        }
+        if (deflate < 0f) {
+            deflate = wildcard;
+        }
+
+        if (gzip > 0f && gzip >= deflate) {
+            return GZIP;
+        }
+        if (deflate > 0f) {
+            return DEFLATE;
+        }
+        return IDENTITY;
+    }
+
+    /**
+     * Compresses the entity of the response if the client accepts a supported encoding
+     *
+     * @param request  Request
+     * @param response Response whose entity is already written by its body format
+     * @return The response
+     * @throws IOException If the entity can not be serialized
+     */
+    public Response encode(Request request, Response response)
+            throws IOException {
+
+        if (minimumSize < 0 || response.getEntity() == null || response.getHeader(CONTENT_ENCODING) != null) {
+            return response;
+        }
+
+        String encoding = negotiate(request.getHeader(ACCEPT_ENCODING));
+        if (encoding == null) {
+            return response;
+        }
+
+        byte[] body = getBody(response);
+        if (body.length < minimumSize) {
+            return response;
+        }
+
+        byte[] compressed = compress(body, encoding);
+        if (compressed.length >= body.length) {
+            return response;
+        }
+
+        if (!(response.getEntity() instanceof String)) {
+            response.setDefaultContentType(MediaType.APPLICATION_JSON_TYPE);
+        }
+
+        return response
+                .setEntity(Base64.getEncoder().encodeToString(compressed))
+                .setIsBase64Encoded(true)
+                .setHeader(CONTENT_ENCODING, encoding)
+                .setHeader(VARY, ACCEPT_ENCODING);
+    }
+
+    private static byte[] getBody(Response response)
+            throws IOException {
+        Object entity = response.getEntity();
+        if (entity instanceof String) {
+            return response.getIsBase64Encoded()
+                    ? Base64.getDecoder().decode((String) entity)
+                    : ((String) entity).getBytes(StandardCharsets.UTF_8);
+        }
+        return JsonSerialization.writer(entity.getClass()).writeValueAsBytes(entity);
+    }
+
+    byte[] compress(byte[] body, String encoding) {
+        boolean gzip = GZIP.equals(encoding);
+        DeflaterPool pool = gzip ? gzipDeflaters : zlibDeflaters;
+        Deflater deflater = pool.acquire();
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+            if (gzip) {
+                output.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+
+            deflater.setInput(body);
+            deflater.finish();
+            byte[] buffer = new byte[Math.min(BUFFER_SIZE, body.length + 64)];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+
+            if (gzip) {
+                CRC32 crc = new CRC32();
+                crc.update(body, 0, body.length);
+                writeIntLittleEndian(output, (int) crc.getValue());
+                writeIntLittleEndian(output, body.length);
+            }
+            return output.toByteArray();
+        } finally {
+            pool.release(deflater);
+        }
+    }
+
+    private static void writeIntLittleEndian(ByteArrayOutputStream output, int value) {
+        output.write(value);
+        output.write(value >>> 8);
+        output.write(value >>> 16);
+        output.write(value >>> 24);
+    }
+
+    DeflaterPool getPool(String encoding) {
+        return GZIP.equals(encoding) ? gzipDeflaters : zlibDeflaters;
+    }
+}
@@ -0,0 +1,46 @@
+package org.lambadaframework.runtime.serialization;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Bounded pool of deflaters.
+ * <p>
+ * A deflater holds native memory that is freed only by end() or finalization, so creating one for every
+ * response leaks native memory until the next GC. Pooled deflaters are reset and reused instead.
+ */
+final class DeflaterPool {
+
+    private final ArrayBlockingQueue<Deflater> deflaters;
+
+    private final int level;
+
+    private final boolean nowrap;
+
+    /**
+     * @param size   Maximum number of idle deflaters
+     * @param level  Compression level
+     * @param nowrap True for raw deflate data (gzip), false for zlib format (HTTP deflate)
+     */
+    DeflaterPool(int size, int level, boolean nowrap) {
+        this.deflaters = new ArrayBlockingQueue<>(size);
+        this.level = level;
+        this.nowrap = nowrap;
+    }
+
+    Deflater acquire() {
+        Deflater deflater = deflaters.poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    int idle() {
+        return deflaters.size();
+    }
+}
@@ -0,0 +1,122 @@
+package org.lambadaframework.runtime.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Body format of a Jackson data format, such as JSON, Smile or CBOR.
+ * <p>
+ * Binary data formats are optional dependencies, their factories are loaded by name
+ * so the runtime does not depend on them. The object mapper is created on first use
+ * and configured by the same customizers as the JSON object mapper.
+ */
+final class JacksonBodyFormat implements BodyFormat {
+
+    private final List<MediaType> mediaTypes;
+
+    private final boolean binary;
+
+    private final String factoryClassName;
+
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private volatile ObjectMapper objectMapper;
+
+    /**
+     * @param mediaType        Media type of the format
+     * @param factoryClassName JsonFactory subclass of the data format, null for JSON
+     */
+    JacksonBodyFormat(MediaType mediaType, String factoryClassName) {
+        this.mediaTypes = Collections.singletonList(mediaType);
+        this.binary = factoryClassName != null;
+        this.factoryClassName = factoryClassName;
+    }
+
+    /**
+     * @param mediaType        Media type of the format
+     * @param factoryClassName JsonFactory subclass of the data format
+     * @return Body format, null if the data format is not in the class path
+     */
+    static JacksonBodyFormat ifAvailable(MediaType mediaType, String factoryClassName) {
+        try {
+            Class.forName(factoryClassName, false, JacksonBodyFormat.class.getClassLoader());
+            return new JacksonBodyFormat(mediaType, factoryClassName);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private ObjectMapper getObjectMapper() {
+        if (factoryClassName == null) {
+            return JsonSerialization.getObjectMapper();
+        }
+
+        ObjectMapper objectMapper = this.objectMapper;
+        if (objectMapper == null) {
+            synchronized (this) {
+                objectMapper = this.objectMapper;
+                if (objectMapper == null) {
+                    try {
+                        JsonFactory jsonFactory = (JsonFactory) Class.forName(factoryClassName, true, JacksonBodyFormat.class.getClassLoader())
+                                .getDeclaredConstructor()
+                                .newInstance();
+                        objectMapper = JsonSerialization.newObjectMapper(jsonFactory);
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException("Could not create " + factoryClassName, e);
+                    }
+                    this.objectMapper = objectMapper;
+                }
+            }
+        }
+        return objectMapper;
+    }
+
+    @Override
+    public List<MediaType> getMediaTypes() {
+        return mediaTypes;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return binary;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type) {
+        return true;
+    }
+
+    @Override
+    public Object read(Class<?> type, byte[] body)
+            throws IOException {
+        if (factoryClassName == null) {
+            return JsonSerialization.reader(type).readValue(body);
+        }
+        return readers.computeIfAbsent(type, key -> getObjectMapper().readerFor(key)).readValue(body);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type) {
+        return true;
+    }
+
+    @Override
+    public byte[] write(Object entity)
+            throws IOException {
+        if (factoryClassName == null) {
+            return JsonSerialization.writer(entity.getClass()).writeValueAsBytes(entity);
+        }
+        return writers.computeIfAbsent(entity.getClass(), key -> getObjectMapper().writerFor(key)).writeValueAsBytes(entity);
+    }
+}
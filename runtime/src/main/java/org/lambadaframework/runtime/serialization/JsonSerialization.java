@@ -0,0 +1,94 @@
+package org.lambadaframework.runtime.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.log4j.Logger;
+import org.lambadaframework.runtime.startup.StartupTimeline;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runtime-wide JSON serialization.
+ * <p>
+ * ObjectMapper is created and configured only once per container. Readers and writers
+ * are cached per type, so Jackson's serializer caches survive between invocations.
+ */
+public final class JsonSerialization {
+
+    static final Logger logger = Logger.getLogger(JsonSerialization.class);
+
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private JsonSerialization() {
+    }
+
+    /**
+     * Holds the object mapper, it is created when it is first used
+     */
+    private static final class ObjectMapperHolder {
+
+        private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+
+        private static ObjectMapper createObjectMapper() {
+            long started = StartupTimeline.start();
+            ObjectMapper objectMapper = newObjectMapper(new JsonFactory());
+            StartupTimeline.record(StartupTimeline.Phase.JSON_INITIALIZATION, started);
+            return objectMapper;
+        }
+    }
+
+    /**
+     * Creates an object mapper of the data format, customized by the registered customizers
+     *
+     * @param jsonFactory Factory of the data format
+     * @return Object mapper
+     */
+    static ObjectMapper newObjectMapper(JsonFactory jsonFactory) {
+        ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
+        for (ObjectMapperCustomizer customizer : ServiceLoader.load(ObjectMapperCustomizer.class, JsonSerialization.class.getClassLoader())) {
+            logger.debug("Customizing object mapper with " + customizer.getClass().getName());
+            customizer.customize(objectMapper);
+        }
+        return objectMapper;
+    }
+
+    public static ObjectMapper getObjectMapper() {
+        return ObjectMapperHolder.OBJECT_MAPPER;
+    }
+
+    /**
+     * Gets the reader of the type
+     *
+     * @param type Type to deserialize
+     * @return Object reader
+     */
+    public static ObjectReader reader(Class<?> type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = getObjectMapper().readerFor(type);
+            readers.put(type, reader);
+        }
+        return reader;
+    }
+
+    /**
+     * Gets the writer of the type
+     *
+     * @param type Type to serialize
+     * @return Object writer
+     */
+    public static ObjectWriter writer(Class<?> type) {
+        ObjectWriter writer = writers.get(type);
+        if (writer == null) {
+            writer = getObjectMapper().writerFor(type);
+            writers.put(type, writer);
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,15 @@
+package org.lambadaframework.runtime.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Customizes the object mapper used by the runtime.
+ * <p>
+ * Implementations are discovered with {@link java.util.ServiceLoader}, so they should be listed in
+ * META-INF/services/org.lambadaframework.runtime.serialization.ObjectMapperCustomizer file of the project.
+ * They are a good place to register modules such as Afterburner or Blackbird.
+ */
+public interface ObjectMapperCustomizer {
+
+    void customize(ObjectMapper objectMapper);
+}
@@ -0,0 +1,48 @@
+package org.lambadaframework.runtime.serialization;
+
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Body format of raw binary bodies, bound to byte array parameters and entities
+ */
+final class OctetStreamBodyFormat implements BodyFormat {
+
+    private static final List<MediaType> MEDIA_TYPES = Collections.singletonList(MediaType.APPLICATION_OCTET_STREAM_TYPE);
+
+    @Override
+    public List<MediaType> getMediaTypes() {
+        return MEDIA_TYPES;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type) {
+        return type == byte[].class;
+    }
+
+    @Override
+    public Object read(Class<?> type, byte[] body) {
+        return body;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type) {
+        return type == byte[].class;
+    }
+
+    @Override
+    public byte[] write(Object entity)
+            throws IOException {
+        if (!(entity instanceof byte[])) {
+            throw new IOException(entity.getClass().getName() + " can not be written as " + MediaType.APPLICATION_OCTET_STREAM);
+        }
+        return (byte[]) entity;
+    }
+}
@@ -0,0 +1,102 @@
+package org.lambadaframework.runtime.serialization;
+
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Body format of protocol buffers messages.
+ * <p>
+ * Generated message classes are used through their static parseFrom(byte[]) and toByteArray() methods,
+ * so the runtime does not depend on the protobuf library. Method handles are looked up once per class.
+ */
+final class ProtobufBodyFormat implements BodyFormat {
+
+    private static final List<MediaType> MEDIA_TYPES = Arrays.asList(
+            new MediaType("application", "x-protobuf"),
+            new MediaType("application", "protobuf"),
+            new MediaType("application", "vnd.google.protobuf")
+    );
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private static final ClassValue<MethodHandle> parsers = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                return LOOKUP.findStatic(type, "parseFrom", MethodType.methodType(type, byte[].class))
+                        .asType(MethodType.methodType(Object.class, byte[].class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return null;
+            }
+        }
+    };
+
+    private static final ClassValue<MethodHandle> serializers = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                return LOOKUP.findVirtual(type, "toByteArray", MethodType.methodType(byte[].class))
+                        .asType(MethodType.methodType(byte[].class, Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return null;
+            }
+        }
+    };
+
+    @Override
+    public List<MediaType> getMediaTypes() {
+        return MEDIA_TYPES;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type) {
+        return parsers.get(type) != null;
+    }
+
+    @Override
+    public Object read(Class<?> type, byte[] body)
+            throws IOException {
+        MethodHandle parser = parsers.get(type);
+        if (parser == null) {
+            throw new IOException(type.getName() + " is not a protocol buffers message");
+        }
+        try {
+            return (Object) parser.invokeExact(body);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new IOException("Could not parse " + type.getName(), throwable);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type) {
+        return serializers.get(type) != null;
+    }
+
+    @Override
+    public byte[] write(Object entity)
+            throws IOException {
+        MethodHandle serializer = serializers.get(entity.getClass());
+        if (serializer == null) {
+            throw new IOException(entity.getClass().getName() + " is not a protocol buffers message");
+        }
+        try {
+            return (byte[]) serializer.invokeExact(entity);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new IOException("Could not write " + entity.getClass().getName(), throwable);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.lambadaframework.runtime.serialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.lambadaframework.runtime.binding.BoundParameters;
+import org.lambadaframework.runtime.models.Parameters;
+import org.lambadaframework.runtime.models.Request;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the Lambda event into a Request with a streaming parser.
+ * <p>
+ * Field names are matched case-insensitively because API Gateway mapping templates send them in lowercase.
+ * If the request body is a JSON value rather than an escaped string, its tokens are buffered
+ * and bound directly to the handler parameter without building an intermediate string.
+ * <p>
+ * Parameters and headers are read into compact {@link Parameters} maps. Once the route tree of the package
+ * is compiled, query parameters and headers that no resource method binds are skipped. This needs the package
+ * field to come before them, as it does in the mapping template of the maven plugin.
+ */
+public final class RequestReader {
+
+    private RequestReader() {
+    }
+
+    public static Request read(InputStream inputStream)
+            throws IOException {
+
+        Request request = new Request();
+        BoundParameters boundParameters = null;
+
+        try (JsonParser parser = JsonSerialization.getObjectMapper().getFactory().createParser(inputStream)) {
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Event should be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+
+                if (valueToken == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+
+                if ("package".equalsIgnoreCase(fieldName)) {
+                    request.setPackage(parser.getText());
+                    boundParameters = BoundParameters.forPackage(request.getPackage());
+                } else if ("pathTemplate".equalsIgnoreCase(fieldName)) {
+                    request.setPathtemplate(parser.getText());
+                } else if ("method".equalsIgnoreCase(fieldName)) {
+                    request.setMethod(Request.RequestMethod.fromName(parser.getText()));
+                } else if ("requestBody".equalsIgnoreCase(fieldName)) {
+                    readRequestBody(parser, request);
+                } else if ("isBase64Encoded".equalsIgnoreCase(fieldName)) {
+                    request.setIsbase64encoded(valueToken == JsonToken.VALUE_TRUE || "true".equalsIgnoreCase(parser.getText()));
+                } else if ("path".equalsIgnoreCase(fieldName)) {
+                    request.setPath(readParameters(parser, Parameters.caseSensitive(), null, false));
+                } else if ("querystring".equalsIgnoreCase(fieldName)) {
+                    request.setQuerystring(readParameters(parser, Parameters.caseSensitive(), boundParameters, false));
+                } else if ("header".equalsIgnoreCase(fieldName)) {
+                    request.setHeader(readParameters(parser, Parameters.caseInsensitive(), boundParameters, true));
+                } else if ("consumes".equalsIgnoreCase(fieldName)) {
+                    request.setConsumes(parser.getText());
+                } else if ("produces".equalsIgnoreCase(fieldName)) {
+                    request.setProduces(parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return request;
+    }
+
+    private static void readRequestBody(JsonParser parser, Request request)
+            throws IOException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+            request.setRequestbody(parser.getText());
+            return;
+        }
+
+        TokenBuffer tokens = new TokenBuffer(parser);
+        tokens.copyCurrentStructure(parser);
+        request.setRequestBodyTokens(tokens);
+    }
+
+    /**
+     * @param parameters      Map to fill
+     * @param boundParameters Bound names of the package, null to keep every parameter
+     * @param headers         Whether the parameters are headers
+     */
+    private static Parameters readParameters(JsonParser parser, Parameters parameters, BoundParameters boundParameters, boolean headers)
+            throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken valueToken = parser.nextToken();
+            if (!valueToken.isScalarValue() || !isBound(boundParameters, name, headers)) {
+                parser.skipChildren();
+                continue;
+            }
+            parameters.put(name, valueToken == JsonToken.VALUE_NULL ? null : parser.getText());
+        }
+        return parameters;
+    }
+
+    private static boolean isBound(BoundParameters boundParameters, String name, boolean header) {
+        if (boundParameters == null) {
+            return true;
+        }
+        return header ? boundParameters.isHeaderBound(name) : boundParameters.isQueryParameterBound(name);
+    }
+}
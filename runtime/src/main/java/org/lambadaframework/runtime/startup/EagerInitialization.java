@@ -0,0 +1,69 @@
+package org.lambadaframework.runtime.startup;
+
+import org.apache.log4j.Logger;
+import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.router.Route;
+import org.lambadaframework.runtime.router.RouteMatch;
+import org.lambadaframework.runtime.router.Router;
+import org.lambadaframework.runtime.serialization.JsonSerialization;
+
+import java.util.List;
+
+/**
+ * Does the work of the first request during the Lambda init phase.
+ * <p>
+ * If LAMBADA_EAGER_INIT_PACKAGE is set to the package of the resources, the package is scanned,
+ * its routes are compiled, Jackson is initialized, and the invocation plans of all resource methods are compiled
+ * when the handler class is loaded. If any method has constraints, the Bean Validation provider is bootstrapped
+ * with the routes. Resource classes are not instantiated.
+ * <p>
+ * Failures are only logged, the first request then does the remaining work.
+ */
+public final class EagerInitialization {
+
+    static final Logger logger = Logger.getLogger(EagerInitialization.class);
+
+    public static final String PACKAGE_ENVIRONMENT_VARIABLE = "LAMBADA_EAGER_INIT_PACKAGE";
+
+    private EagerInitialization() {
+    }
+
+    /**
+     * Initializes the package in LAMBADA_EAGER_INIT_PACKAGE, if it is set
+     */
+    public static void initializeFromEnvironment() {
+        String packageName = System.getenv(PACKAGE_ENVIRONMENT_VARIABLE);
+        if (packageName != null && !packageName.trim().isEmpty()) {
+            initialize(packageName.trim());
+        }
+    }
+
+    /**
+     * Initializes the runtime for the package
+     *
+     * @param packageName Package of the resources
+     * @return True if everything is initialized
+     */
+    public static boolean initialize(String packageName) {
+        try {
+            JsonSerialization.writer(Response.class);
+
+            List<Route> routes = Router.getRouter().prepare(packageName);
+            for (Route route : routes) {
+                for (RouteMatch routeMatch : route.getMatches()) {
+                    try {
+                        routeMatch.getInvocationPlan();
+                    } catch (IllegalAccessException | InstantiationException e) {
+                        logger.debug("Resource method could not be prepared: " + routeMatch.getResourceMethod(), e);
+                    }
+                }
+            }
+
+            logger.debug(routes.size() + " routes are initialized eagerly.");
+            return true;
+        } catch (Exception | LinkageError e) {
+            logger.warn("Eager initialization of " + packageName + " failed, it will be done on the first request.", e);
+            return false;
+        }
+    }
+}
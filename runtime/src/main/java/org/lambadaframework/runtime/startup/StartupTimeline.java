@@ -0,0 +1,197 @@
+package org.lambadaframework.runtime.startup;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cold start timeline of the container.
+ * <p>
+ * Every phase is recorded only once, the first time it runs, with monotonic nanosecond timestamps
+ * relative to the moment the runtime was loaded. JVM startup is the JVM uptime until then, which includes
+ * loading the handler classes, it is measured by the JVM in milliseconds.
+ * <p>
+ * The timeline is written once per container as a single JSON log line, after the first invocation.
+ * Without a logger it is dropped, but it is still marked as written.
+ */
+public final class StartupTimeline {
+
+    public enum Phase {
+        /**
+         * JVM uptime when the runtime is loaded, not only class loading
+         */
+        JVM_STARTUP,
+        RESOURCE_INDEX,
+        ROUTER_CONSTRUCTION,
+        /**
+         * Finding and loading the resource classes
+         */
+        RESOURCE_SCAN,
+        /**
+         * Building the resource model, from the route table of the resource index
+         * or by Jersey from the annotations of the scanned classes
+         */
+        RESOURCE_MODEL,
+        ROUTE_TREE,
+        JSON_INITIALIZATION,
+        FIRST_INVOCATION
+    }
+
+    private static final long NOT_RECORDED = -1;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    /**
+     * Origin of the timeline
+     */
+    private static final long ORIGIN = System.nanoTime();
+
+    private static final AtomicLongArray starts = new AtomicLongArray(PHASES.length);
+
+    private static final AtomicLongArray durations = new AtomicLongArray(PHASES.length);
+
+    private static final AtomicBoolean emitted = new AtomicBoolean();
+
+    static {
+        reset();
+    }
+
+    private StartupTimeline() {
+    }
+
+    static void reset() {
+        for (int i = 0; i < PHASES.length; i++) {
+            starts.set(i, NOT_RECORDED);
+            durations.set(i, NOT_RECORDED);
+        }
+        emitted.set(false);
+
+        long jvmUptime = TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+        starts.set(Phase.JVM_STARTUP.ordinal(), -jvmUptime);
+        durations.set(Phase.JVM_STARTUP.ordinal(), jvmUptime);
+    }
+
+    /**
+     * Gets the timestamp to pass to {@link #record(Phase, long)} when the phase is finished
+     *
+     * @return Monotonic timestamp in nanoseconds
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the phase if it is not recorded yet
+     *
+     * @param phase        Phase
+     * @param startedNanos Timestamp returned by {@link #start()} when the phase started
+     */
+    public static void record(Phase phase, long startedNanos) {
+        long duration = System.nanoTime() - startedNanos;
+        if (durations.compareAndSet(phase.ordinal(), NOT_RECORDED, duration)) {
+            starts.set(phase.ordinal(), startedNanos - ORIGIN);
+        }
+    }
+
+    /**
+     * @param phase Phase
+     * @return Duration of the phase in nanoseconds, -1 if it is not recorded
+     */
+    public static long getDuration(Phase phase) {
+        return durations.get(phase.ordinal());
+    }
+
+    /**
+     * @param phase Phase
+     * @return Start of the phase in nanoseconds relative to the moment runtime was loaded, -1 if it is not recorded
+     */
+    public static long getStart(Phase phase) {
+        return getDuration(phase) == NOT_RECORDED ? NOT_RECORDED : starts.get(phase.ordinal());
+    }
+
+    /**
+     * @return Durations of the recorded phases in nanoseconds
+     */
+    public static Map<Phase, Long> getDurations() {
+        Map<Phase, Long> recordedDurations = new EnumMap<>(Phase.class);
+        for (Phase phase : PHASES) {
+            long duration = getDuration(phase);
+            if (duration != NOT_RECORDED) {
+                recordedDurations.put(phase, duration);
+            }
+        }
+        return recordedDurations;
+    }
+
+    /**
+     * Phases overlap: without eager initialization the router, scan, route tree and JSON phases run inside
+     * the first invocation. The total is thus the wall-clock time from the start of the first phase
+     * to the end of the first invocation, or of the last recorded phase if it is not finished yet.
+     *
+     * @return Wall-clock duration of the cold start in nanoseconds
+     */
+    public static long getTotal() {
+        long firstStart = Long.MAX_VALUE;
+        long lastEnd = Long.MIN_VALUE;
+        for (Map.Entry<Phase, Long> entry : getDurations().entrySet()) {
+            long start = getStart(entry.getKey());
+            firstStart = Math.min(firstStart, start);
+            lastEnd = Math.max(lastEnd, start + entry.getValue());
+        }
+
+        long firstInvocation = getDuration(Phase.FIRST_INVOCATION);
+        if (firstInvocation != NOT_RECORDED) {
+            lastEnd = getStart(Phase.FIRST_INVOCATION) + firstInvocation;
+        }
+
+        return firstStart == Long.MAX_VALUE ? 0 : lastEnd - firstStart;
+    }
+
+    public static boolean isEmitted() {
+        return emitted.get();
+    }
+
+    /**
+     * Writes the timeline to the logger, only the first call in the container writes it.
+     * <p>
+     * Without a logger the timeline is only marked as written, so later invocations do not wait for it.
+     *
+     * @param logger Lambda logger, null to drop the timeline
+     * @return True if the timeline is written with this call
+     */
+    public static boolean emit(LambdaLogger logger) {
+        if (!emitted.compareAndSet(false, true) || logger == null) {
+            return false;
+        }
+        logger.log(toJson());
+        return true;
+    }
+
+    /**
+     * @return Timeline as a single line JSON document
+     */
+    public static String toJson() {
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"type\":\"lambada.startup\",\"phases\":{");
+
+        boolean first = true;
+        for (Map.Entry<Phase, Long> entry : getDurations().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('"').append(entry.getKey().name()).append("\":{")
+                    .append("\"startNanos\":").append(getStart(entry.getKey())).append(',')
+                    .append("\"durationNanos\":").append(entry.getValue())
+                    .append('}');
+        }
+
+        json.append("},\"totalNanos\":").append(getTotal()).append('}');
+        return json.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package org.lambadaframework.runtime.tracing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed memory latency histogram with log-linear buckets, in the manner of HdrHistogram.
+ * <p>
+ * Values are kept in microseconds. Values below 64 have their own bucket, above that every power of two
+ * is split into 32 buckets, so a recorded value is off by at most about 3%. Up to about 76 hours fit in
+ * 1088 counters. Recording is lock-free and allocation-free.
+ * <p>
+ * Counts are kept for the lifetime of the histogram, {@link #getInterval()} returns what is recorded
+ * since its previous call.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+
+    private static final int MAXIMUM_SHIFT = 32;
+
+    private static final long MAXIMUM_VALUE = (1L << (SUB_BUCKET_BITS + MAXIMUM_SHIFT)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(getBucketCount());
+
+    private final AtomicLong totalCount = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Counts returned by the previous interval
+     */
+    private final long[] intervalCounts = new long[counts.length()];
+
+    /**
+     * Largest value since the previous interval
+     */
+    private final AtomicLong intervalMax = new AtomicLong();
+
+    /**
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.min(MAXIMUM_VALUE, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        counts.incrementAndGet(getIndex(micros));
+        totalCount.incrementAndGet();
+
+        updateMax(max, micros);
+        updateMax(intervalMax, micros);
+    }
+
+    private static void updateMax(AtomicLong max, long micros) {
+        long currentMax = max.get();
+        while (micros > currentMax && !max.compareAndSet(currentMax, micros)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Values recorded while the interval is taken go either to this interval or to the next one
+     *
+     * @return Histogram of the values recorded since the previous call, or since the histogram was created
+     */
+    public synchronized LatencyHistogram getInterval() {
+        LatencyHistogram interval = new LatencyHistogram();
+        interval.max.set(intervalMax.getAndSet(0));
+
+        long intervalCount = 0;
+        for (int i = 0; i < intervalCounts.length; i++) {
+            long count = counts.get(i);
+            long delta = count - intervalCounts[i];
+            if (delta > 0) {
+                interval.counts.set(i, delta);
+                intervalCounts[i] = count;
+                intervalCount += delta;
+            }
+        }
+        interval.totalCount.set(intervalCount);
+        return interval;
+    }
+
+    static int getIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (64 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return shift * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * @return Middle of the values counted in the bucket
+     */
+    static long getValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (index - shift * HALF_SUB_BUCKET_COUNT) << shift;
+        return lowest + ((1L << shift) >> 1);
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    static int getBucketCount() {
+        return (MAXIMUM_SHIFT + 2) * HALF_SUB_BUCKET_COUNT;
+    }
+
+    /**
+     * @param index Bucket index
+     * @return Number of values counted in the bucket
+     */
+    long getCount(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * @return Largest recorded value in microseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return Value in microseconds that the given percentage of the recorded values do not exceed, 0 if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100d * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(getValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+}
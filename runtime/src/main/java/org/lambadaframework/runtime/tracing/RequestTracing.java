@@ -0,0 +1,204 @@
+package org.lambadaframework.runtime.tracing;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nanosecond spans of every invocation, aggregated per route into {@link RouteMetrics}.
+ * <p>
+ * Tracing is enabled with LAMBADA_TRACING=true. Metrics are written in CloudWatch Embedded Metric Format
+ * at the end of an invocation once every LAMBADA_METRICS_INTERVAL seconds (default 60), and the interval
+ * in progress is written to the standard output when the container shuts down.
+ * When tracing is disabled, {@link #start()} and {@link #record(Span, long)} do not read the clock.
+ */
+public final class RequestTracing {
+
+    public static final String ENVIRONMENT_VARIABLE = "LAMBADA_TRACING";
+
+    public static final String INTERVAL_ENVIRONMENT_VARIABLE = "LAMBADA_METRICS_INTERVAL";
+
+    public static final long DEFAULT_INTERVAL_SECONDS = 60;
+
+    /**
+     * Route of requests that did not match a resource method
+     */
+    public static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private static final int SPAN_COUNT = Span.values().length;
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getenv(ENVIRONMENT_VARIABLE));
+
+    private static final long intervalNanos = TimeUnit.SECONDS.toNanos(getIntervalSeconds());
+
+    private static final RouteMetrics metrics = new RouteMetrics();
+
+    private static final AtomicLong lastEmitted = new AtomicLong(System.nanoTime());
+
+    private static final Map<ResourceMethod, String> routeNames = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Trace> traces = ThreadLocal.withInitial(Trace::new);
+
+    static {
+        /**
+         * Lambda runs the shutdown hooks only if the function has an extension, which gives the runtime
+         * a shutdown phase. Otherwise the invocations after the last written interval are lost.
+         */
+        Runtime.getRuntime().addShutdownHook(new Thread(RequestTracing::emitOnShutdown, "lambada-metrics-shutdown"));
+    }
+
+    /**
+     * Spans of the invocation running on the thread
+     */
+    private static final class Trace {
+
+        private final long[] spans = new long[SPAN_COUNT];
+
+        private long started;
+
+        private String route;
+
+        private void begin() {
+            Arrays.fill(spans, -1);
+            route = UNMATCHED_ROUTE;
+            started = System.nanoTime();
+        }
+
+        private void add(Span span, long nanos) {
+            int index = span.ordinal();
+            spans[index] = spans[index] < 0 ? nanos : spans[index] + nanos;
+        }
+    }
+
+    private RequestTracing() {
+    }
+
+    private static long getIntervalSeconds() {
+        String interval = System.getenv(INTERVAL_ENVIRONMENT_VARIABLE);
+        if (interval != null) {
+            try {
+                return Long.parseLong(interval.trim());
+            } catch (NumberFormatException e) {
+                /**
+                 * Use the default interval
+                 */
+            }
+        }
+        return DEFAULT_INTERVAL_SECONDS;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void setEnabled(boolean tracingEnabled) {
+        enabled = tracingEnabled;
+    }
+
+    /**
+     * Starts the trace of the invocation on the current thread
+     */
+    public static void begin() {
+        if (enabled) {
+            traces.get().begin();
+        }
+    }
+
+    /**
+     * Gets the timestamp to pass to {@link #record(Span, long)} when the span is finished
+     *
+     * @return Monotonic timestamp in nanoseconds, 0 if tracing is disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the duration of the span to the trace, a span that runs more than once is summed up
+     *
+     * @param span         Span
+     * @param startedNanos Timestamp returned by {@link #start()} when the span started
+     */
+    public static void record(Span span, long startedNanos) {
+        if (enabled && startedNanos != 0) {
+            traces.get().add(span, System.nanoTime() - startedNanos);
+        }
+    }
+
+    /**
+     * Sets the route of the invocation
+     *
+     * @param resourceMethod Matched resource method
+     */
+    public static void setRoute(ResourceMethod resourceMethod) {
+        if (enabled) {
+            traces.get().route = routeNames.computeIfAbsent(resourceMethod, RequestTracing::getRouteName);
+        }
+    }
+
+    private static String getRouteName(ResourceMethod resourceMethod) {
+        String path = resourceMethod.getParent() == null ? "" : resourceMethod.getParent().getPath();
+        return resourceMethod.getHttpMethod() + " " + path;
+    }
+
+    /**
+     * Finishes the trace of the invocation, adds it to the metrics of its route
+     * and writes the metrics if the interval has passed
+     *
+     * @param logger Lambda logger, metrics are not written if it is null
+     */
+    public static void finish(LambdaLogger logger) {
+        if (!enabled) {
+            return;
+        }
+
+        Trace trace = traces.get();
+        if (trace.started == 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        trace.spans[Span.TOTAL.ordinal()] = now - trace.started;
+
+        /**
+         * Entity is read while parameters are bound, binding span is reported without it
+         */
+        long deserialization = trace.spans[Span.DESERIALIZATION.ordinal()];
+        if (deserialization > 0 && trace.spans[Span.BINDING.ordinal()] >= deserialization) {
+            trace.spans[Span.BINDING.ordinal()] -= deserialization;
+        }
+
+        metrics.record(trace.route, trace.spans);
+        trace.started = 0;
+
+        long last = lastEmitted.get();
+        if (logger != null && now - last >= intervalNanos && lastEmitted.compareAndSet(last, now)) {
+            emit(logger);
+        }
+    }
+
+    /**
+     * Writes the metrics of every route to the logger
+     *
+     * @param logger Lambda logger
+     */
+    public static void emit(LambdaLogger logger) {
+        for (String line : metrics.toEmbeddedMetricFormat(System.currentTimeMillis())) {
+            logger.log(line);
+        }
+    }
+
+    static void emitOnShutdown() {
+        emit(System.out::println);
+        System.out.flush();
+    }
+
+    public static RouteMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,171 @@
+package org.lambadaframework.runtime.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of every span by route, kept for the lifetime of the container.
+ * <p>
+ * They are written as CloudWatch Embedded Metric Format log lines, one line per route with Route dimension,
+ * without PutMetricData calls. Every span is written as a histogram: the values of its non-empty buckets with
+ * their counts, so CloudWatch computes any percentile over any period and across containers.
+ * A metric can have at most {@value #MAXIMUM_VALUES} values, adjacent buckets are merged if there are more.
+ * <p>
+ * Every line covers only the invocations since the previous one, so CloudWatch can sum the counts.
+ * Routes without invocations in the interval are not written.
+ */
+public final class RouteMetrics {
+
+    public static final String NAMESPACE = "Lambada";
+
+    /**
+     * Embedded Metric Format limit of values in a metric
+     */
+    static final int MAXIMUM_VALUES = 100;
+
+    private static final Span[] SPANS = Span.values();
+
+    /**
+     * Routes are resource methods, thus the number of histograms is bounded by the application
+     */
+    private final Map<String, LatencyHistogram[]> routes = new ConcurrentHashMap<>();
+
+    private static LatencyHistogram[] newHistograms(String route) {
+        LatencyHistogram[] histograms = new LatencyHistogram[SPANS.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    /**
+     * @param route Route
+     * @param spans Durations in nanoseconds by span ordinal, negative if the span did not run
+     */
+    public void record(String route, long[] spans) {
+        LatencyHistogram[] histograms = routes.computeIfAbsent(route, RouteMetrics::newHistograms);
+        for (int i = 0; i < spans.length; i++) {
+            if (spans[i] >= 0) {
+                histograms[i].record(spans[i]);
+            }
+        }
+    }
+
+    /**
+     * @param route Route
+     * @param span  Span
+     * @return Histogram, null if the route is not recorded
+     */
+    public LatencyHistogram getHistogram(String route, Span span) {
+        LatencyHistogram[] histograms = routes.get(route);
+        return histograms == null ? null : histograms[span.ordinal()];
+    }
+
+    /**
+     * @param timestamp Timestamp of the metrics in epoch milliseconds
+     * @return One Embedded Metric Format document for every route invoked since the previous call
+     */
+    public synchronized List<String> toEmbeddedMetricFormat(long timestamp) {
+        List<String> lines = new ArrayList<>(routes.size());
+        for (Map.Entry<String, LatencyHistogram[]> route : routes.entrySet()) {
+            LatencyHistogram[] intervals = new LatencyHistogram[SPANS.length];
+            for (int i = 0; i < intervals.length; i++) {
+                intervals[i] = route.getValue()[i].getInterval();
+            }
+            if (intervals[Span.TOTAL.ordinal()].getCount() > 0) {
+                lines.add(toEmbeddedMetricFormat(timestamp, route.getKey(), intervals));
+            }
+        }
+        return lines;
+    }
+
+    private static String toEmbeddedMetricFormat(long timestamp, String route, LatencyHistogram[] histograms) {
+        StringBuilder metrics = new StringBuilder(512);
+        StringBuilder values = new StringBuilder(512);
+
+        metrics.append("{\"Name\":\"count\",\"Unit\":\"Count\"}");
+        values.append(",\"count\":").append(histograms[Span.TOTAL.ordinal()].getCount());
+
+        for (Span span : SPANS) {
+            LatencyHistogram histogram = histograms[span.ordinal()];
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            appendHistogram(metrics, values, span.getMetricName(), histogram);
+        }
+
+        return "{\"_aws\":{\"Timestamp\":" + timestamp +
+                ",\"CloudWatchMetrics\":[{\"Namespace\":\"" + NAMESPACE + "\",\"Dimensions\":[[\"Route\"]],\"Metrics\":[" +
+                metrics + "]}]},\"Route\":\"" + escape(route) + '"' + values + '}';
+    }
+
+    /**
+     * Writes the histogram as Values and Counts arrays, with Min, Max, Count and Sum.
+     * Bucket values are the middle of the buckets, so Min and Sum are estimated within the bucket precision.
+     */
+    private static void appendHistogram(StringBuilder metrics, StringBuilder values, String name, LatencyHistogram histogram) {
+        long max = histogram.getMax();
+        int bucketCount = LatencyHistogram.getBucketCount();
+
+        long[] bucketValues = new long[bucketCount];
+        long[] bucketCounts = new long[bucketCount];
+        int size = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            long count = histogram.getCount(i);
+            if (count > 0) {
+                bucketValues[size] = Math.min(LatencyHistogram.getValue(i), max);
+                bucketCounts[size] = count;
+                size++;
+            }
+        }
+
+        while (size > MAXIMUM_VALUES) {
+            size = mergeAdjacentBuckets(bucketValues, bucketCounts, size);
+        }
+
+        long sum = 0;
+        StringBuilder valueArray = new StringBuilder(size * 6);
+        StringBuilder countArray = new StringBuilder(size * 3);
+        for (int i = 0; i < size; i++) {
+            sum += bucketValues[i] * bucketCounts[i];
+            valueArray.append(i == 0 ? "" : ",").append(bucketValues[i]);
+            countArray.append(i == 0 ? "" : ",").append(bucketCounts[i]);
+        }
+
+        metrics.append(",{\"Name\":\"").append(name).append("\",\"Unit\":\"Microseconds\"}");
+        values.append(",\"").append(name).append("\":{\"Values\":[").append(valueArray)
+                .append("],\"Counts\":[").append(countArray)
+                .append("],\"Max\":").append(max)
+                .append(",\"Min\":").append(size == 0 ? 0 : bucketValues[0])
+                .append(",\"Count\":").append(histogram.getCount())
+                .append(",\"Sum\":").append(sum)
+                .append('}');
+    }
+
+    /**
+     * Merges every two adjacent buckets into one, at their weighted mean value
+     *
+     * @return Number of buckets after merging
+     */
+    static int mergeAdjacentBuckets(long[] bucketValues, long[] bucketCounts, int size) {
+        int merged = 0;
+        for (int i = 0; i < size; i += 2) {
+            if (i + 1 == size) {
+                bucketValues[merged] = bucketValues[i];
+                bucketCounts[merged] = bucketCounts[i];
+            } else {
+                long count = bucketCounts[i] + bucketCounts[i + 1];
+                bucketValues[merged] = (bucketValues[i] * bucketCounts[i] + bucketValues[i + 1] * bucketCounts[i + 1]) / count;
+                bucketCounts[merged] = count;
+            }
+            merged++;
+        }
+        return merged;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,55 @@
+package org.lambadaframework.runtime.tracing;
+
+/**
+ * Parts of an invocation measured by {@link RequestTracing}
+ */
+public enum Span {
+
+    /**
+     * Finding the resource method and content negotiation
+     */
+    ROUTING("routing"),
+
+    /**
+     * Binding path, query and header parameters, without the request body
+     */
+    BINDING("binding"),
+
+    /**
+     * Validating the arguments of methods with constraints
+     */
+    VALIDATION("validation"),
+
+    /**
+     * Reading the request body into the entity parameter
+     */
+    DESERIALIZATION("deserialization"),
+
+    /**
+     * Resource method execution
+     */
+    INVOCATION("invocation"),
+
+    /**
+     * Building the response, writing its entity and compressing it
+     */
+    RESPONSE_MAPPING("responseMapping"),
+
+    /**
+     * Whole invocation
+     */
+    TOTAL("total");
+
+    private final String metricName;
+
+    Span(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * @return Prefix of the metric names of the span
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
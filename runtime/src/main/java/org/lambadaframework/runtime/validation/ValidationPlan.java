@@ -0,0 +1,113 @@
+package org.lambadaframework.runtime.validation;
+
+import javax.validation.Constraint;
+import javax.validation.ConstraintViolation;
+import javax.validation.Valid;
+import javax.validation.executable.ExecutableValidator;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Parameter validation plan of a resource method.
+ * <p>
+ * Annotations of the method and its parameters are read only once, when the plan is compiled.
+ * Methods without @Valid or constraint annotations get {@link #NONE} and are never given to the validator.
+ * Violations are returned instead of thrown, so invalid requests do not pay for capturing a stack trace.
+ */
+public final class ValidationPlan {
+
+    /**
+     * Plan of methods without constraints
+     */
+    public static final ValidationPlan NONE = new ValidationPlan(null);
+
+    private static final Set<ConstraintViolation<Object>> NO_VIOLATIONS = Collections.emptySet();
+
+    private final Method method;
+
+    private ValidationPlan(Method method) {
+        this.method = method;
+    }
+
+    /**
+     * Compiles the validation plan of the method
+     *
+     * @param method Resource method
+     * @return Validation plan
+     */
+    public static ValidationPlan compile(Method method) {
+
+        /**
+         * Cross parameter constraints are declared on the method
+         */
+        if (hasConstraints(method.getAnnotations())) {
+            return new ValidationPlan(method);
+        }
+
+        for (Annotation[] parameterAnnotations : method.getParameterAnnotations()) {
+            if (hasConstraints(parameterAnnotations)) {
+                return new ValidationPlan(method);
+            }
+        }
+
+        return NONE;
+    }
+
+    private static boolean hasConstraints(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (annotationType == Valid.class
+                    || annotationType.isAnnotationPresent(Constraint.class)
+                    || isConstraintList(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Repeated constraints are wrapped in a List annotation, e.g. @Pattern.List
+     */
+    private static boolean isConstraintList(Annotation annotation) {
+        try {
+            Method value = annotation.annotationType().getMethod("value");
+            Class<?> valueType = value.getReturnType();
+            return valueType.isArray()
+                    && valueType.getComponentType().isAnnotation()
+                    && valueType.getComponentType().isAnnotationPresent(Constraint.class);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public boolean isEmpty() {
+        return method == null;
+    }
+
+    /**
+     * Validates the arguments of the method
+     *
+     * @param instance  Resource instance
+     * @param arguments Method arguments
+     * @return Constraint violations of the arguments, empty if they are valid
+     */
+    public Set<ConstraintViolation<Object>> validate(Object instance, Object[] arguments) {
+        if (method == null) {
+            return NO_VIOLATIONS;
+        }
+        return validate(Validators.getExecutableValidator(), instance, arguments);
+    }
+
+    /**
+     * @param validator Validator of method parameters, null if there is no Bean Validation provider
+     */
+    Set<ConstraintViolation<Object>> validate(ExecutableValidator validator, Object instance, Object[] arguments) {
+        if (method == null || validator == null) {
+            return NO_VIOLATIONS;
+        }
+
+        return validator.validateParameters(instance, method, arguments);
+    }
+}
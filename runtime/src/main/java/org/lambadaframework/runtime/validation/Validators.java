@@ -0,0 +1,78 @@
+package org.lambadaframework.runtime.validation;
+
+import org.apache.log4j.Logger;
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+
+import javax.validation.Validation;
+import javax.validation.ValidationException;
+import javax.validation.executable.ExecutableValidator;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Holds the Bean Validation validator of the container.
+ * <p>
+ * The validator factory is built only once, when the route tree of a package with constraints is compiled.
+ * Validators are thread-safe, so all requests share it. If there is no Bean Validation provider
+ * (e.g. Hibernate Validator) in the class path, validation is disabled, a warning is logged once
+ * and every constrained method is logged when the routes of its package are compiled.
+ */
+public final class Validators {
+
+    static final Logger logger = Logger.getLogger(Validators.class);
+
+    private Validators() {
+    }
+
+    private static final class ValidatorHolder {
+
+        private static final ExecutableValidator INSTANCE = createValidator();
+
+        private static ExecutableValidator createValidator() {
+            try {
+                return Validation.buildDefaultValidatorFactory().getValidator().forExecutables();
+            } catch (ValidationException e) {
+                logger.warn("Bean Validation provider could not be found, constraints of resource methods are not validated. "
+                        + "Add a provider such as org.hibernate:hibernate-validator to the dependencies of the function.");
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Bootstraps the validator, so the first validated request does not
+     *
+     * @return True if a Bean Validation provider is available
+     */
+    public static boolean initialize() {
+        return getExecutableValidator() != null;
+    }
+
+    /**
+     * Bootstraps the validator if any of the resource methods has constraints
+     *
+     * @param resources Resources of a package
+     * @return False if a resource method has constraints but there is no Bean Validation provider
+     */
+    public static boolean initialize(List<Resource> resources) {
+        boolean validated = true;
+        for (Resource resource : resources) {
+            for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+                Method method = resourceMethod.getInvocable().getHandlingMethod();
+                if (!ValidationPlan.compile(method).isEmpty() && !initialize()) {
+                    logger.warn("Constraints of " + method + " are not validated.");
+                    validated = false;
+                }
+            }
+        }
+        return validated;
+    }
+
+    /**
+     * @return Validator of method parameters, null if there is no Bean Validation provider
+     */
+    public static ExecutableValidator getExecutableValidator() {
+        return ValidatorHolder.INSTANCE;
+    }
+}
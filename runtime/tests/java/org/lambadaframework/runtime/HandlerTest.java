@@ -6,13 +6,19 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.apache.log4j.Category;
+import org.apache.log4j.Logger;
 import org.glassfish.jersey.server.model.Invocable;
 import org.glassfish.jersey.server.model.MethodHandler;
 import org.glassfish.jersey.server.model.ResourceMethod;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.lambadaframework.logger.RingBufferAppender;
+import org.lambadaframework.runtime.errorhandling.ExceptionMappers;
 import org.lambadaframework.runtime.models.Request;
 import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.models.error.ErrorResponses;
+import org.lambadaframework.runtime.router.RouteMatch;
 import org.lambadaframework.runtime.router.Router;
 import org.powermock.api.easymock.PowerMock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -20,6 +26,10 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ExceptionMapper;
+
+import java.util.Collections;
+import java.util.Enumeration;
 
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.expect;
@@ -120,8 +130,8 @@ public class HandlerTest {
                 .anyTimes();
 
         Router mockRouter = PowerMock.createMock(Router.class);
-        expect(mockRouter.route(anyObject()))
-                .andReturn(mockResourceMethod)
+        expect(mockRouter.match(anyObject()))
+                .andReturn(RouteMatch.of(mockResourceMethod))
                 .anyTimes();
 
         PowerMock.replayAll();
@@ -312,4 +322,137 @@ public class HandlerTest {
         assertEquals(1, ((NewEntityRequest) response.getEntity()).id);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testLargeResponseIsNotCompressedByDefault()
+            throws Exception {
+
+        String requestBody = String.join(",", Collections.nCopies(500, "lambada"));
+        Request exampleRequest = getRequest("{\n" +
+                "  \"package\": \"org.lambadaframework\",\n" +
+                "  \"pathTemplate\": \"/{id}\",\n" +
+                "  \"method\": \"POST\",\n" +
+                "  \"requestBody\": \"" + requestBody + "\",\n" +
+                "  \"path\": {\n" +
+                "    \"id\": \"123\"\n" +
+                "  },\n" +
+                "  \"header\": {\"Accept-Encoding\": \"gzip, deflate\"}\n" +
+                "}");
+
+
+        Handler handler = new Handler();
+        handler.setRouter(getMockRouter("createEntityWithJsonBody", String.class));
+        Response response = handler.handleRequest(exampleRequest, getContext());
+
+        assertEquals("201", response.getErrorMessage());
+        assertEquals(requestBody, response.getEntity());
+        assertFalse(response.getIsBase64Encoded());
+        assertNull(response.getHeader("Content-Encoding"));
+    }
+
+
+    @Test
+    public void testWithInvalidJsonObject400Result()
+            throws Exception {
+
+        Request exampleRequest = getRequest("{\n" +
+                "  \"package\": \"org.lambadaframework\",\n" +
+                "  \"pathTemplate\": \"/{id}\",\n" +
+                "  \"method\": \"POST\",\n" +
+                "  \"requestBody\": \"{\\\"id\\\":\",\n" +
+                "  \"path\": {\n" +
+                "    \"id\": \"123\"\n" +
+                "  },\n" +
+                "  \"header\": {}\n" +
+                "}");
+
+
+        Handler handler = new Handler();
+        handler.setRouter(getMockRouter("createEntityWithJsonObject", NewEntityRequest.class));
+        Response response = handler.handleRequest(exampleRequest, getContext());
+
+        assertSame(ErrorResponses.BAD_REQUEST, response);
+    }
+
+
+    public static class BadRequestMapper implements ExceptionMapper<BadRequestException> {
+        @Override
+        public javax.ws.rs.core.Response toResponse(BadRequestException exception) {
+            return javax.ws.rs.core.Response.status(422).entity(exception.getMessage()).build();
+        }
+    }
+
+
+    @Test
+    public void testWithInvalidJsonObjectMappedResult()
+            throws Exception {
+
+        ExceptionMappers.register("org.lambadaframework.mapped", Collections.singletonList(BadRequestMapper.class));
+        Request exampleRequest = getRequest("{\n" +
+                "  \"package\": \"org.lambadaframework.mapped\",\n" +
+                "  \"pathTemplate\": \"/{id}\",\n" +
+                "  \"method\": \"POST\",\n" +
+                "  \"requestBody\": \"{\\\"id\\\":\",\n" +
+                "  \"path\": {\n" +
+                "    \"id\": \"123\"\n" +
+                "  },\n" +
+                "  \"header\": {}\n" +
+                "}");
+
+
+        Handler handler = new Handler();
+        handler.setRouter(getMockRouter("createEntityWithJsonObject", NewEntityRequest.class));
+        Response response = handler.handleRequest(exampleRequest, getContext());
+
+        assertEquals(422, response.getStatusCode());
+        assertEquals("Request body could not be read", response.getEntity());
+    }
+
+
+    @Test
+    public void testRuntimeLoggersWriteThroughRingBuffer()
+            throws Exception {
+
+        new Handler();
+        Logger runtimeLogger = Logger.getLogger(Handler.class.getPackage().getName());
+        boolean attached = false;
+        for (Enumeration<?> appenders = runtimeLogger.getAllAppenders(); appenders.hasMoreElements(); ) {
+            attached |= appenders.nextElement() instanceof RingBufferAppender;
+        }
+
+        assertTrue(attached);
+
+        Category category = Logger.getLogger(Router.class);
+        while (category != null && category != runtimeLogger) {
+            assertTrue(category.getAdditivity());
+            category = category.getParent();
+        }
+        assertSame(runtimeLogger, category);
+    }
+
+
+    @Test
+    public void testWithUnmatchedRoute()
+            throws Exception {
+
+        Request exampleRequest = getRequest("{\n" +
+                "  \"package\": \"org.lambadaframework\",\n" +
+                "  \"pathTemplate\": \"/unknown\",\n" +
+                "  \"method\": \"GET\"\n" +
+                "}");
+
+        Router mockRouter = PowerMock.createMock(Router.class);
+        expect(mockRouter.match(anyObject()))
+                .andReturn(RouteMatch.NOT_FOUND)
+                .anyTimes();
+        PowerMock.replayAll();
+
+        Handler handler = new Handler();
+        handler.setRouter(mockRouter);
+
+        assertSame(ErrorResponses.NOT_FOUND, handler.handleRequest(exampleRequest, getContext()));
+        assertSame(ErrorResponses.NOT_FOUND, handler.handleRequest(exampleRequest, getContext()));
+        assertEquals(404, ErrorResponses.NOT_FOUND.getStatusCode());
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.lambadaframework.runtime;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.lambadaframework.jaxrs.JAXRSParser;
+import org.lambadaframework.jaxrs.ResourceIndex;
+import org.lambadaframework.runtime.models.ProxyRequest;
+import org.lambadaframework.runtime.models.ProxyResponse;
+import org.lambadaframework.runtime.router.Router;
+import org.lambadaframework.runtime.serialization.ContentEncoding;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Proxy APIs are deployed with the *&#47;* binary media type,
+ * so API Gateway sends every request body base64 encoded and decodes base64 encoded responses.
+ */
+public class ProxyHandlerTest {
+
+    /**
+     * Lambda POJO serializer binds bean properties and ignores Jackson annotations
+     */
+    private static final ObjectMapper POJO_SERIALIZER = new ObjectMapper()
+            .disable(MapperFeature.USE_ANNOTATIONS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    public static class Message {
+
+        public String text;
+    }
+
+    @Path("/messages")
+    public static class MessageResource {
+
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public Message echo(Message message) {
+            return message;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Router.getRouter().setJaxrsParser(new JAXRSParser()
+                .withResourceIndex(new ResourceIndex(Collections.singleton(MessageResource.class.getName()))));
+    }
+
+    private ProxyRequest getProxyRequest(String body, String acceptEncoding) throws IOException {
+        return getProxyRequest("POST", body, acceptEncoding);
+    }
+
+    private ProxyRequest getProxyRequest(String httpMethod, String body, String acceptEncoding) throws IOException {
+        String event = "{" +
+                "\"resource\":\"/{proxy+}\"," +
+                "\"path\":\"/messages\"," +
+                "\"httpMethod\":\"" + httpMethod + "\"," +
+                "\"headers\":{\"Content-Type\":\"application/json\"" +
+                (acceptEncoding == null ? "" : ",\"Accept-Encoding\":\"" + acceptEncoding + "\"") + "}," +
+                "\"stageVariables\":{\"lambadaPackage\":\"org.lambadaframework.runtime\"}," +
+                "\"body\":\"" + Base64.getEncoder().encodeToString(body.getBytes(StandardCharsets.UTF_8)) + "\"," +
+                "\"isBase64Encoded\":true" +
+                "}";
+        return POJO_SERIALIZER.readValue(event, ProxyRequest.class);
+    }
+
+    @Test
+    public void base64EncodedJsonBodyIsRead() throws Exception {
+        ProxyResponse response = new ProxyHandler()
+                .setRouter(Router.getRouter())
+                .setContentEncoding(new ContentEncoding(ContentEncoding.DISABLED))
+                .handleRequest(getProxyRequest("{\"text\":\"hello\"}", "gzip"), null);
+
+        assertEquals(200, response.getStatusCode());
+        assertFalse(response.getIsBase64Encoded());
+        assertEquals("{\"text\":\"hello\"}", response.getBody());
+    }
+
+    @Test
+    public void compressedResponseIsBase64Encoded() throws Exception {
+        String text = String.join("", Collections.nCopies(64, "hello "));
+        ProxyResponse response = new ProxyHandler()
+                .setRouter(Router.getRouter())
+                .setContentEncoding(new ContentEncoding(128))
+                .handleRequest(getProxyRequest("{\"text\":\"" + text + "\"}", "gzip"), null);
+
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertEquals("{\"text\":\"" + text + "\"}", gunzip(Base64.getDecoder().decode(response.getBody())));
+    }
+
+    @Test
+    public void unknownMethodIsNotAllowed() throws Exception {
+        ProxyResponse response = new ProxyHandler()
+                .setRouter(Router.getRouter())
+                .handleRequest(getProxyRequest("PROPFIND", "{}", null), null);
+
+        assertEquals(405, response.getStatusCode());
+        assertTrue(response.getHeaders().get("Allow").contains("POST"));
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
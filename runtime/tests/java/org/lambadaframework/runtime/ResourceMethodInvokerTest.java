@@ -0,0 +1,84 @@
+package org.lambadaframework.runtime;
+
+import org.junit.Test;
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.router.RouteMatch;
+
+import javax.validation.constraints.NotNull;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ResourceMethodInvokerTest {
+
+    public static class Entity {
+        public String name;
+    }
+
+    @Path("/entities")
+    public static class EntityResource {
+
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        public String create(Entity entity) {
+            return entity.name;
+        }
+    }
+
+    @Path("/constrained")
+    public static class ConstrainedResource {
+
+        @GET
+        public String find(@NotNull @QueryParam("name") String name) {
+            return name;
+        }
+    }
+
+    private RouteMatch getRouteMatch() {
+        return getRouteMatch(EntityResource.class);
+    }
+
+    private RouteMatch getRouteMatch(Class<?> resourceClass) {
+        Resource resource = new Resource(org.glassfish.jersey.server.model.Resource.from(resourceClass));
+        return RouteMatch.of(resource.getResourceMethods().get(0));
+    }
+
+    @Test
+    public void entityOfTheResourceMethodIsReturned() throws Exception {
+        Request request = new Request().setRequestbody("{\"name\":\"lambada\"}");
+
+        assertEquals("lambada", ResourceMethodInvoker.invoke(getRouteMatch(), request, null));
+    }
+
+    @Test
+    public void unreadableBodyIsRejectedWithoutStackTrace() throws Exception {
+        Request request = new Request().setRequestbody("{\"name\":");
+
+        try {
+            ResourceMethodInvoker.invoke(getRouteMatch(), request, null);
+            fail("Request should be rejected");
+        } catch (RejectedRequest rejectedRequest) {
+            assertSame(RejectedRequest.UNREADABLE_BODY, rejectedRequest);
+            assertEquals(0, rejectedRequest.getStackTrace().length);
+            assertEquals(400, rejectedRequest.getErrorResponse().getStatusCode());
+        }
+    }
+
+    @Test
+    public void constrainedMethodsAreValidatedAgainstTheInstanceOfThePlan() throws Exception {
+        RouteMatch routeMatch = getRouteMatch(ConstrainedResource.class);
+        Request request = new Request().setQuerystring(Collections.singletonMap("name", "lambada"));
+
+        assertEquals("lambada", ResourceMethodInvoker.invoke(routeMatch, request, null));
+        assertTrue(routeMatch.getInvocationPlan().getValidationInstance() instanceof ConstrainedResource);
+        assertNull(getRouteMatch().getInvocationPlan().getValidationInstance());
+    }
+}
@@ -0,0 +1,155 @@
+package org.lambadaframework.runtime.binding;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import org.junit.Test;
+import org.lambadaframework.runtime.models.Request;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BindingPlanTest {
+
+    public static class Entity {
+        public String name;
+    }
+
+    public static class BoundResource {
+
+        public String path(@PathParam("id") long id, @PathParam("name") String name) {
+            return name;
+        }
+
+        public String query(@QueryParam("page") Integer page, @QueryParam("active") boolean active) {
+            return null;
+        }
+
+        public String header(@HeaderParam("X-Count") Short count, @HeaderParam("X-Name") String name) {
+            return name;
+        }
+
+        @Consumes(MediaType.APPLICATION_JSON)
+        public String body(Entity entity) {
+            return entity.name;
+        }
+
+        @Consumes(MediaType.APPLICATION_JSON)
+        public String rawBody(String body) {
+            return body;
+        }
+
+        public String context(Context context) {
+            return null;
+        }
+
+        public String unbound(Entity entity) {
+            return null;
+        }
+    }
+
+    private BindingPlan compile(String methodName, Class<?>... parameterTypes) throws Exception {
+        return BindingPlan.compile(BoundResource.class.getMethod(methodName, parameterTypes));
+    }
+
+    private static Map<String, String> map(String... entries) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put(entries[i], entries[i + 1]);
+        }
+        return map;
+    }
+
+    @Test
+    public void pathParametersAreConverted() throws Exception {
+        Request request = new Request().setPath(map("id", "42", "name", "lambada"));
+
+        assertArrayEquals(new Object[]{42L, "lambada"}, compile("path", long.class, String.class).bind(request, null));
+    }
+
+    @Test
+    public void queryParametersAreConverted() throws Exception {
+        Request request = new Request().setQuerystring(map("page", "3", "active", "true"));
+
+        assertArrayEquals(new Object[]{3, true}, compile("query", Integer.class, boolean.class).bind(request, null));
+    }
+
+    @Test
+    public void headersAreConvertedCaseInsensitively() throws Exception {
+        Request request = new Request().setHeader(map("x-count", "7", "X-NAME", "lambada"));
+
+        assertArrayEquals(new Object[]{(short) 7, "lambada"}, compile("header", Short.class, String.class).bind(request, null));
+    }
+
+    @Test
+    public void missingBoxedParametersAreBoundAsNull() throws Exception {
+        BindingPlan bindingPlan = compile("header", Short.class, String.class);
+
+        assertArrayEquals(new Object[]{null, null}, bindingPlan.bind(new Request(), null));
+        assertArrayEquals(new Object[]{null, null}, bindingPlan.bind(new Request().setHeader(Collections.emptyMap()), null));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void missingPrimitiveParametersFailToConvert() throws Exception {
+        compile("path", long.class, String.class).bind(new Request().setPath(map("name", "lambada")), null);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void invalidNumbersFailToConvert() throws Exception {
+        compile("query", Integer.class, boolean.class).bind(new Request().setQuerystring(map("page", "first")), null);
+    }
+
+    @Test
+    public void jsonBodyIsRead() throws Exception {
+        Request request = new Request()
+                .setHeader(map("Content-Type", MediaType.APPLICATION_JSON))
+                .setRequestbody("{\"name\":\"lambada\"}");
+
+        Object[] arguments = compile("body", Entity.class).bind(request, null);
+
+        assertEquals("lambada", ((Entity) arguments[0]).name);
+    }
+
+    @Test
+    public void rawJsonBodyIsBoundToString() throws Exception {
+        Request request = new Request().setRequestbody("{\"name\":\"lambada\"}");
+
+        assertArrayEquals(new Object[]{"{\"name\":\"lambada\"}"}, compile("rawBody", String.class).bind(request, null));
+    }
+
+    @Test
+    public void emptyBodyIsBoundAsNull() throws Exception {
+        assertArrayEquals(new Object[]{null}, compile("body", Entity.class).bind(new Request(), null));
+        assertArrayEquals(new Object[]{null}, compile("body", Entity.class).bind(new Request().setRequestbody(""), null));
+    }
+
+    @Test
+    public void unreadableBodyRejectsTheRequest() throws Exception {
+        Request request = new Request().setRequestbody("{\"name\":");
+
+        assertNull(compile("body", Entity.class).bind(request, null));
+    }
+
+    @Test
+    public void bodyWithoutConsumesIsNotBound() throws Exception {
+        Request request = new Request().setRequestbody("{\"name\":\"lambada\"}");
+
+        assertArrayEquals(new Object[]{null}, compile("unbound", Entity.class).bind(request, null));
+    }
+
+    @Test
+    public void lambdaContextIsInjected() throws Exception {
+        Context context = (Context) Proxy.newProxyInstance(Context.class.getClassLoader(),
+                new Class<?>[]{Context.class},
+                (proxy, method, args) -> null);
+
+        assertArrayEquals(new Object[]{context}, compile("context", Context.class).bind(new Request(), context));
+    }
+}
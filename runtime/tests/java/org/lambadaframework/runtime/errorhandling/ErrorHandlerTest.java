@@ -0,0 +1,91 @@
+package org.lambadaframework.runtime.errorhandling;
+
+import org.junit.Test;
+import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.models.error.ErrorResponse;
+import org.lambadaframework.runtime.models.error.ErrorResponses;
+import org.lambadaframework.runtime.models.error.NotFoundErrorResponse;
+
+import javax.validation.ConstraintViolationException;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.ext.ExceptionMapper;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ErrorHandlerTest {
+
+    public static class IllegalArgumentMapper implements ExceptionMapper<IllegalArgumentException> {
+        @Override
+        public javax.ws.rs.core.Response toResponse(IllegalArgumentException exception) {
+            return javax.ws.rs.core.Response.status(422).entity(exception.getMessage()).header("X-Error", "invalid").build();
+        }
+    }
+
+    public static class RuntimeMapper implements ExceptionMapper<RuntimeException> {
+        @Override
+        public javax.ws.rs.core.Response toResponse(RuntimeException exception) {
+            return javax.ws.rs.core.Response.status(503).build();
+        }
+    }
+
+    private static final String PACKAGE_NAME = "org.lambadaframework.errorhandling";
+
+    static {
+        ExceptionMappers.register(PACKAGE_NAME, Arrays.asList(String.class, IllegalArgumentMapper.class, RuntimeMapper.class));
+    }
+
+    @Test
+    public void nearestExceptionMapperIsUsed() throws Exception {
+        Response response = ErrorHandler.getErrorResponse(new NumberFormatException("not a number"), PACKAGE_NAME);
+        assertEquals(422, response.getStatusCode());
+        assertEquals("not a number", response.getEntity());
+        assertEquals("invalid", response.getHeaders().get("X-Error"));
+
+        assertEquals(503, ErrorHandler.getErrorResponse(new IllegalStateException(), PACKAGE_NAME).getStatusCode());
+        assertSame(ExceptionMappers.forPackage(PACKAGE_NAME).find(NumberFormatException.class),
+                ExceptionMappers.forPackage(PACKAGE_NAME).find(NumberFormatException.class));
+    }
+
+    @Test
+    public void invocationTargetExceptionIsUnwrapped() throws Exception {
+        Response response = ErrorHandler.getErrorResponse(
+                new InvocationTargetException(new IllegalArgumentException("invalid")), PACKAGE_NAME);
+        assertEquals(422, response.getStatusCode());
+
+        response = ErrorHandler.getErrorResponse(new InvocationTargetException(new NotFoundException()));
+        assertTrue(response instanceof NotFoundErrorResponse);
+    }
+
+    @Test
+    public void webApplicationExceptionKeepsItsStatus() throws Exception {
+        Response response = ErrorHandler.getErrorResponse(new ClientErrorException(409));
+        assertEquals(409, response.getStatusCode());
+        assertEquals("Conflict", ((ErrorResponse) response).getErrorMessage());
+
+        response = ErrorHandler.getErrorResponse(new WebApplicationException(
+                javax.ws.rs.core.Response.status(400).entity("Missing name").build()));
+        assertEquals(400, response.getStatusCode());
+        assertEquals("Missing name", response.getEntity());
+    }
+
+    @Test
+    public void constraintViolationsAreBadRequests() throws Exception {
+        Response response = ErrorHandler.getErrorResponse(
+                new InvocationTargetException(new ConstraintViolationException(Collections.emptySet())));
+        assertSame(ErrorResponses.BAD_REQUEST, response);
+        assertEquals(400, ErrorHandler.getErrorResponse(new BadRequestException()).getStatusCode());
+    }
+
+    @Test
+    public void otherExceptionsAreInternalServerErrors() throws Exception {
+        Response response = ErrorHandler.getErrorResponse(new IllegalStateException());
+        assertEquals(500, response.getStatusCode());
+        assertTrue(response instanceof ErrorResponse);
+    }
+}
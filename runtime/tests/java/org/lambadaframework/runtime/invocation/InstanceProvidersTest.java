@@ -0,0 +1,56 @@
+package org.lambadaframework.runtime.invocation;
+
+import org.junit.Test;
+import org.lambadaframework.runtime.annotations.ContainerScoped;
+import org.lambadaframework.runtime.annotations.Pooled;
+
+import javax.inject.Singleton;
+
+import static org.junit.Assert.*;
+
+public class InstanceProvidersTest {
+
+    public static class PerRequestResource {
+    }
+
+    @Singleton
+    public static class SingletonResource {
+    }
+
+    @ContainerScoped
+    public static class ContainerScopedResource {
+    }
+
+    @Pooled(maxInstances = 1)
+    public static class PooledResource {
+    }
+
+    @Test
+    public void perRequestResourcesAreCreatedForEveryInvocation() throws Exception {
+        InstanceProvider instanceProvider = InstanceProviders.forClass(PerRequestResource.class);
+        assertNotSame(instanceProvider.acquire(), instanceProvider.acquire());
+    }
+
+    @Test
+    public void singletonResourcesAreShared() throws Exception {
+        InstanceProvider instanceProvider = InstanceProviders.forClass(SingletonResource.class);
+        assertSame(instanceProvider.acquire(), instanceProvider.acquire());
+    }
+
+    @Test
+    public void containerScopedResourcesAreReused() throws Exception {
+        InstanceProvider instanceProvider = InstanceProviders.forClass(ContainerScopedResource.class);
+        Object instance = instanceProvider.acquire();
+        instanceProvider.release(instance);
+        assertSame(instance, instanceProvider.acquire());
+    }
+
+    @Test
+    public void pooledResourcesAreReturnedToThePool() throws Exception {
+        InstanceProvider instanceProvider = InstanceProviders.forClass(PooledResource.class);
+        Object instance = instanceProvider.acquire();
+        assertTrue(instance instanceof PooledResource);
+        instanceProvider.release(instance);
+        assertSame(instance, instanceProvider.acquire());
+    }
+}
@@ -0,0 +1,120 @@
+package org.lambadaframework.runtime.invocation;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.*;
+
+public class MethodHandleInvokerTest {
+
+    public static class Resource {
+
+        public String echo(String value, int times) {
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < times; i++) {
+                result.append(value);
+            }
+            return result.toString();
+        }
+
+        public static long twice(long value) {
+            return value * 2;
+        }
+
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        public void overflow() {
+            throw new StackOverflowError();
+        }
+
+        public String read(String path) throws IOException {
+            throw new IOException(path);
+        }
+
+        public String many(String a, String b, String c, String d, String e) {
+            return a + b + c + d + e;
+        }
+    }
+
+    static class HiddenResource {
+
+        public String name() {
+            return "hidden";
+        }
+    }
+
+    private MethodHandleInvoker compile(String methodName, Class<?>... parameterTypes) throws Exception {
+        return MethodHandleInvoker.compile(Resource.class.getMethod(methodName, parameterTypes));
+    }
+
+    @Test
+    public void invokesInstanceAndStaticMethods() throws Exception {
+        assertEquals("abab", compile("echo", String.class, int.class).invoke(new Resource(), new Object[]{"ab", 2}));
+        assertEquals(42L, compile("twice", long.class).invoke(null, new Object[]{21L}));
+    }
+
+    @Test
+    public void publicMethodsWithReturnValuesAreCalledByGeneratedClasses() throws Exception {
+        assertTrue(compile("echo", String.class, int.class).isGenerated());
+        assertTrue(compile("read", String.class).isGenerated());
+        assertFalse(compile("twice", long.class).isGenerated());
+        assertFalse(compile("fail", String.class).isGenerated());
+        assertFalse(compile("many", String.class, String.class, String.class, String.class, String.class).isGenerated());
+    }
+
+    @Test
+    public void otherMethodsAreCalledByTheMethodHandle() throws Exception {
+        assertEquals("abcde", compile("many", String.class, String.class, String.class, String.class, String.class)
+                .invoke(new Resource(), new Object[]{"a", "b", "c", "d", "e"}));
+
+        MethodHandleInvoker invoker = MethodHandleInvoker.compile(HiddenResource.class.getMethod("name"));
+        assertFalse(invoker.isGenerated());
+        assertEquals("hidden", invoker.invoke(new HiddenResource(), new Object[0]));
+    }
+
+    @Test
+    public void checkedExceptionsOfGeneratedCallsAreWrapped() throws Exception {
+        try {
+            compile("read", String.class).invoke(new Resource(), new Object[]{"missing"});
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IOException);
+            assertEquals("missing", e.getCause().getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedInstanceIsNotAnExceptionOfTheMethod() throws Exception {
+        compile("echo", String.class, int.class).invoke(new HiddenResource(), new Object[]{"ab", 2});
+    }
+
+    @Test
+    public void exceptionsOfTheMethodAreWrapped() throws Exception {
+        try {
+            compile("fail", String.class).invoke(new Resource(), new Object[]{"failed"});
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals("failed", e.getCause().getMessage());
+        }
+    }
+
+    @Test(expected = StackOverflowError.class)
+    public void errorsAreNotWrapped() throws Exception {
+        compile("overflow").invoke(new Resource(), new Object[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullPrimitiveArgumentIsNotAnExceptionOfTheMethod() throws Exception {
+        compile("echo", String.class, int.class).invoke(new Resource(), new Object[]{"ab", null});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedArgumentTypeIsNotAnExceptionOfTheMethod() throws Exception {
+        compile("echo", String.class, int.class).invoke(new Resource(), new Object[]{1, 2});
+    }
+}
@@ -0,0 +1,55 @@
+package org.lambadaframework.runtime.models;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ParametersTest {
+
+    @Test
+    public void headerNamesAreCaseInsensitive() throws Exception {
+        Parameters headers = Parameters.caseInsensitive();
+        headers.put("Content-Type", "application/json");
+        headers.put("content-type", "text/plain");
+
+        assertEquals(1, headers.size());
+        assertEquals("text/plain", headers.get("CONTENT-TYPE"));
+        assertTrue(headers.containsKey("content-TYPE"));
+    }
+
+    @Test
+    public void parameterNamesAreCaseSensitive() throws Exception {
+        Parameters parameters = Parameters.caseSensitive();
+        parameters.put("id", "1");
+
+        assertEquals("1", parameters.get("id"));
+        assertNull(parameters.get("ID"));
+    }
+
+    @Test
+    public void growsAndRemovesLikeAMap() throws Exception {
+        Map<String, String> expected = new HashMap<>();
+        Parameters parameters = Parameters.caseSensitive();
+        for (int i = 0; i < 10; i++) {
+            expected.put("name" + i, "value" + i);
+            parameters.put("name" + i, "value" + i);
+        }
+
+        assertEquals(expected, parameters);
+        assertEquals("value3", parameters.remove("name3"));
+        expected.remove("name3");
+        assertEquals(expected, parameters);
+        assertEquals(expected.hashCode(), parameters.hashCode());
+    }
+
+    @Test
+    public void copyKeepsCompactMapsOfSameKind() throws Exception {
+        Parameters headers = Parameters.caseInsensitive();
+        assertSame(headers, Parameters.copyOf(headers, true));
+        assertNotSame(headers, Parameters.copyOf(headers, false));
+        assertNull(Parameters.copyOf(null, true));
+    }
+}
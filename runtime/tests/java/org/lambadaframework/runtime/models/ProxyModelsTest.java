@@ -0,0 +1,89 @@
+package org.lambadaframework.runtime.models;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.lambadaframework.runtime.models.error.NotFoundErrorResponse;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ProxyModelsTest {
+
+    /**
+     * Lambda POJO serializer binds bean properties and ignores Jackson annotations
+     */
+    private static final ObjectMapper POJO_SERIALIZER = new ObjectMapper()
+            .disable(MapperFeature.USE_ANNOTATIONS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final String EVENT = "{" +
+            "\"resource\":\"/{proxy+}\"," +
+            "\"path\":\"/users/123\"," +
+            "\"httpMethod\":\"post\"," +
+            "\"headers\":{\"Content-Type\":\"application/json\"}," +
+            "\"queryStringParameters\":{\"query1\":\"value\"}," +
+            "\"pathParameters\":{\"proxy\":\"users/123\"}," +
+            "\"stageVariables\":{\"lambadaPackage\":\"org.example\"}," +
+            "\"requestContext\":{\"stage\":\"production\"}," +
+            "\"body\":\"{\\\"id\\\":1}\"," +
+            "\"isBase64Encoded\":true" +
+            "}";
+
+    @Test
+    public void proxyEventIsConvertedToRequest() throws Exception {
+        ProxyRequest proxyRequest = POJO_SERIALIZER.readValue(EVENT, ProxyRequest.class);
+        assertTrue(proxyRequest.getIsBase64Encoded());
+        assertEquals("org.example", proxyRequest.getPackageName());
+
+        Request request = proxyRequest.toRequest(proxyRequest.getPackageName());
+        assertEquals(Request.RequestMethod.POST, request.getMethod());
+        assertEquals("/users/123", request.getPathTemplate());
+        assertEquals("org.example", request.getPackage());
+        assertEquals("value", request.getQueryParams().get("query1"));
+        assertEquals("application/json", request.getHeader("content-type"));
+        assertEquals("{\"id\":1}", request.getRequestBody());
+        assertNull(request.getPathParameters());
+        assertTrue(request.isBase64Encoded());
+    }
+
+    @Test
+    public void integrationTemplateFlagIsBoundToRequest() throws Exception {
+        Request request = POJO_SERIALIZER.readValue("{\"requestbody\":\"e30=\",\"isbase64encoded\":true}", Request.class);
+
+        assertEquals("e30=", request.getRequestBody());
+        assertTrue(request.isBase64Encoded());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void base64FlagIsWrittenWithTheProxyPropertyName() throws Exception {
+        ProxyResponse proxyResponse = ProxyResponse.from(Response.buildFromJAXRSResponse("H4sI").setIsBase64Encoded(true));
+        Map<String, Object> body = POJO_SERIALIZER.readValue(POJO_SERIALIZER.writeValueAsString(proxyResponse), Map.class);
+
+        assertEquals(Boolean.TRUE, body.get("isBase64Encoded"));
+        assertFalse(body.containsKey("base64Encoded"));
+        assertEquals(200, body.get("statusCode"));
+        assertEquals("H4sI", body.get("body"));
+    }
+
+    @Test
+    public void entitiesAreWrittenAsJsonBody() throws Exception {
+        ProxyResponse proxyResponse = ProxyResponse.from(Response.buildFromJAXRSResponse(Collections.singletonMap("key", "value")));
+
+        assertEquals(200, proxyResponse.getStatusCode());
+        assertEquals("{\"key\":\"value\"}", proxyResponse.getBody());
+        assertFalse(proxyResponse.getIsBase64Encoded());
+    }
+
+    @Test
+    public void errorsAreWrittenWithTheirStatusCode() throws Exception {
+        ProxyResponse proxyResponse = ProxyResponse.from(new NotFoundErrorResponse("Page not found"));
+
+        assertEquals(404, proxyResponse.getStatusCode());
+        assertEquals("{\"errorMessage\":\"Page not found\"}", proxyResponse.getBody());
+    }
+}
@@ -0,0 +1,70 @@
+package org.lambadaframework.runtime.router;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PathTemplateTest {
+
+    @Test
+    public void capturesPlainVariables() throws Exception {
+        PathTemplate pathTemplate = PathTemplate.compile("/resource1/{id}/users/{userId}");
+        PathParameters parameters = new PathParameters();
+
+        assertTrue(pathTemplate.match("/resource1/123/users/abc", parameters));
+        assertEquals(2, parameters.size());
+        assertEquals("123", parameters.get("id"));
+        assertEquals("abc", parameters.get("userId"));
+        assertEquals("abc", parameters.toMap().get("userId"));
+        assertTrue(parameters.containsKey("id"));
+        assertFalse(parameters.containsKey("name"));
+        assertEquals("{id=123, userId=abc}", parameters.toString());
+    }
+
+    @Test
+    public void matchesLiteralsAndTrailingSlash() throws Exception {
+        PathTemplate pathTemplate = PathTemplate.compile("/resource1/all");
+        PathParameters parameters = new PathParameters();
+
+        assertTrue(pathTemplate.match("/resource1/all", parameters));
+        assertTrue(pathTemplate.match("/resource1/all/", parameters));
+        assertFalse(pathTemplate.match("/resource1/alls", parameters));
+        assertFalse(pathTemplate.match("/resource1/all/more", parameters));
+        assertFalse(pathTemplate.match("/resource1", parameters));
+        assertEquals(0, parameters.size());
+
+        assertTrue(PathTemplate.compile("/").match("/", parameters));
+    }
+
+    @Test
+    public void parametersAreReused() throws Exception {
+        PathTemplate pathTemplate = PathTemplate.compile("/resource1/{id}");
+        PathParameters parameters = new PathParameters();
+
+        assertTrue(pathTemplate.match("/resource1/1", parameters));
+        assertTrue(pathTemplate.match("/resource1/2", parameters));
+        assertEquals(1, parameters.size());
+        assertEquals("2", parameters.get("id"));
+
+        assertFalse(pathTemplate.match("/resource2/3", parameters));
+        assertNull(parameters.get("id"));
+    }
+
+    @Test
+    public void matchesRegularExpressionVariables() throws Exception {
+        PathTemplate pathTemplate = PathTemplate.compile("/resource1/{id: [0-9]+}/users");
+        PathParameters parameters = new PathParameters();
+
+        assertTrue(pathTemplate.match("/resource1/42/users", parameters));
+        assertEquals("42", parameters.get("id"));
+        assertFalse(pathTemplate.match("/resource1/abc/users", parameters));
+    }
+
+    @Test
+    public void variablesInRequestMatchTemplateVariables() throws Exception {
+        PathParameters parameters = new PathParameters();
+        assertTrue(PathTemplate.compile("/resource1/{id}").match("/resource1/{id}", parameters));
+        assertTrue(PathTemplate.compile("/resource1/{id: [0-9]+}/users").match("/resource1/{id}/users", parameters));
+        assertFalse(PathTemplate.compile("/resource1/all").match("/resource1/{id}", parameters));
+    }
+}
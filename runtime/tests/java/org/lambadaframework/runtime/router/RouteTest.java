@@ -0,0 +1,242 @@
+package org.lambadaframework.runtime.router;
+
+import org.glassfish.jersey.process.Inflector;
+import org.junit.Test;
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.router.types.ConsumedTypes;
+import org.lambadaframework.runtime.router.types.MediaRange;
+import org.lambadaframework.runtime.router.types.ProducedTypes;
+
+import javax.ws.rs.NotAcceptableException;
+import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.MediaType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RouteTest {
+
+    private Route getRoute() {
+        org.glassfish.jersey.server.model.Resource.Builder resourceBuilder = org.glassfish.jersey.server.model.Resource.builder();
+        resourceBuilder.path("/resource");
+        resourceBuilder.addMethod("POST")
+                .consumes(MediaType.APPLICATION_JSON_TYPE)
+                .produces(MediaType.APPLICATION_JSON_TYPE)
+                .handledBy(getInflector());
+        resourceBuilder.addMethod("POST")
+                .consumes(MediaType.APPLICATION_XML_TYPE, MediaType.TEXT_XML_TYPE)
+                .produces(MediaType.TEXT_PLAIN_TYPE, MediaType.TEXT_HTML_TYPE)
+                .handledBy(getInflector());
+
+        Resource resource = new Resource(resourceBuilder.build());
+        return new Route(resource.getResourceMethods(), new ConsumedTypes(), new ProducedTypes());
+    }
+
+    public static class HelloInflector implements Inflector<ContainerRequestContext, Object> {
+        @Override
+        public Object apply(ContainerRequestContext containerRequestContext) {
+            return "HELLO";
+        }
+    }
+
+    public static class UserResource {
+
+        public String get(@PathParam("id") String id) {
+            return id;
+        }
+
+        public String list() {
+            return null;
+        }
+    }
+
+    private Inflector<ContainerRequestContext, Object> getInflector() {
+        return new HelloInflector();
+    }
+
+    private Request getRequest(String... headers) {
+        Map<String, String> requestHeaders = new HashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            requestHeaders.put(headers[i], headers[i + 1]);
+        }
+        return new Request().setHeader(requestHeaders);
+    }
+
+    private int select(Route route, Request request) {
+        return Arrays.asList(route.getResourceMethods()).indexOf(route.select(request));
+    }
+
+    @Test
+    public void firstMethodIsSelectedWithoutHeaders() throws Exception {
+        Request request = getRequest();
+        assertEquals(0, select(getRoute(), request));
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, request.getNegotiatedMediaType());
+    }
+
+    @Test
+    public void matchesKeepTheInvocationPlanOfTheirMethod() throws Exception {
+        Route route = getRoute();
+        RouteMatch match = route.getMatches()[0];
+
+        assertSame(match, route.match(getRequest()));
+        assertSame(match.getInvocationPlan(), match.getInvocationPlan());
+        assertNotSame(match.getInvocationPlan(), route.getMatches()[1].getInvocationPlan());
+        assertSame(match.getInvocationPlan().getInstanceProvider(), route.getMatches()[1].getInvocationPlan().getInstanceProvider());
+    }
+
+    @Test
+    public void contentTypeSelectsMethod() throws Exception {
+        Request request = getRequest("Content-Type", "application/xml; charset=UTF-8");
+        assertEquals(1, select(getRoute(), request));
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, request.getNegotiatedMediaType());
+    }
+
+    @Test
+    public void acceptQualityAndWildcardsSelectMethod() throws Exception {
+        Route route = getRoute();
+
+        Request request = getRequest("accept", "application/json;q=0.5, text/*;q=0.9");
+        assertEquals(1, select(route, request));
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, request.getNegotiatedMediaType());
+
+        request = getRequest("Accept", "text/html, */*;q=0.1");
+        assertEquals(1, select(route, request));
+        assertEquals(MediaType.TEXT_HTML_TYPE, request.getNegotiatedMediaType());
+
+        request = getRequest("Accept", "*/*");
+        assertEquals(0, select(route, request));
+    }
+
+    private Route getRoute(MediaType firstConsumes, MediaType firstProduces, MediaType secondConsumes, MediaType secondProduces) {
+        org.glassfish.jersey.server.model.Resource.Builder resourceBuilder = org.glassfish.jersey.server.model.Resource.builder();
+        resourceBuilder.path("/resource");
+        resourceBuilder.addMethod("POST")
+                .consumes(firstConsumes)
+                .produces(firstProduces)
+                .handledBy(getInflector());
+        resourceBuilder.addMethod("POST")
+                .consumes(secondConsumes)
+                .produces(secondProduces)
+                .handledBy(getInflector());
+
+        Resource resource = new Resource(resourceBuilder.build());
+        return new Route(resource.getResourceMethods(), new ConsumedTypes(), new ProducedTypes());
+    }
+
+    @Test
+    public void closerConsumedTypeIsPreferred() throws Exception {
+        Route route = getRoute(MediaType.WILDCARD_TYPE, MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(1, select(route, getRequest("Content-Type", "application/json")));
+        assertEquals(0, select(route, getRequest("Content-Type", "text/plain")));
+
+        route = getRoute(new MediaType("application", "*"), MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(1, select(route, getRequest("Content-Type", "application/json")));
+        assertEquals(0, select(route, getRequest("Content-Type", "application/xml")));
+    }
+
+    @Test
+    public void consumedTypeIsComparedBeforeProducedType() throws Exception {
+        Route route = getRoute(MediaType.WILDCARD_TYPE, MediaType.TEXT_PLAIN_TYPE,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.WILDCARD_TYPE);
+
+        Request request = getRequest("Content-Type", "application/json", "Accept", "text/plain");
+        assertEquals(1, select(route, request));
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, request.getNegotiatedMediaType());
+    }
+
+    @Test
+    public void closerProducedTypeIsPreferred() throws Exception {
+        Route route = getRoute(MediaType.APPLICATION_JSON_TYPE, MediaType.WILDCARD_TYPE,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+
+        Request request = getRequest("Content-Type", "application/json", "Accept", "*/*");
+        assertEquals(1, select(route, request));
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, request.getNegotiatedMediaType());
+
+        request = getRequest("Content-Type", "application/json", "Accept", "application/json");
+        assertEquals(1, select(route, request));
+
+        request = getRequest("Content-Type", "application/json", "Accept", "image/png");
+        assertEquals(0, select(route, request));
+        assertEquals(new MediaType("image", "png"), request.getNegotiatedMediaType());
+    }
+
+    @Test
+    public void pathParametersOfRawPathsAreCaptured() throws Exception {
+        org.glassfish.jersey.server.model.Resource.Builder resourceBuilder = org.glassfish.jersey.server.model.Resource.builder();
+        resourceBuilder.path("/users/{id}");
+        resourceBuilder.addMethod("GET").handledBy(UserResource.class, UserResource.class.getMethod("get", String.class));
+        Resource resource = new Resource(resourceBuilder.build());
+        Route route = new Route(resource.getResourceMethods(), new ConsumedTypes(), new ProducedTypes());
+        RouteMatch match = route.getMatches()[0];
+
+        Request request = getRequest().setPathtemplate("/users/42");
+        route.bindPathParameters(request, match);
+        assertTrue(request.getPathParameters() instanceof PathParameters);
+        assertEquals("42", request.getPathParameters().get("id"));
+
+        request = getRequest().setPathtemplate("/users/{id}");
+        route.bindPathParameters(request, match);
+        assertNull(request.getPathParameters());
+    }
+
+    @Test
+    public void pathParametersAreNotCapturedForMethodsWithoutPathParam() throws Exception {
+        org.glassfish.jersey.server.model.Resource.Builder resourceBuilder = org.glassfish.jersey.server.model.Resource.builder();
+        resourceBuilder.path("/users/{id}");
+        resourceBuilder.addMethod("GET").handledBy(UserResource.class, UserResource.class.getMethod("list"));
+        Resource resource = new Resource(resourceBuilder.build());
+        Route route = new Route(resource.getResourceMethods(), new ConsumedTypes(), new ProducedTypes());
+
+        Request request = getRequest().setPathtemplate("/users/42");
+        route.bindPathParameters(request, route.getMatches()[0]);
+        assertNull(request.getPathParameters());
+    }
+
+    @Test(expected = NotAcceptableException.class)
+    public void unacceptableMediaTypeIsRejected() throws Exception {
+        getRoute().select(getRequest("Accept", "image/png"));
+    }
+
+    @Test(expected = NotSupportedException.class)
+    public void unsupportedContentTypeIsRejected() throws Exception {
+        getRoute().select(getRequest("Content-Type", "text/csv", "Accept", "text/plain"));
+    }
+
+    @Test
+    public void missesAreSharedMatches() throws Exception {
+        Route route = getRoute();
+        assertSame(RouteMatch.NOT_ACCEPTABLE, route.match(getRequest("Accept", "image/png")));
+        assertSame(RouteMatch.NOT_SUPPORTED, route.match(getRequest("Content-Type", "text/csv")));
+        assertSame(route.match(getRequest()), route.match(getRequest()));
+        assertEquals(406, RouteMatch.NOT_ACCEPTABLE.getErrorResponse().getStatusCode());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sharedErrorResponsesCanNotBeChanged() throws Exception {
+        RouteMatch.NOT_FOUND.getErrorResponse().setHeader("X-Request", "1");
+    }
+
+    @Test
+    public void acceptHeaderIsParsedInOrderOfPreference() throws Exception {
+        MediaRange[] ranges = MediaRange.parseAccept("text/*;q=0.8, invalid, application/json, */*;q=0.1, text/html;q=0.8");
+
+        assertEquals(4, ranges.length);
+        assertEquals("application/json", ranges[0].getKey());
+        assertEquals("text/html", ranges[1].getKey());
+        assertEquals("text/*", ranges[2].getKey());
+        assertEquals("*/*", ranges[3].getKey());
+        assertEquals(0.1f, ranges[3].getQuality(), 0f);
+        assertSame(ranges, MediaRange.parseAccept("text/*;q=0.8, invalid, application/json, */*;q=0.1, text/html;q=0.8"));
+        assertSame(MediaRange.ACCEPT_ALL, MediaRange.parseAccept(null));
+    }
+}
@@ -0,0 +1,123 @@
+package org.lambadaframework.runtime.router;
+
+import org.glassfish.jersey.process.Inflector;
+import org.junit.Test;
+import org.lambadaframework.jaxrs.model.Resource;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RouteTreeTest {
+
+    private Resource getResource(String path, String... httpMethods) {
+        org.glassfish.jersey.server.model.Resource.Builder resourceBuilder = org.glassfish.jersey.server.model.Resource.builder();
+        resourceBuilder.path(path);
+        for (String httpMethod : httpMethods) {
+            resourceBuilder
+                    .addMethod(httpMethod)
+                    .handledBy(new Inflector<ContainerRequestContext, Object>() {
+                        @Override
+                        public Object apply(ContainerRequestContext containerRequestContext) {
+                            return "HELLO";
+                        }
+                    });
+        }
+        return new Resource(resourceBuilder.build());
+    }
+
+    private RouteTree getRouteTree() {
+        List<Resource> resources = new LinkedList<>();
+        resources.add(getResource("/resource1/{id}", "GET", "DELETE"));
+        resources.add(getResource("/resource1/all", "GET"));
+        resources.add(getResource("/resource1/{id: [0-9]+}/users", "GET"));
+        resources.add(getResource("/", "GET"));
+        return new RouteTree(resources);
+    }
+
+    @Test
+    public void literalSegmentsHavePrecedence() throws Exception {
+        RouteTree routeTree = getRouteTree();
+        assertEquals("/resource1/all", getPathOf(routeTree.findRoute("/resource1/all", "GET")));
+        assertEquals("/resource1/{id}", getPathOf(routeTree.findRoute("/resource1/12", "GET")));
+    }
+
+    @Test
+    public void matchesPathTemplates() throws Exception {
+        RouteTree routeTree = getRouteTree();
+        assertEquals("/resource1/{id}", getPathOf(routeTree.findRoute("/resource1/{id}", "DELETE")));
+        assertEquals("/resource1/{id: [0-9]+}/users", getPathOf(routeTree.findRoute("/resource1/{id}/users", "GET")));
+        assertEquals("/", getPathOf(routeTree.findRoute("/", "GET")));
+    }
+
+    @Test
+    public void matchesRegularExpressions() throws Exception {
+        RouteTree routeTree = getRouteTree();
+        assertEquals("/resource1/{id: [0-9]+}/users", getPathOf(routeTree.findRoute("/resource1/12/users", "GET")));
+        assertNull(routeTree.findRoute("/resource1/abc/users", "GET"));
+    }
+
+    @Test
+    public void returnsNullWhenNotMatching() throws Exception {
+        RouteTree routeTree = getRouteTree();
+        assertNull(routeTree.findRoute("/resource1/all", "POST"));
+        assertNull(routeTree.findRoute("/resource2", "GET"));
+        assertNull(routeTree.findRoute(null, "GET"));
+    }
+
+    private String getPathOf(Route route) {
+        assertNotNull(route);
+        return route.getResourceMethods()[0].getParent().getPath();
+    }
+
+    @Test
+    public void matchesRegularExpressionsWithQuantifiers() throws Exception {
+        List<Resource> resources = new LinkedList<>();
+        resources.add(getResource("/codes/{id: [0-9]{3}}", "GET"));
+        resources.add(getResource("/codes/{name}", "GET"));
+        RouteTree routeTree = new RouteTree(resources);
+
+        assertEquals("/codes/{id: [0-9]{3}}", getPathOf(routeTree.findRoute("/codes/123", "GET")));
+        assertEquals("/codes/{name}", getPathOf(routeTree.findRoute("/codes/1234", "GET")));
+    }
+
+    @Test
+    public void matchesRegularExpressionsSpanningSegments() throws Exception {
+        List<Resource> resources = new LinkedList<>();
+        resources.add(getResource("/files/{path: .+}", "GET"));
+        resources.add(getResource("/files/{name}/meta", "GET"));
+        resources.add(getResource("/archive/{year: [0-9]{4}/[0-9]{2}}", "GET"));
+        RouteTree routeTree = new RouteTree(resources);
+
+        assertEquals("/files/{name}/meta", getPathOf(routeTree.findRoute("/files/report/meta", "GET")));
+        assertEquals("/files/{path: .+}", getPathOf(routeTree.findRoute("/files/2016/06/report.pdf", "GET")));
+        assertEquals("/files/{path: .+}", getPathOf(routeTree.findRoute("/files/{path}", "GET")));
+        assertEquals("/archive/{year: [0-9]{4}/[0-9]{2}}", getPathOf(routeTree.findRoute("/archive/2016/06", "GET")));
+        assertNull(routeTree.findRoute("/archive/2016", "GET"));
+        assertNull(routeTree.findRoute("/files/2016/06/report.pdf", "POST"));
+    }
+
+    @Test
+    public void templatesAreRankedAsWholeTemplates() throws Exception {
+        List<Resource> resources = new LinkedList<>();
+        resources.add(getResource("/x{b}/{c}", "GET"));
+        resources.add(getResource("/{a}/literalliteral", "GET"));
+        RouteTree routeTree = new RouteTree(resources);
+
+        assertEquals("/{a}/literalliteral", getPathOf(routeTree.findRoute("/xy/literalliteral", "GET")));
+        assertEquals("/x{b}/{c}", getPathOf(routeTree.findRoute("/xy/other", "GET")));
+    }
+
+    @Test
+    public void templatesSpanningSegmentsAreRankedWithTheTree() throws Exception {
+        List<Resource> resources = new LinkedList<>();
+        resources.add(getResource("/{a}/{b}", "GET"));
+        resources.add(getResource("/files/{path: .+}", "GET"));
+        RouteTree routeTree = new RouteTree(resources);
+
+        assertEquals("/files/{path: .+}", getPathOf(routeTree.findRoute("/files/report.pdf", "GET")));
+        assertEquals("/{a}/{b}", getPathOf(routeTree.findRoute("/images/report.png", "GET")));
+    }
+}
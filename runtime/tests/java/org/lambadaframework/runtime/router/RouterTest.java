@@ -46,6 +46,10 @@ public class RouterTest {
                 .andReturn(resourceList)
                 .anyTimes();
 
+        expect(mockJaxRSParser.scanProviders())
+                .andReturn(new LinkedList<>())
+                .anyTimes();
+
         expect(mockJaxRSParser.withPackageName(anyString(),
                 anyObject(Class.class)))
                 .andReturn(mockJaxRSParser)
@@ -0,0 +1,88 @@
+package org.lambadaframework.runtime.router;
+
+import org.glassfish.jersey.process.Inflector;
+import org.junit.Test;
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.jaxrs.model.ResourceMethod;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.router.types.ConsumedTypes;
+import org.lambadaframework.runtime.router.types.ProducedTypes;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class RoutingCacheTest {
+
+    private static final String PACKAGE = "org.lambadaframework";
+
+    private Route getRoute() {
+        org.glassfish.jersey.server.model.Resource.Builder resourceBuilder = org.glassfish.jersey.server.model.Resource.builder();
+        resourceBuilder.path("/resource")
+                .addMethod("GET")
+                .handledBy(new Inflector<ContainerRequestContext, Object>() {
+                    @Override
+                    public Object apply(ContainerRequestContext containerRequestContext) {
+                        return "HELLO";
+                    }
+                });
+        ResourceMethod resourceMethod = new Resource(resourceBuilder.build()).getResourceMethods().get(0);
+        return new Route(Collections.singletonList(resourceMethod), new ConsumedTypes(), new ProducedTypes());
+    }
+
+    @Test
+    public void sizeIsRoundedUpToPowerOfTwo() {
+        assertEquals(1024, new RoutingCache(1000, true).capacity());
+        assertEquals(16, new RoutingCache(16, true).capacity());
+        assertEquals(0, new RoutingCache(0, true).capacity());
+    }
+
+    @Test
+    public void cachedMethodsAreReturnedForSameKey() {
+        RoutingCache routingCache = new RoutingCache(16, true);
+        Route route = getRoute();
+
+        routingCache.put(PACKAGE, "/resource/{id}", Request.RequestMethod.GET, route);
+
+        assertSame(route, routingCache.get(PACKAGE, new String("/resource/{id}"), Request.RequestMethod.GET));
+        assertNull(routingCache.get(PACKAGE, "/resource/{id}", Request.RequestMethod.POST));
+        assertNull(routingCache.get("org.example", "/resource/{id}", Request.RequestMethod.GET));
+    }
+
+    @Test
+    public void missesAreCached() {
+        RoutingCache routingCache = new RoutingCache(16, true);
+        routingCache.putMiss(PACKAGE, "/unknown", Request.RequestMethod.GET);
+        assertSame(RoutingCache.MISS, routingCache.get(PACKAGE, "/unknown", Request.RequestMethod.GET));
+    }
+
+    @Test
+    public void missesAreNotCachedWhenDisabled() {
+        RoutingCache routingCache = new RoutingCache(16, false);
+        routingCache.putMiss(PACKAGE, "/unknown", Request.RequestMethod.GET);
+        assertNull(routingCache.get(PACKAGE, "/unknown", Request.RequestMethod.GET));
+    }
+
+    @Test
+    public void missesDoNotEvictFoundRoutes() {
+        RoutingCache routingCache = new RoutingCache(2, true);
+        Route route = getRoute();
+        routingCache.put(PACKAGE, "/resource", Request.RequestMethod.GET, route);
+
+        for (int i = 0; i < 100; i++) {
+            routingCache.putMiss(PACKAGE, "/unknown" + i, Request.RequestMethod.GET);
+        }
+
+        assertSame(route, routingCache.get(PACKAGE, "/resource", Request.RequestMethod.GET));
+    }
+
+    @Test
+    public void disabledCacheNeverHits() {
+        RoutingCache routingCache = new RoutingCache(0, true);
+        routingCache.put(PACKAGE, "/resource", Request.RequestMethod.GET, getRoute());
+        routingCache.putMiss(PACKAGE, "/unknown", Request.RequestMethod.GET);
+        assertNull(routingCache.get(PACKAGE, "/resource", Request.RequestMethod.GET));
+        assertNull(routingCache.get(PACKAGE, "/unknown", Request.RequestMethod.GET));
+    }
+}
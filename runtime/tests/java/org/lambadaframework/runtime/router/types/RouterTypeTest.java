@@ -65,10 +65,4 @@ public class RouterTypeTest {
         RouterType routerType = new Method();
         assertTrue(routerType.isMatching(getRequest(), getResourceMethod()));
     }
-
-    @Test
-    public void pathTest() throws Exception {
-        RouterType routerType = new Path();
-        assertTrue(routerType.isMatching(getRequest(), getResourceMethod()));
-    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package org.lambadaframework.runtime.serialization;
+
+import org.junit.Test;
+import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.router.types.MediaRange;
+
+import javax.ws.rs.core.MediaType;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BodyFormatsTest {
+
+    /**
+     * Has the methods of a generated protocol buffers message
+     */
+    public static class Message {
+
+        private final String value;
+
+        public Message(String value) {
+            this.value = value;
+        }
+
+        public static Message parseFrom(byte[] data) {
+            return new Message(new String(data, StandardCharsets.UTF_8));
+        }
+
+        public byte[] toByteArray() {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void formatsAreFoundByMediaType() throws Exception {
+        assertNotNull(BodyFormats.getFormat(MediaType.APPLICATION_JSON_TYPE));
+        assertSame(BodyFormats.getFormat(MediaType.APPLICATION_JSON_TYPE), BodyFormats.getFormat(MediaRange.parseContentType("application/vnd.example+json; charset=UTF-8")));
+        assertNotNull(BodyFormats.getFormat(MediaRange.parseContentType("application/x-protobuf")));
+        assertNull(BodyFormats.getFormat(MediaRange.parseContentType("application/unknown")));
+        assertTrue(BodyFormats.isJson(MediaRange.parseContentType("application/problem+json")));
+    }
+
+    @Test
+    public void cborBodiesAreReadAndWritten() throws Exception {
+        BodyFormat format = BodyFormats.getFormat(BodyFormats.CBOR_TYPE);
+        assertTrue(format.isBinary());
+
+        byte[] body = format.write(Collections.singletonMap("key", "value"));
+        Map<?, ?> read = (Map<?, ?>) format.read(Map.class, body);
+        assertEquals("value", read.get("key"));
+    }
+
+    @Test
+    public void protobufMessagesAreReadByReflection() throws Exception {
+        BodyFormat format = BodyFormats.getFormat(MediaRange.parseContentType("application/x-protobuf"));
+        assertTrue(format.isReadable(Message.class));
+        assertFalse(format.isReadable(String.class));
+
+        byte[] body = BodyFormats.decode(Base64.getEncoder().encodeToString("hello".getBytes(StandardCharsets.UTF_8)), false, format);
+        assertEquals("hello", ((Message) format.read(Message.class, body)).value);
+    }
+
+    @Test
+    public void binaryEntitiesAreWrittenAsBase64() throws Exception {
+        Response response = BodyFormats.writeEntity(Response.buildFromJAXRSResponse(new Message("hello"))
+                .setDefaultContentType(new MediaType("application", "x-protobuf")));
+
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals(Base64.getEncoder().encodeToString("hello".getBytes(StandardCharsets.UTF_8)), response.getEntity());
+    }
+
+    @Test
+    public void jsonEntitiesAreLeftAsObjects() throws Exception {
+        Object entity = Collections.singletonMap("key", "value");
+        Response response = BodyFormats.writeEntity(Response.buildFromJAXRSResponse(entity)
+                .setDefaultContentType(MediaType.APPLICATION_JSON_TYPE));
+
+        assertFalse(response.getIsBase64Encoded());
+        assertSame(entity, response.getEntity());
+    }
+}
@@ -0,0 +1,92 @@
+package org.lambadaframework.runtime.serialization;
+
+import org.junit.Test;
+import org.lambadaframework.runtime.models.Request;
+import org.lambadaframework.runtime.models.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.*;
+
+public class ContentEncodingTest {
+
+    private static final String ENTITY = String.join(",", Collections.nCopies(200, "lambada"));
+
+    private Request getRequest(String acceptEncoding) {
+        return new Request().setHeader(Collections.singletonMap("accept-encoding", acceptEncoding));
+    }
+
+    private String read(InputStream inputStream) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = inputStream.read(buffer)) > 0) {
+            output.write(buffer, 0, read);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void encodingIsNegotiatedByQuality() throws Exception {
+        assertEquals("gzip", ContentEncoding.negotiate("gzip, deflate, br"));
+        assertEquals("deflate", ContentEncoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals("gzip", ContentEncoding.negotiate("*"));
+        assertEquals("deflate", ContentEncoding.negotiate("gzip;q=0, *;q=0.5"));
+        assertNull(ContentEncoding.negotiate("br"));
+        assertNull(ContentEncoding.negotiate("identity"));
+        assertNull(ContentEncoding.negotiate(null));
+    }
+
+    @Test
+    public void largeEntitiesAreGzipped() throws Exception {
+        ContentEncoding contentEncoding = new ContentEncoding(100);
+        Response response = contentEncoding.encode(getRequest("gzip"), Response.buildFromJAXRSResponse(ENTITY));
+
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("vary"));
+
+        byte[] compressed = Base64.getDecoder().decode((String) response.getEntity());
+        assertEquals(ENTITY, read(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+        assertEquals(1, contentEncoding.getPool("gzip").idle());
+    }
+
+    @Test
+    public void objectEntitiesAreDeflatedAsJson() throws Exception {
+        Response response = new ContentEncoding(100).encode(getRequest("deflate"),
+                Response.buildFromJAXRSResponse(Collections.singletonMap("key", ENTITY)));
+
+        assertEquals("deflate", response.getHeader("Content-Encoding"));
+        assertEquals("application/json", response.getHeader("Content-Type"));
+
+        byte[] compressed = Base64.getDecoder().decode((String) response.getEntity());
+        assertEquals("{\"key\":\"" + ENTITY + "\"}", read(new InflaterInputStream(new ByteArrayInputStream(compressed))));
+    }
+
+    @Test
+    public void smallEntitiesAreNotCompressed() throws Exception {
+        Response response = new ContentEncoding(1024).encode(getRequest("gzip"), Response.buildFromJAXRSResponse("small"));
+
+        assertFalse(response.getIsBase64Encoded());
+        assertEquals("small", response.getEntity());
+        assertNull(response.getHeader("Content-Encoding"));
+    }
+
+    @Test
+    public void negativeMinimumSizeDisablesCompression() throws Exception {
+        Response response = new ContentEncoding(ContentEncoding.DISABLED).encode(getRequest("gzip"), Response.buildFromJAXRSResponse(ENTITY));
+        assertSame(ENTITY, response.getEntity());
+    }
+
+    @Test
+    public void compressionIsDisabledByDefault() throws Exception {
+        assertFalse(ContentEncoding.fromEnvironment().isEnabled());
+    }
+}
@@ -0,0 +1,97 @@
+package org.lambadaframework.runtime.serialization;
+
+import org.junit.Test;
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.runtime.binding.BoundParameters;
+import org.lambadaframework.runtime.models.Request;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.NotAllowedException;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class RequestReaderTest {
+
+    public static class NewEntityRequest {
+        public long id;
+    }
+
+    @Path("/")
+    public static class BoundResource {
+        @GET
+        public String get(@QueryParam("query1") String query1, @HeaderParam("X-Api-Key") String apiKey) {
+            return query1 + apiKey;
+        }
+    }
+
+    private Request read(String json) throws Exception {
+        return RequestReader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void readsMappingTemplateEvent() throws Exception {
+        Request request = read("{\n" +
+                "  \"package\": \"org.lambadaframework\",\n" +
+                "  \"pathtemplate\": \"/{id}\",\n" +
+                "  \"method\": \"POST\",\n" +
+                "  \"requestbody\": \"{\\\"id\\\":1}\",\n" +
+                "  \"path\": {\n" +
+                "    \"id\": \"123\"\n" +
+                "  },\n" +
+                "  \"querystring\": {\n" +
+                "    \"query1\": \"test3\"\n" +
+                "  },\n" +
+                "  \"header\": {},\n" +
+                "  \"stage-variables\": {\"stage\": \"dev\"}\n" +
+                "}");
+
+        assertEquals("org.lambadaframework", request.getPackage());
+        assertEquals("/{id}", request.getPathTemplate());
+        assertEquals(Request.RequestMethod.POST, request.getMethod());
+        assertEquals("{\"id\":1}", request.getRequestBody());
+        assertNull(request.getRequestBodyTokens());
+        assertEquals("123", request.getPathParameters().get("id"));
+        assertEquals("test3", request.getQueryParams().get("query1"));
+        assertTrue(request.getRequestHeaders().isEmpty());
+    }
+
+    @Test(expected = NotAllowedException.class)
+    public void unknownMethodIsNotAllowed() throws Exception {
+        read("{\"method\": \"PROPFIND\", \"pathTemplate\": \"/\"}");
+    }
+
+    @Test
+    public void buffersJsonRequestBody() throws Exception {
+        Request request = read("{\"method\": \"POST\", \"requestBody\": {\"id\": 1}, \"pathTemplate\": \"/{id}\"}");
+
+        assertNull(request.getRequestBody());
+        assertNotNull(request.getRequestBodyTokens());
+        assertEquals("/{id}", request.getPathTemplate());
+
+        NewEntityRequest entity = JsonSerialization.reader(NewEntityRequest.class)
+                .readValue(request.getRequestBodyTokens().asParser());
+        assertEquals(1, entity.id);
+    }
+
+    @Test
+    public void skipsParametersNoResourceMethodBinds() throws Exception {
+        BoundParameters.register("org.lambadaframework.bound", Collections.singletonList(
+                new Resource(org.glassfish.jersey.server.model.Resource.from(BoundResource.class))));
+
+        Request request = read("{\"package\": \"org.lambadaframework.bound\", \"method\": \"GET\", \"pathtemplate\": \"/\"," +
+                " \"querystring\": {\"query1\": \"a\", \"utm_source\": \"b\"}," +
+                " \"header\": {\"x-api-key\": \"key\", \"Content-Type\": \"application/json\", \"CloudFront-Viewer-Country\": \"DE\"}}");
+
+        assertEquals(Collections.singletonMap("query1", "a"), request.getQueryParams());
+        assertEquals(2, request.getRequestHeaders().size());
+        assertEquals("key", request.getHeader("X-API-KEY"));
+        assertEquals("application/json", request.getHeader("content-type"));
+        assertNull(request.getHeader("CloudFront-Viewer-Country"));
+    }
+}
@@ -0,0 +1,33 @@
+package org.lambadaframework.runtime.startup;
+
+import org.junit.Test;
+import org.lambadaframework.jaxrs.JAXRSParser;
+import org.lambadaframework.jaxrs.ResourceIndex;
+import org.lambadaframework.runtime.router.Router;
+import org.lambadaframework.stubs.StubHandler;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class EagerInitializationTest {
+
+    @Test
+    public void routerIsSingleton() throws Exception {
+        assertSame(Router.getRouter(), Router.getRouter());
+    }
+
+    @Test
+    public void initializesPackage() throws Exception {
+        Router.getRouter().setJaxrsParser(new JAXRSParser()
+                .withResourceIndex(new ResourceIndex(Collections.singleton(StubHandler.class.getName()))));
+
+        assertTrue(EagerInitialization.initialize("org.lambadaframework.stubs"));
+        assertFalse(Router.getRouter().prepare("org.lambadaframework.stubs").isEmpty());
+    }
+
+    @Test
+    public void failuresDoNotPropagate() throws Exception {
+        assertFalse(EagerInitialization.initialize(null));
+    }
+}
@@ -0,0 +1,87 @@
+package org.lambadaframework.runtime.startup;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StartupTimelineTest {
+
+    @Before
+    public void setUp() {
+        StartupTimeline.reset();
+    }
+
+    @Test
+    public void jvmStartupIsAlwaysRecorded() {
+        assertTrue(StartupTimeline.getDuration(StartupTimeline.Phase.JVM_STARTUP) >= 0);
+        assertEquals(-1, StartupTimeline.getDuration(StartupTimeline.Phase.RESOURCE_SCAN));
+        assertEquals(-1, StartupTimeline.getStart(StartupTimeline.Phase.RESOURCE_SCAN));
+    }
+
+    @Test
+    public void phasesAreRecordedOnlyOnce() throws Exception {
+        StartupTimeline.record(StartupTimeline.Phase.RESOURCE_SCAN, StartupTimeline.start() - 1000);
+        long duration = StartupTimeline.getDuration(StartupTimeline.Phase.RESOURCE_SCAN);
+        assertTrue(duration >= 1000);
+
+        StartupTimeline.record(StartupTimeline.Phase.RESOURCE_SCAN, StartupTimeline.start() - 1000000000L);
+        assertEquals(duration, StartupTimeline.getDuration(StartupTimeline.Phase.RESOURCE_SCAN));
+        assertTrue(StartupTimeline.getDurations().containsKey(StartupTimeline.Phase.RESOURCE_SCAN));
+    }
+
+    @Test
+    public void nestedPhasesAreNotCountedTwice() {
+        long invocationStarted = StartupTimeline.start() - 20000000L;
+        StartupTimeline.record(StartupTimeline.Phase.RESOURCE_SCAN, StartupTimeline.start() - 10000000L);
+        StartupTimeline.record(StartupTimeline.Phase.ROUTE_TREE, StartupTimeline.start() - 5000000L);
+        StartupTimeline.record(StartupTimeline.Phase.FIRST_INVOCATION, invocationStarted);
+
+        long firstInvocationEnd = StartupTimeline.getStart(StartupTimeline.Phase.FIRST_INVOCATION)
+                + StartupTimeline.getDuration(StartupTimeline.Phase.FIRST_INVOCATION);
+        assertEquals(firstInvocationEnd - StartupTimeline.getStart(StartupTimeline.Phase.JVM_STARTUP),
+                StartupTimeline.getTotal());
+    }
+
+    @Test
+    public void totalIsWallClockBetweenPhases() {
+        long scanStarted = StartupTimeline.start();
+        StartupTimeline.record(StartupTimeline.Phase.RESOURCE_SCAN, scanStarted);
+
+        long scanEnd = StartupTimeline.getStart(StartupTimeline.Phase.RESOURCE_SCAN)
+                + StartupTimeline.getDuration(StartupTimeline.Phase.RESOURCE_SCAN);
+        assertEquals(scanEnd - StartupTimeline.getStart(StartupTimeline.Phase.JVM_STARTUP), StartupTimeline.getTotal());
+    }
+
+    @Test
+    public void timelineIsEmittedOnce() {
+        List<String> lines = new ArrayList<>();
+        LambdaLogger logger = lines::add;
+
+        StartupTimeline.record(StartupTimeline.Phase.FIRST_INVOCATION, StartupTimeline.start());
+
+        assertTrue(StartupTimeline.emit(logger));
+        assertFalse(StartupTimeline.emit(logger));
+        assertTrue(StartupTimeline.isEmitted());
+
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"type\":\"lambada.startup\",\"phases\":{\"JVM_STARTUP\":{"));
+        assertTrue(lines.get(0).contains("\"FIRST_INVOCATION\":{\"startNanos\":"));
+        assertTrue(lines.get(0).contains("\"totalNanos\":"));
+    }
+
+    @Test
+    public void timelineWithoutLoggerIsMarkedAsEmitted() {
+        List<String> lines = new ArrayList<>();
+
+        assertFalse(StartupTimeline.emit(null));
+        assertTrue(StartupTimeline.isEmitted());
+
+        assertFalse(StartupTimeline.emit(lines::add));
+        assertTrue(lines.isEmpty());
+    }
+}
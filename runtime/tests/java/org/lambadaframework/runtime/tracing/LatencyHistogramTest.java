@@ -0,0 +1,63 @@
+package org.lambadaframework.runtime.tracing;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverValuesContinuously() throws Exception {
+        int previous = -1;
+        for (long value = 0; value < 100000; value++) {
+            int index = LatencyHistogram.getIndex(value);
+            assertTrue(index == previous || index == previous + 1);
+            previous = index;
+
+            long bucketValue = LatencyHistogram.getValue(index);
+            assertTrue("Value " + value + " is reported as " + bucketValue, Math.abs(bucketValue - value) <= Math.max(1, value / 32));
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinPrecision() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500, histogram.getValueAtPercentile(50), 500 / 32);
+        assertEquals(990, histogram.getValueAtPercentile(99), 990 / 32);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void emptyHistogramReportsZero() throws Exception {
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+    }
+
+    @Test
+    public void intervalsCoverValuesSincePreviousInterval() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(1000));
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+
+        LatencyHistogram interval = histogram.getInterval();
+        assertEquals(2, interval.getCount());
+        assertEquals(1000, interval.getMax());
+
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(20));
+        interval = histogram.getInterval();
+        assertEquals(1, interval.getCount());
+        assertEquals(20, interval.getMax());
+        assertEquals(20, interval.getValueAtPercentile(99));
+
+        assertEquals(0, histogram.getInterval().getCount());
+        assertEquals(3, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+    }
+}
@@ -0,0 +1,110 @@
+package org.lambadaframework.runtime.tracing;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RequestTracingTest {
+
+    @After
+    public void disableTracing() {
+        RequestTracing.setEnabled(false);
+    }
+
+    @Test
+    public void disabledTracingDoesNotReadTheClock() throws Exception {
+        RequestTracing.setEnabled(false);
+        assertEquals(0, RequestTracing.start());
+    }
+
+    @Test
+    public void spansAreAggregatedByRoute() throws Exception {
+        RequestTracing.setEnabled(true);
+
+        RequestTracing.begin();
+        RequestTracing.record(Span.ROUTING, RequestTracing.start());
+        Thread.sleep(2);
+        RequestTracing.record(Span.INVOCATION, RequestTracing.start() - 5000000);
+        RequestTracing.finish(null);
+
+        RouteMetrics metrics = RequestTracing.getMetrics();
+        assertEquals(1, metrics.getHistogram(RequestTracing.UNMATCHED_ROUTE, Span.ROUTING).getCount());
+        assertTrue(metrics.getHistogram(RequestTracing.UNMATCHED_ROUTE, Span.INVOCATION).getMax() >= 5000);
+        assertTrue(metrics.getHistogram(RequestTracing.UNMATCHED_ROUTE, Span.TOTAL).getMax() >= 2000);
+        assertEquals(0, metrics.getHistogram(RequestTracing.UNMATCHED_ROUTE, Span.BINDING).getCount());
+
+        List<String> lines = new ArrayList<>();
+        RequestTracing.emit(lines::add);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"_aws\":{\"Timestamp\":"));
+        assertTrue(lines.get(0).contains("\"Dimensions\":[[\"Route\"]]"));
+        assertTrue(lines.get(0).contains("\"Route\":\"UNMATCHED\""));
+        assertTrue(lines.get(0).contains("{\"Name\":\"invocation\",\"Unit\":\"Microseconds\"}"));
+        assertTrue(lines.get(0).contains("\"invocation\":{\"Values\":["));
+        assertTrue(lines.get(0).contains("],\"Counts\":[1],"));
+        assertFalse(lines.get(0).contains("\"binding\""));
+
+        lines.clear();
+        RequestTracing.emit(lines::add);
+        assertTrue(lines.isEmpty());
+        assertEquals(1, metrics.getHistogram(RequestTracing.UNMATCHED_ROUTE, Span.ROUTING).getCount());
+    }
+
+    @Test
+    public void histogramsAreWrittenWithValuesAndCounts() throws Exception {
+        RouteMetrics metrics = new RouteMetrics();
+        long[] spans = new long[Span.values().length];
+        Arrays.fill(spans, -1);
+        for (long micros : new long[]{10, 10, 10, 2000}) {
+            spans[Span.TOTAL.ordinal()] = micros * 1000;
+            metrics.record("GET /users", spans);
+        }
+
+        List<String> lines = metrics.toEmbeddedMetricFormat(1000);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"total\":{\"Values\":[10,2000],\"Counts\":[3,1],\"Max\":2000,\"Min\":10,\"Count\":4,\"Sum\":2030}"));
+        assertTrue(lines.get(0).contains("\"count\":4"));
+    }
+
+    @Test
+    public void histogramsAreLimitedToMaximumValues() throws Exception {
+        RouteMetrics metrics = new RouteMetrics();
+        long[] spans = new long[Span.values().length];
+        Arrays.fill(spans, -1);
+        for (long micros = 0; micros < 5000; micros += 10) {
+            spans[Span.TOTAL.ordinal()] = micros * 1000;
+            metrics.record("GET /users", spans);
+        }
+
+        String line = metrics.toEmbeddedMetricFormat(1000).get(0);
+        String values = line.substring(line.indexOf("\"Values\":[") + 10, line.indexOf("],\"Counts\""));
+        String counts = line.substring(line.indexOf("\"Counts\":[") + 10, line.indexOf("],\"Max\""));
+        assertTrue(values.split(",").length <= RouteMetrics.MAXIMUM_VALUES);
+        assertEquals(values.split(",").length, counts.split(",").length);
+
+        long total = 0;
+        for (String count : counts.split(",")) {
+            total += Long.parseLong(count);
+        }
+        assertEquals(500, total);
+    }
+
+    @Test
+    public void adjacentBucketsAreMergedAtTheirWeightedMean() throws Exception {
+        long[] values = {10, 20, 30, 40, 50};
+        long[] counts = {1, 3, 1, 1, 2};
+
+        assertEquals(3, RouteMetrics.mergeAdjacentBuckets(values, counts, 5));
+        assertEquals(17, values[0]);
+        assertEquals(4, counts[0]);
+        assertEquals(35, values[1]);
+        assertEquals(2, counts[1]);
+        assertEquals(50, values[2]);
+        assertEquals(2, counts[2]);
+    }
+}
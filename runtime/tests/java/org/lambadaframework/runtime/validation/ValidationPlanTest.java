@@ -0,0 +1,154 @@
+package org.lambadaframework.runtime.validation;
+
+import org.junit.Test;
+import org.lambadaframework.jaxrs.model.Resource;
+import org.lambadaframework.runtime.errorhandling.ErrorHandler;
+import org.lambadaframework.runtime.models.Response;
+import org.lambadaframework.runtime.models.error.ErrorResponses;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.executable.ExecutableValidator;
+import javax.ws.rs.QueryParam;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ValidationPlanTest {
+
+    public static class Entity {
+        @NotNull
+        public String name;
+    }
+
+    public static class ValidatedResource {
+
+        public String plain(@QueryParam("name") String name, Entity entity) {
+            return name;
+        }
+
+        public String constrained(@NotNull @QueryParam("name") String name) {
+            return name;
+        }
+
+        public String cascaded(@Valid Entity entity) {
+            return entity.name;
+        }
+
+        public String repeated(@Pattern.List({@Pattern(regexp = "[a-z]+"), @Pattern(regexp = ".{3,}")}) String name) {
+            return name;
+        }
+    }
+
+    private ValidationPlan compile(String methodName, Class<?>... parameterTypes) throws Exception {
+        return ValidationPlan.compile(ValidatedResource.class.getMethod(methodName, parameterTypes));
+    }
+
+    @Test
+    public void methodsWithoutConstraintsAreNotValidated() throws Exception {
+        assertSame(ValidationPlan.NONE, compile("plain", String.class, Entity.class));
+        assertTrue(ValidationPlan.NONE.validate(new ValidatedResource(), new Object[]{null, null}).isEmpty());
+    }
+
+    @Test
+    public void constrainedParametersAreValidated() throws Exception {
+        assertFalse(compile("constrained", String.class).isEmpty());
+        assertFalse(compile("cascaded", Entity.class).isEmpty());
+        assertFalse(compile("repeated", String.class).isEmpty());
+    }
+
+    @Test
+    public void validationIsSkippedWithoutProvider() throws Exception {
+        assertFalse(Validators.initialize());
+        assertTrue(compile("constrained", String.class).validate(new ValidatedResource(), new Object[]{null}).isEmpty());
+    }
+
+    private Resource getResource(String methodName, Class<?>... parameterTypes) throws Exception {
+        org.glassfish.jersey.server.model.Resource.Builder resourceBuilder = org.glassfish.jersey.server.model.Resource.builder();
+        resourceBuilder.path("/" + methodName)
+                .addMethod("GET")
+                .handledBy(ValidatedResource.class, ValidatedResource.class.getMethod(methodName, parameterTypes));
+        return new Resource(resourceBuilder.build());
+    }
+
+    @Test
+    public void constrainedResourcesAreReportedWithoutProvider() throws Exception {
+        assertTrue(Validators.initialize(Collections.singletonList(getResource("plain", String.class, Entity.class))));
+        assertFalse(Validators.initialize(Arrays.asList(
+                getResource("plain", String.class, Entity.class),
+                getResource("constrained", String.class))));
+    }
+
+    /**
+     * Creates a stub of the interface, its methods return the value of the same name
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, String toString, Object... namesAndValues) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals("toString")) {
+                return toString;
+            }
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            for (int i = 0; i < namesAndValues.length; i += 2) {
+                if (method.getName().equals(namesAndValues[i])) {
+                    return namesAndValues[i + 1];
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Creates a validator that returns the violations and keeps the validated method
+     */
+    private static ExecutableValidator getValidator(Set<ConstraintViolation<Object>> violations, Method[] validatedMethod) {
+        return (ExecutableValidator) Proxy.newProxyInstance(
+                ExecutableValidator.class.getClassLoader(),
+                new Class<?>[]{ExecutableValidator.class},
+                (proxy, method, args) -> {
+                    validatedMethod[0] = (Method) args[1];
+                    return violations;
+                });
+    }
+
+    @Test
+    public void violationsOfTheValidatorAreReturned() throws Exception {
+        ConstraintViolation<Object> violation = stub(ConstraintViolation.class, "violation",
+                "getPropertyPath", stub(Path.class, "constrained.name"),
+                "getMessage", "may not be null");
+        Set<ConstraintViolation<Object>> expectedViolations = Collections.singleton(violation);
+        Method[] validatedMethod = new Method[1];
+        ExecutableValidator validator = getValidator(expectedViolations, validatedMethod);
+
+        Set<ConstraintViolation<Object>> violations =
+                compile("constrained", String.class).validate(validator, new ValidatedResource(), new Object[]{null});
+
+        assertSame(expectedViolations, violations);
+        assertEquals("constrained", validatedMethod[0].getName());
+
+        Response response = ErrorHandler.getBadRequestResponse(violations);
+        assertEquals(400, response.getStatusCode());
+        assertEquals("constrained.name may not be null", response.getErrorMessage());
+    }
+
+    @Test
+    public void methodsWithoutConstraintsAreNotGivenToTheValidator() throws Exception {
+        Method[] validatedMethod = new Method[1];
+        ExecutableValidator validator = getValidator(Collections.emptySet(), validatedMethod);
+
+        assertTrue(ValidationPlan.NONE.validate(validator, new ValidatedResource(), new Object[]{null}).isEmpty());
+        assertNull(validatedMethod[0]);
+        assertTrue(compile("constrained", String.class).validate(validator, new ValidatedResource(), new Object[]{"name"}).isEmpty());
+        assertNotNull(validatedMethod[0]);
+        assertSame(ErrorResponses.BAD_REQUEST, ErrorHandler.getBadRequestResponse(Collections.emptySet()));
+    }
+}
@@ -0,0 +1,15 @@
+package org.lambadaframework.stubs;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+
+@Provider
+public class StubExceptionMapper implements ExceptionMapper<IllegalStateException> {
+
+    @Override
+    public Response toResponse(IllegalStateException exception) {
+        return Response.status(409).entity(exception.getMessage()).build();
+    }
+}